@@ -12,6 +12,22 @@ repositories {
     mavenCentral() // Standard repository for dependencies
 }
 
+// JMH benchmarks for the plugin's hot paths live in src/jmh/java; run them with `./gradlew jmh`
+// (pass JMH options with -PjmhArgs, e.g. -PjmhArgs="PlaceholderScan -p fixtureChars=10240")
+sourceSets {
+    create("jmh") {
+        // Benchmarks sit in the plugin's packages to reach package-private code, and need the IntelliJ SDK on
+        // the classpath for headless documents
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += output + compileClasspath
+    }
+    // Stub resolver backend and load-test harness, run with `./gradlew loadTest` (options with -PloadTestArgs)
+    create("loadtest") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+    }
+}
+
 // Configure Gradle IntelliJ Plugin
 // Read more: https://plugins.jetbrains.com/docs/intellij/tools-gradle-intellij-plugin.html
 intellij {
@@ -49,6 +65,34 @@ tasks {
         untilBuild.set("241.*") // Compatible with all 2024.1.x patch releases
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the JMH benchmarks."
+        dependsOn("jmhClasses")
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        // The largest fixtures are 50 MB of XML, plus their JSON encodings
+        jvmArgs("-Xmx4g")
+        args((project.findProperty("jmhArgs") as String? ?: "").split(" ").filter { it.isNotBlank() })
+        args("-rf", "json", "-rff", layout.buildDirectory.file("reports/jmh/results.json").get().asFile.path)
+        doFirst { layout.buildDirectory.dir("reports/jmh").get().asFile.mkdirs() }
+    }
+
+    register<JavaExec>("loadTest") {
+        group = "verification"
+        description = "Runs simulated users against a local stub backend and reports throughput and latency."
+        dependsOn("loadtestClasses")
+        classpath = sourceSets["loadtest"].runtimeClasspath
+        mainClass.set("com.zoho.catalyst_plugin.loadtest.LoadTest")
+        args((project.findProperty("loadTestArgs") as String? ?: "").split(" ").filter { it.isNotBlank() })
+        // Forward client-side limits (catalyst.lsk.*) given to Gradle with -D
+        systemProperties(System.getProperties().filterKeys { it.toString().startsWith("catalyst.lsk.") }.mapKeys { it.key.toString() })
+    }
+
     // Optional: Signing configuration for publishing to Marketplace
     // Keep these commented out or remove if not publishing/signing yet
     // signPlugin {
@@ -75,7 +119,12 @@ dependencies {
     // BCrypt (Only if really needed by the plugin itself)
     // implementation("org.mindrot:jbcrypt:0.4")
 
-    // Test framework (Example)
-    // testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.0")
-    // testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.0")
+    // Benchmarks
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    // Test framework
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.0")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.0")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher:1.9.0")
 }
\ No newline at end of file
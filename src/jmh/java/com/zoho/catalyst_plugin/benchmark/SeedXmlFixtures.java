@@ -0,0 +1,69 @@
+package com.zoho.catalyst_plugin.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates seed-data XML shaped like the files the plugin resolves: rows of a few tables, each with an LSK
+ * identity, REF attributes to rows of other tables, already resolved (numeric) keys and plain columns.
+ * Generated instead of checked in, since the largest fixtures are tens of megabytes; a fixed seed keeps
+ * every run on the same text.
+ */
+public final class SeedXmlFixtures {
+    public static final String MODULE = "Billing";
+
+    private static final String[] TABLES = {"Customer", "Invoice", "InvoiceLine", "Product", "TaxRule", "PaymentTerm"};
+    private static final String[] STATUSES = {"OPEN", "PAID", "OVERDUE", "CANCELLED"};
+
+    private SeedXmlFixtures() {}
+
+    /**
+     * @param targetChars approximate length of the document; the result ends after the first row that reaches it
+     */
+    public static String seedXml(int targetChars) {
+        Random random = new Random(42);
+        StringBuilder xml = new StringBuilder(targetChars + 512);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<seed-data module=\"").append(MODULE).append("\" version=\"1\">\n");
+        for (int row = 0; xml.length() < targetChars; row++) {
+            String table = TABLES[row % TABLES.length];
+            String referenced = TABLES[(row + 1 + random.nextInt(TABLES.length - 1)) % TABLES.length];
+            xml.append("  <").append(table)
+                    .append(" ID=\"").append(lsk(table, row)).append('"')
+                    .append(" PARENT_ID=\"REF:{").append(lsk(referenced, random.nextInt(row + 1))).append("}\"");
+            if (row % 5 == 0) {
+                // Resolved by an earlier run; the scanner must skip it
+                xml.append(" LEGACY_ID=\"").append(table).append(":ID:").append(MODULE).append(':').append(1000 + row).append('"');
+            }
+            xml.append(" NAME=\"").append(table).append(" row ").append(row).append('"')
+                    .append(" STATUS=\"").append(STATUSES[random.nextInt(STATUSES.length)]).append('"')
+                    .append(" AMOUNT=\"").append(random.nextInt(100_000)).append('.').append(random.nextInt(100)).append('"')
+                    .append(" CREATED_TIME=\"2024-0").append(1 + row % 9).append("-1").append(row % 10).append("T10:00:00Z\"");
+            if (row % 3 == 0) {
+                xml.append(">\n    <Description>Seed row ").append(row).append(" of ").append(table)
+                        .append(" &amp; related records</Description>\n  </").append(table).append(">\n");
+            } else {
+                xml.append("/>\n");
+            }
+        }
+        xml.append("</seed-data>\n");
+        return xml.toString();
+    }
+
+    /**
+     * @return a resolved value for each key, as the backend would return them
+     */
+    public static Map<String, String> resolvedValues(Iterable<String> keys) {
+        Map<String, String> values = new LinkedHashMap<>();
+        long id = 20_000_000_000_000L;
+        for (String key : keys) {
+            values.put(key, key.substring(0, key.lastIndexOf(':') + 1) + id++);
+        }
+        return values;
+    }
+
+    private static String lsk(String table, int row) {
+        return table + ":ID:" + MODULE + ":" + table.toUpperCase() + "_" + row;
+    }
+}
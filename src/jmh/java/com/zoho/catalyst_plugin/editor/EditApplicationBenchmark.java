@@ -0,0 +1,75 @@
+package com.zoho.catalyst_plugin.editor;
+
+import com.intellij.openapi.editor.impl.DocumentImpl;
+import com.zoho.catalyst_plugin.benchmark.SeedXmlFixtures;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing results into a headless {@link DocumentImpl} through a {@link ResolveSnapshot}: per placeholder, as
+ * batch results are applied, and as one block replacement, as an unchanged single selection is. Each invocation
+ * starts from a fresh document and snapshot, which are not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EditApplicationBenchmark {
+
+    @Param({"10240", "1048576", "10485760", "52428800"})
+    public int fixtureChars;
+
+    private String xml;
+    private Map<String, String> resolved;
+    private String resolvedXml;
+
+    private ResolveSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void createFixture() {
+        xml = SeedXmlFixtures.seedXml(fixtureChars);
+        List<PlaceholderScanner.Placeholder> placeholders = PlaceholderScanner.scan(xml);
+        resolved = SeedXmlFixtures.resolvedValues(PlaceholderScanner.collectKeys(placeholders));
+        resolvedXml = PlaceholderScanner.applyResolutions(xml, 0, xml.length(), placeholders, resolved);
+    }
+
+    @Setup(Level.Invocation)
+    public void captureSnapshot() {
+        // forUseInNonAWTThread: no EDT or write action outside a running IDE
+        DocumentImpl document = new DocumentImpl(xml, true);
+        snapshot = ResolveSnapshot.capture(document, 0, document.getTextLength());
+    }
+
+    @TearDown(Level.Invocation)
+    public void disposeSnapshot() {
+        snapshot.dispose();
+    }
+
+    @Benchmark
+    public ResolveSnapshot.ApplyResult applyPerPlaceholder() {
+        return snapshot.apply(resolved);
+    }
+
+    @Benchmark
+    public ResolveSnapshot.ApplyResult applyWholeRegion() {
+        return snapshot.applyResolvedText(resolvedXml);
+    }
+}
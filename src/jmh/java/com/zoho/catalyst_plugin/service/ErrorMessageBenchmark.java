@@ -0,0 +1,59 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.google.gson.Gson;
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.dto.SimpleResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BackendApiService#parseErrorMessage} for each of the error shapes it tries in turn, down to a body that
+ * matches none of them (e.g. a proxy's HTML error page), which pays for every attempt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorMessageBenchmark {
+
+    private BackendApiService backend;
+    private String apiError;
+    private String simpleError;
+    private String unstructuredError;
+
+    @Setup
+    public void setUp() {
+        Gson gson = new Gson();
+        backend = BackendApiService.getInstance();
+        apiError = gson.toJson(new ApiResponse("Module 'Billing' not found"));
+        simpleError = gson.toJson(new SimpleResponse("Module 'Billing' not found"));
+        unstructuredError = "<html><body><h1>502 Bad Gateway</h1></body></html>";
+    }
+
+    @Benchmark
+    public String apiResponseShape() {
+        return backend.parseErrorMessage(apiError);
+    }
+
+    @Benchmark
+    public String simpleResponseShape() {
+        return backend.parseErrorMessage(simpleError);
+    }
+
+    @Benchmark
+    public String unstructured() {
+        return backend.parseErrorMessage(unstructuredError);
+    }
+}
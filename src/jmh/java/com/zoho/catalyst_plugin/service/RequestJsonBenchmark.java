@@ -0,0 +1,55 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.zoho.catalyst_plugin.benchmark.SeedXmlFixtures;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request bodies as sent by {@link BackendApiService#resolveLskSelection} (the whole selection as a JSON string)
+ * and {@link BackendApiService#resolvePlaceholders} (the selection's distinct keys as a key lookup fragment).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestJsonBenchmark {
+
+    @Param({"10240", "1048576", "10485760", "52428800"})
+    public int fixtureChars;
+
+    private BackendApiService backend;
+    private String xml;
+    private Set<String> keys;
+
+    @Setup
+    public void setUp() {
+        backend = BackendApiService.getInstance();
+        xml = SeedXmlFixtures.seedXml(fixtureChars);
+        keys = PlaceholderScanner.collectKeys(PlaceholderScanner.scan(xml));
+    }
+
+    @Benchmark
+    public String resolveRequest() {
+        return backend.buildResolveRequestJson(SeedXmlFixtures.MODULE, xml);
+    }
+
+    @Benchmark
+    public String batchRequest() {
+        return backend.buildResolveRequestJson(SeedXmlFixtures.MODULE, BackendApiService.buildKeyLookupXml(keys));
+    }
+}
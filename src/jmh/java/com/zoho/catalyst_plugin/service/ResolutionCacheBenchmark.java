@@ -0,0 +1,95 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.zoho.catalyst_plugin.benchmark.SeedXmlFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ResolutionCache} lookups, single and for a selection's worth of keys, from one thread and from several
+ * (the pipeline's cache stage, the inlay hints and the prefetcher read it concurrently).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolutionCacheBenchmark {
+
+    private static final int KEYS_PER_SELECTION = 200;
+
+    @Param({"1000", "50000"})
+    public int cachedEntries;
+
+    private ResolutionCache cache;
+    private String[] cachedKeys;
+    private List<String> selectionKeys;
+
+    @Setup
+    public void setUp() {
+        cache = ResolutionCache.getInstance();
+        cache.clear();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < cachedEntries; i++) {
+            values.put("Invoice:ID:" + SeedXmlFixtures.MODULE + ":INVOICE_" + i, "Invoice:ID:" + SeedXmlFixtures.MODULE + ":" + (1000 + i));
+        }
+        cache.putAll(SeedXmlFixtures.MODULE, values);
+        cachedKeys = values.keySet().toArray(new String[0]);
+
+        // Three quarters cached, the rest unknown, as for a selection that is partly new
+        selectionKeys = new ArrayList<>(KEYS_PER_SELECTION);
+        for (int i = 0; i < KEYS_PER_SELECTION; i++) {
+            selectionKeys.add(i % 4 == 3 ? "Invoice:ID:" + SeedXmlFixtures.MODULE + ":NEW_" + i : cachedKeys[i % cachedKeys.length]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.clear();
+    }
+
+    @Benchmark
+    public String getHit() {
+        return cache.get(SeedXmlFixtures.MODULE, cachedKeys[ThreadLocalRandom.current().nextInt(cachedKeys.length)]);
+    }
+
+    @Benchmark
+    public String getMiss() {
+        return cache.get(SeedXmlFixtures.MODULE, "Invoice:ID:" + SeedXmlFixtures.MODULE + ":MISSING");
+    }
+
+    @Benchmark
+    public Map<String, String> getAllSelection() {
+        return cache.getAll(SeedXmlFixtures.MODULE, selectionKeys);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getHitContended() {
+        return getHit();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<String, String> getAllSelectionContended() {
+        return getAllSelection();
+    }
+}
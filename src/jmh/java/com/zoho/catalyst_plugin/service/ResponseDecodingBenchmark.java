@@ -0,0 +1,71 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.google.gson.Gson;
+import com.zoho.catalyst_plugin.benchmark.SeedXmlFixtures;
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.dto.BatchResolveResponse;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of successful backend responses: the rewritten XML of a single-selection resolve and the rewritten key
+ * lookup of a batch resolve, read back into a key -> value map. Error bodies are covered by {@link ErrorMessageBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseDecodingBenchmark {
+
+    @Param({"10240", "1048576", "10485760", "52428800"})
+    public int fixtureChars;
+
+    // Same (default) configuration as the one in BackendApiService
+    private final Gson gson = new Gson();
+    private String resolveResponse;
+    private List<String> keys;
+    private String batchResponse;
+
+    @Setup
+    public void setUp() {
+        String xml = SeedXmlFixtures.seedXml(fixtureChars);
+        List<PlaceholderScanner.Placeholder> placeholders = PlaceholderScanner.scan(xml);
+        Map<String, String> resolved = SeedXmlFixtures.resolvedValues(PlaceholderScanner.collectKeys(placeholders));
+
+        String resolvedXml = PlaceholderScanner.applyResolutions(xml, 0, xml.length(), placeholders, resolved);
+        resolveResponse = gson.toJson(new ApiResponse("Resolved", resolvedXml));
+        keys = new ArrayList<>(resolved.keySet());
+        String lookup = BackendApiService.buildKeyLookupXml(keys);
+        String resolvedLookup = PlaceholderScanner.applyResolutions(lookup, 0, lookup.length(), PlaceholderScanner.scan(lookup), resolved);
+        batchResponse = gson.toJson(new ApiResponse("Resolved", resolvedLookup));
+    }
+
+    @Benchmark
+    public ApiResponse resolveResponse() {
+        return gson.fromJson(resolveResponse, ApiResponse.class);
+    }
+
+    @Benchmark
+    public BatchResolveResponse batchResponse() throws IOException {
+        ApiResponse response = gson.fromJson(batchResponse, ApiResponse.class);
+        return BackendApiService.readKeyLookupXml(keys, response.getData(), response.getMessage());
+    }
+}
@@ -0,0 +1,61 @@
+package com.zoho.catalyst_plugin.util;
+
+import com.zoho.catalyst_plugin.benchmark.SeedXmlFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PlaceholderScanner} over a whole seed file: locating placeholders, collecting their distinct keys, and
+ * building the resolved text as the single-selection path does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderScanBenchmark {
+
+    @Param({"10240", "1048576", "10485760", "52428800"})
+    public int fixtureChars;
+
+    private String xml;
+    private List<PlaceholderScanner.Placeholder> placeholders;
+    private Map<String, String> resolved;
+
+    @Setup
+    public void setUp() {
+        xml = SeedXmlFixtures.seedXml(fixtureChars);
+        placeholders = PlaceholderScanner.scan(xml);
+        resolved = SeedXmlFixtures.resolvedValues(PlaceholderScanner.collectKeys(placeholders));
+    }
+
+    @Benchmark
+    public List<PlaceholderScanner.Placeholder> scan() {
+        return PlaceholderScanner.scan(xml);
+    }
+
+    @Benchmark
+    public Set<String> scanAndCollectKeys() {
+        return PlaceholderScanner.collectKeys(PlaceholderScanner.scan(xml));
+    }
+
+    @Benchmark
+    public String applyResolutions() {
+        return PlaceholderScanner.applyResolutions(xml, 0, xml.length(), placeholders, resolved);
+    }
+}
@@ -0,0 +1,77 @@
+package com.zoho.catalyst_plugin.loadtest;
+
+import java.util.Random;
+
+/**
+ * Simulated server-side processing time of the stub backend.
+ * <p>
+ * Parsed from {@code fixed:<ms>}, {@code uniform:<minMs>:<maxMs>} or {@code lognormal:<medianMs>:<sigma>}; the
+ * log-normal one has the long tail of a real service (sigma 0.5 puts p99 at about 3.2 times the median).
+ */
+public abstract class LatencyDistribution {
+
+    public abstract long sampleMillis(Random random);
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(Long.parseLong(parts[1]));
+                case "uniform":
+                    return uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "lognormal":
+                    return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency distribution '" + spec + "'", e);
+        }
+        throw new IllegalArgumentException("Unknown latency distribution '" + spec + "'; use fixed, uniform or lognormal.");
+    }
+
+    public static LatencyDistribution fixed(long millis) {
+        return new LatencyDistribution() {
+            @Override
+            public long sampleMillis(Random random) {
+                return millis;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed " + millis + " ms";
+            }
+        };
+    }
+
+    public static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        if (maxMillis < minMillis) throw new IllegalArgumentException("max < min");
+        return new LatencyDistribution() {
+            @Override
+            public long sampleMillis(Random random) {
+                return minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+            }
+
+            @Override
+            public String toString() {
+                return "uniform " + minMillis + "-" + maxMillis + " ms";
+            }
+        };
+    }
+
+    public static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        double mu = Math.log(medianMillis);
+        return new LatencyDistribution() {
+            @Override
+            public long sampleMillis(Random random) {
+                return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            }
+
+            @Override
+            public String toString() {
+                return "log-normal, median " + medianMillis + " ms, sigma " + sigma;
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package com.zoho.catalyst_plugin.loadtest;
+
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.dto.AuthResponse;
+import com.zoho.catalyst_plugin.dto.BatchResolveResponse;
+import com.zoho.catalyst_plugin.service.BackendApiService;
+import com.zoho.catalyst_plugin.service.MetricsRegistry;
+import com.zoho.catalyst_plugin.util.LatencyHistogram;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs simulated users against a {@link StubBackend} (or a real backend) through {@link BackendApiService}, the
+ * plugin's own HTTP client with its rate limiter, adaptive concurrency limit, retries and connection pool, and
+ * reports throughput, latency percentiles and allocation rate.
+ * <p>
+ * Each user sends resolve requests back to back, each for a selection with its own placeholders, as a busy user
+ * clicking Resolve would. Usage (all options optional):
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--users=32 --duration=30 --mode=batch --latency=lognormal:20:0.5 --error-rate=0.01"
+ * </pre>
+ * The client-side limits apply as configured, by default 10 requests per second; raise them with
+ * {@code -Dcatalyst.lsk.backend.rate=...} and {@code -Dcatalyst.lsk.backend.burst=...} (the Gradle task
+ * forwards them) to load the backend rather than the limiter.
+ */
+public final class LoadTest {
+
+    private enum Mode { SELECTION, BATCH }
+
+    private final Map<String, String> options;
+    private final int users;
+    private final long warmUpNanos;
+    private final long durationNanos;
+    private final Mode mode;
+    private final int rowsPerSelection;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.users = Integer.parseInt(options.getOrDefault("users", "16"));
+        this.warmUpNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "5")));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.mode = Mode.valueOf(options.getOrDefault("mode", "selection").toUpperCase());
+        this.rowsPerSelection = Integer.parseInt(options.getOrDefault("rows", "50"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        StubBackend stub = null;
+        String baseUrl = options.get("base-url");
+        if (baseUrl == null) {
+            StubBackendConfig config = new StubBackendConfig()
+                    .latency(LatencyDistribution.parse(options.getOrDefault("latency", "lognormal:20:0.5")))
+                    .errorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")))
+                    .errorStatus(Integer.parseInt(options.getOrDefault("error-status", "503")))
+                    .responsePaddingBytes(Integer.parseInt(options.getOrDefault("padding", "0")))
+                    .workerThreads(Integer.parseInt(options.getOrDefault("stub-threads", "64")));
+            stub = StubBackend.start(config, Integer.parseInt(options.getOrDefault("port", "0")));
+            baseUrl = stub.getBaseUrl();
+            System.out.println("Stub backend at " + baseUrl + ": " + config);
+        }
+        // Must be set before BackendApiService is first used
+        System.setProperty("catalyst.lsk.api.base.url", baseUrl);
+
+        try {
+            new LoadTest(options).run();
+        } finally {
+            if (stub != null) {
+                System.out.println("Stub backend served " + stub.getRequestCount() + " request(s), "
+                        + stub.getInjectedErrorCount() + " injected error(s).");
+                stub.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        BackendApiService backend = BackendApiService.getInstance();
+        String token = options.get("token");
+        if (token == null) {
+            AuthResponse auth = backend.exchangeGitHubCode("load-test");
+            token = auth.getToken();
+        }
+        final String sessionToken = token;
+
+        System.out.println("Running " + users + " user(s), mode " + mode + ", " + rowsPerSelection + " row(s) per selection, "
+                + TimeUnit.NANOSECONDS.toSeconds(warmUpNanos) + " s warm-up, " + TimeUnit.NANOSECONDS.toSeconds(durationNanos) + " s measured.");
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmUpNanos;
+        long measureUntil = measureFrom + durationNanos;
+        CountDownLatch done = new CountDownLatch(users);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            final int user = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    runUser(backend, sessionToken, user, measureFrom, measureUntil);
+                } finally {
+                    done.countDown();
+                }
+            }, "Load test user " + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(warmUpNanos));
+        MetricsRegistry.getInstance().reset();
+        long allocatedBefore = allocatedBytes();
+        done.await();
+        long allocatedBytes = allocatedBytes() - allocatedBefore;
+        for (Thread thread : threads) thread.join();
+
+        report(allocatedBytes);
+    }
+
+    private void runUser(BackendApiService backend, String token, int user, long measureFrom, long measureUntil) {
+        for (int iteration = 0; ; iteration++) {
+            long startNanos = System.nanoTime();
+            if (startNanos - measureUntil >= 0) return;
+            String xml = selectionXml(user, iteration, rowsPerSelection);
+            boolean success;
+            try {
+                if (mode == Mode.BATCH) {
+                    Set<String> keys = PlaceholderScanner.collectKeys(PlaceholderScanner.scan(xml));
+                    BatchResolveResponse response = backend.resolvePlaceholders("Billing", keys, token);
+                    success = response.getError() == null;
+                } else {
+                    ApiResponse response = backend.resolveLskSelection("Billing", xml, token);
+                    success = response.getError() == null;
+                }
+            } catch (Exception e) {
+                success = false;
+            }
+            long endNanos = System.nanoTime();
+            if (startNanos - measureFrom >= 0) {
+                latency.record(endNanos - startNanos);
+                (success ? completed : failed).incrementAndGet();
+            }
+        }
+    }
+
+    private static String selectionXml(int user, int iteration, int rows) {
+        StringBuilder xml = new StringBuilder(rows * 160);
+        for (int row = 0; row < rows; row++) {
+            String id = "U" + user + "_" + iteration + "_" + row;
+            xml.append("<Invoice ID=\"Invoice:ID:Billing:INV_").append(id)
+                    .append("\" CUSTOMER_ID=\"REF:{Customer:ID:Billing:CUST_").append(id)
+                    .append("}\" STATUS=\"OPEN\" AMOUNT=\"").append(row * 10).append(".50\"/>\n");
+        }
+        return xml.toString();
+    }
+
+    private void report(long allocatedBytes) {
+        double seconds = durationNanos / 1e9;
+        long requests = completed.get() + failed.get();
+        System.out.println();
+        System.out.printf("Requests:    %d (%d failed)%n", requests, failed.get());
+        System.out.printf("Throughput:  %.1f requests/s%n", requests / seconds);
+        System.out.printf("Latency:     p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                latency.getPercentileMillis(0.50), latency.getPercentileMillis(0.95),
+                latency.getPercentileMillis(0.99), latency.getMaxMillis());
+        System.out.printf("Allocation:  %.1f MB/s, %d bytes/request%n",
+                allocatedBytes / seconds / (1024 * 1024), requests == 0 ? 0 : allocatedBytes / requests);
+        MetricsRegistry.EndpointMetrics metrics = MetricsRegistry.getInstance().endpoint("/logical-seed-key/resolve");
+        System.out.printf("HTTP:        %d exchange(s), %d retried, %d failed, %d KB sent, %d KB received%n",
+                metrics.getRequestCount(), metrics.getRetryCount(), metrics.getFailureCount(),
+                metrics.getBytesSent() / 1024, metrics.getBytesReceived() / 1024);
+        System.out.printf("Client:      concurrency limit %d%n", BackendApiService.getInstance().getConcurrencyLimit());
+    }
+
+    /** Bytes allocated so far by all live threads of this JVM, the stub backend's included. */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) total += allocated;
+        }
+        return total;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
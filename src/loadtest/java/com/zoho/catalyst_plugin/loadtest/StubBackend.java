@@ -0,0 +1,189 @@
+package com.zoho.catalyst_plugin.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.dto.AuthResponse;
+import com.zoho.catalyst_plugin.dto.SimpleResponse;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the resolver backend, serving the endpoints {@code BackendApiService} calls under
+ * {@code /api} on a loopback port. Every placeholder resolves to its key with a numeric logical ID derived from
+ * the key, so repeated runs return the same values.
+ * <p>
+ * Point the plugin at it with {@code -Dcatalyst.lsk.api.base.url=}{@link #getBaseUrl()}; the property is read
+ * once, when {@code BackendApiService} is first used.
+ */
+public final class StubBackend implements AutoCloseable {
+    private final StubBackendConfig config;
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private StubBackend(StubBackendConfig config, HttpServer server) {
+        this.config = config;
+        this.server = server;
+        this.workers = Executors.newFixedThreadPool(config.workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "Stub backend worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(workers);
+        server.createContext("/api/auth/github/exchange-code", handler(false, body -> signIn()));
+        server.createContext("/api/auth/refresh", handler(true, body -> signIn()));
+        server.createContext("/api/health", handler(false, body -> gson.toJsonTree(new SimpleResponse("UP"))));
+        server.createContext("/api/logical-seed-key/resolve", handler(true, this::resolveSelection));
+    }
+
+    /**
+     * @param port the port to listen on, or 0 for any free one
+     */
+    public static StubBackend start(StubBackendConfig config, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        StubBackend backend = new StubBackend(config, server);
+        server.start();
+        return backend;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/api";
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private interface Endpoint {
+        JsonElement handle(JsonObject body);
+    }
+
+    private HttpHandler handler(boolean authenticated, Endpoint endpoint) {
+        return exchange -> {
+            try {
+                requests.incrementAndGet();
+                JsonObject body;
+                try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                    JsonElement parsed = "POST".equals(exchange.getRequestMethod()) ? gson.fromJson(reader, JsonElement.class) : null;
+                    body = parsed != null && parsed.isJsonObject() ? parsed.getAsJsonObject() : new JsonObject();
+                } catch (JsonParseException e) {
+                    send(exchange, 400, gson.toJsonTree(new ApiResponse("Malformed JSON: " + e.getMessage())));
+                    return;
+                }
+                if (authenticated && exchange.getRequestHeaders().getFirst("Authorization") == null) {
+                    send(exchange, 401, gson.toJsonTree(new ApiResponse("Missing session token")));
+                    return;
+                }
+
+                sleep(config.latency.sampleMillis(ThreadLocalRandom.current()));
+                if (config.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate) {
+                    injectedErrors.incrementAndGet();
+                    if (config.errorStatus == 429 || config.errorStatus == 503) {
+                        exchange.getResponseHeaders().set("Retry-After", String.valueOf(config.retryAfterSeconds));
+                    }
+                    send(exchange, config.errorStatus, gson.toJsonTree(new ApiResponse("Injected failure")));
+                    return;
+                }
+
+                JsonElement response;
+                try {
+                    response = endpoint.handle(body);
+                } catch (IllegalArgumentException e) {
+                    send(exchange, 400, gson.toJsonTree(new ApiResponse(e.getMessage())));
+                    return;
+                }
+                if (config.responsePaddingBytes > 0 && response.isJsonObject()) {
+                    // Unknown fields are ignored by the client's DTOs, but still transferred and parsed
+                    response.getAsJsonObject().addProperty("padding", "x".repeat(config.responsePaddingBytes));
+                }
+                send(exchange, 200, response);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private JsonElement signIn() {
+        AuthResponse response = new AuthResponse("Signed in to stub backend", "stub-" + UUID.randomUUID());
+        response.setExpiresIn(3600L);
+        return gson.toJsonTree(response);
+    }
+
+    private JsonElement resolveSelection(JsonObject body) {
+        String xml = requireString(body, "xmlContent");
+        requireString(body, "moduleName");
+        List<PlaceholderScanner.Placeholder> placeholders = PlaceholderScanner.scan(xml);
+        Map<String, String> resolved = resolve(PlaceholderScanner.collectKeys(placeholders));
+        String resolvedXml = PlaceholderScanner.applyResolutions(xml, 0, xml.length(), placeholders, resolved);
+        return gson.toJsonTree(new ApiResponse("Resolved " + resolved.size() + " placeholder(s)", resolvedXml));
+    }
+
+    private static Map<String, String> resolve(Collection<String> keys) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            values.put(key, key.substring(0, key.lastIndexOf(':') + 1) + (10_000 + (key.hashCode() & 0x7fffffff)));
+        }
+        return values;
+    }
+
+    private static String requireString(JsonObject body, String field) {
+        JsonElement value = body.get(field);
+        if (value == null || !value.isJsonPrimitive() || value.getAsString().isEmpty()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value.getAsString();
+    }
+
+    private void send(HttpExchange exchange, int status, JsonElement body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
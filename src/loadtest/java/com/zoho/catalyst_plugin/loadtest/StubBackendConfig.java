@@ -0,0 +1,55 @@
+package com.zoho.catalyst_plugin.loadtest;
+
+/**
+ * Behaviour of a {@link StubBackend}. Every request first waits for a sample of {@link #latency}; then a share
+ * {@link #errorRate} of them is answered with {@link #errorStatus} (with a {@code Retry-After} for 429/503, like
+ * an overloaded backend) instead of a result.
+ */
+public final class StubBackendConfig {
+    LatencyDistribution latency = LatencyDistribution.fixed(0);
+    double errorRate;
+    int errorStatus = 503;
+    int retryAfterSeconds = 1;
+    int responsePaddingBytes;
+    int workerThreads = 64;
+
+    public StubBackendConfig latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** @param errorRate between 0 and 1 */
+    public StubBackendConfig errorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) throw new IllegalArgumentException("errorRate must be between 0 and 1");
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public StubBackendConfig errorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    public StubBackendConfig retryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /** Extra bytes added to every successful response, to simulate larger payloads than the resolved text itself. */
+    public StubBackendConfig responsePaddingBytes(int responsePaddingBytes) {
+        this.responsePaddingBytes = responsePaddingBytes;
+        return this;
+    }
+
+    /** Requests served concurrently; more wait for a worker, as on a saturated server. */
+    public StubBackendConfig workerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "latency " + latency + ", error rate " + errorRate + " (HTTP " + errorStatus + "), padding "
+                + responsePaddingBytes + " bytes, " + workerThreads + " worker threads";
+    }
+}
@@ -0,0 +1,150 @@
+package com.zoho.catalyst_plugin.actions;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.zoho.catalyst_plugin.config.PluginConstants;
+import com.zoho.catalyst_plugin.service.AuthService;
+import com.zoho.catalyst_plugin.service.FileResolutionService;
+import com.zoho.catalyst_plugin.service.ResolutionCache;
+import com.zoho.catalyst_plugin.service.ResolutionManifest;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the placeholders of the selected XML files (or all XML files under the selected directories)
+ * without opening them in an editor. Each file is written to a {@code <name>.resolved.xml} copy next to it;
+ * large files are streamed instead of being loaded into memory.
+ * Files recorded in the {@link ResolutionManifest} whose content, output and placeholder keys are unchanged since
+ * the last run are skipped, so reruns only pay for what changed.
+ */
+public class ResolveFilesAction extends AnAction {
+
+    private static final Logger LOG = Logger.getInstance(ResolveFilesAction.class);
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        boolean enabled = e.getProject() != null && files != null && files.length > 0;
+        e.getPresentation().setEnabledAndVisible(enabled);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final Project project = e.getProject();
+        VirtualFile[] selection = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (project == null || selection == null) return;
+
+        final List<VirtualFile> files = collectXmlFiles(selection);
+        if (files.isEmpty()) {
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Action Required", "No XML files found in the selection.", NotificationType.WARNING), project);
+            return;
+        }
+        // Resolution reads the files from disk
+        FileDocumentManager.getInstance().saveAllDocuments();
+
+        new Task.Backgroundable(project, "Resolving LSK placeholders", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                resolveFiles(project, files, indicator);
+            }
+        }.queue();
+    }
+
+    private static List<VirtualFile> collectXmlFiles(VirtualFile[] selection) {
+        Set<VirtualFile> files = new LinkedHashSet<>();
+        for (VirtualFile root : selection) {
+            VfsUtilCore.iterateChildrenRecursively(root, null, file -> {
+                if (!file.isDirectory() && file.isInLocalFileSystem() && FileResolutionService.isResolvableXml(file.getName())) {
+                    files.add(file);
+                }
+                return true;
+            });
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static void resolveFiles(Project project, List<VirtualFile> files, ProgressIndicator indicator) {
+        // Read here rather than in actionPerformed: the credential store may block (e.g. on a locked keychain)
+        String authToken = AuthService.getInstance().getAuthToken();
+        if (authToken == null) {
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Sign In Required", "Please sign in before resolving LSKs.", NotificationType.WARNING), project);
+            return;
+        }
+
+        indicator.setIndeterminate(false);
+        List<Path> outputs = new ArrayList<>();
+        int placeholders = 0;
+        int unresolved = 0;
+        int skipped = 0;
+        List<String> failures = new ArrayList<>();
+        ResolutionManifest manifest = ResolutionManifest.getInstance(project);
+        ModuleNameService moduleNames = ModuleNameService.getInstance(project);
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < files.size(); i++) {
+            indicator.checkCanceled();
+            VirtualFile file = files.get(i);
+            indicator.setFraction((double) i / files.size());
+            indicator.setText2(file.getName());
+
+            String moduleName = moduleNames.getModuleName(file);
+            if (moduleName == null) {
+                failures.add(file.getName() + " (module could not be determined)");
+                continue;
+            }
+            try {
+                Path source = file.toNioPath();
+                Path output = FileResolutionService.defaultOutputPath(source);
+                if (manifest.isUpToDate(file, moduleName, output) || manifest.isContentUnchanged(file, moduleName, output)) {
+                    skipped++;
+                    continue;
+                }
+                long generation = ResolutionCache.getInstance().getGeneration();
+                FileResolutionService.FileResult result = FileResolutionService.getInstance()
+                        .resolveFile(source, output, moduleName, authToken);
+                manifest.record(file, moduleName, result, generation);
+                outputs.add(result.getOutput());
+                placeholders += result.getReplacedCount();
+                unresolved += result.getUnresolvedKeys().size();
+            } catch (Exception ex) {
+                LOG.warn("Failed to resolve " + file.getPath() + ": " + ex.getMessage(), ex);
+                failures.add(file.getName() + " (" + ex.getMessage() + ")");
+            }
+        }
+        LocalFileSystem.getInstance().refreshNioFiles(outputs);
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        String summary = outputs.size() + " file(s) resolved in " + elapsedMillis + " ms, " + placeholders + " placeholder(s) replaced"
+                + (unresolved > 0 ? ", " + unresolved + " key(s) unresolved" : "")
+                + (skipped > 0 ? ", " + skipped + " unchanged file(s) skipped" : "") + "."
+                + (failures.isEmpty() ? "" : " Failed: " + String.join(", ", failures));
+        LOG.info(summary);
+        Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "LSK File Resolution", summary,
+                failures.isEmpty() && unresolved == 0 ? NotificationType.INFORMATION : NotificationType.WARNING), project);
+    }
+}
@@ -0,0 +1,144 @@
+package com.zoho.catalyst_plugin.annotator;
+
+import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.ExternalAnnotator;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlFile;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.ResolutionRequest;
+import com.zoho.catalyst_plugin.service.AuthService;
+import com.zoho.catalyst_plugin.service.ResolutionScheduler;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import com.zoho.catalyst_plugin.util.ReferenceGraphValidator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flags placeholders that cannot be resolved before the user ever clicks Resolve:
+ * <ul>
+ *     <li>LSK / REF keys the backend reports as unknown,</li>
+ *     <li>duplicate LSKs and REF cycles within the file (see {@link ReferenceGraphValidator}),</li>
+ *     <li>{@code REF:{...}} targets that neither the file defines nor the backend knows.</li>
+ * </ul>
+ * A REF may point at an LSK of another file, so a target missing from the file alone is not an error.
+ * All placeholders of the file are looked up in one batched, cache-first call off the EDT,
+ * so an edit burst costs at most one backend request per file (none if everything is cached).
+ */
+public class PlaceholderExternalAnnotator extends ExternalAnnotator<PlaceholderExternalAnnotator.Info, PlaceholderExternalAnnotator.Result> {
+    private static final Logger LOG = Logger.getInstance(PlaceholderExternalAnnotator.class);
+
+    public static final class Info {
+        final String moduleName;
+        final List<PlaceholderScanner.Placeholder> placeholders;
+
+        Info(String moduleName, List<PlaceholderScanner.Placeholder> placeholders) {
+            this.moduleName = moduleName;
+            this.placeholders = placeholders;
+        }
+    }
+
+    public static final class Result {
+        final List<PlaceholderScanner.Placeholder> placeholders;
+        final Set<String> unknownKeys;
+        final List<ReferenceGraphValidator.Problem> referenceProblems;
+
+        /**
+         * @param unknownKeys keys the backend could not resolve; null if the backend was not asked, in which case
+         *                    no REF is reported as dangling
+         */
+        Result(List<PlaceholderScanner.Placeholder> placeholders, @Nullable Set<String> unknownKeys) {
+            this.placeholders = placeholders;
+            this.unknownKeys = unknownKeys != null ? unknownKeys : Collections.emptySet();
+            this.referenceProblems = new ArrayList<>();
+            for (ReferenceGraphValidator.Problem problem : ReferenceGraphValidator.validate(placeholders)) {
+                // Missing from the file is only a problem if the backend doesn't know the target either
+                if (problem.getType() != ReferenceGraphValidator.ProblemType.DANGLING_REF
+                        || this.unknownKeys.contains(problem.getPlaceholder().getKey())) {
+                    referenceProblems.add(problem);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public Info collectInformation(@NotNull PsiFile file, @NotNull Editor editor, boolean hasErrors) {
+        if (!(file instanceof XmlFile)) return null;
+        String moduleName = ModuleNameService.getInstance(file.getProject()).getModuleName(file.getVirtualFile());
+        if (moduleName == null) return null;
+        List<PlaceholderScanner.Placeholder> placeholders = PlaceholderScanner.scan(editor.getDocument().getImmutableCharSequence());
+        return placeholders.isEmpty() ? null : new Info(moduleName, placeholders);
+    }
+
+    @Nullable
+    @Override
+    public Result doAnnotate(Info info) {
+        if (info == null) return null;
+        ProgressManager.checkCanceled();
+        Set<String> keys = PlaceholderScanner.collectKeys(info.placeholders);
+        String authToken = AuthService.getInstance().getAuthToken();
+        if (authToken == null) {
+            // Not signed in: only the local reference graph checks can run.
+            return new Result(info.placeholders, null);
+        }
+        ProgressManager.checkCanceled();
+        try {
+            // Best effort: a saturated pipeline means no backend findings this time, not a blocked highlighting pass
+            Set<String> resolved = ProgressIndicatorUtils.awaitWithCheckCanceled(ResolutionPipeline.getInstance()
+                    .offer(ResolutionRequest.forKeys(info.moduleName, authToken, ResolutionScheduler.Priority.EDITOR_PREFETCH, keys)))
+                    .getResolved().keySet();
+            Set<String> unknown = new HashSet<>(keys);
+            unknown.removeAll(resolved);
+            return new Result(info.placeholders, unknown);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            // A failed lookup says nothing about the keys themselves; don't flag them.
+            LOG.debug("Placeholder lookup for annotations failed: " + e.getMessage());
+            return new Result(info.placeholders, null);
+        }
+    }
+
+    @Override
+    public void apply(@NotNull PsiFile file, Result result, @NotNull AnnotationHolder holder) {
+        if (result == null) return;
+        int textLength = file.getTextLength();
+
+        Set<PlaceholderScanner.Placeholder> reported = new HashSet<>();
+        for (ReferenceGraphValidator.Problem problem : result.referenceProblems) {
+            PlaceholderScanner.Placeholder placeholder = problem.getPlaceholder();
+            if (placeholder.getValueEnd() > textLength) continue; // File changed since the scan
+            String message = problem.getType() == ReferenceGraphValidator.ProblemType.DANGLING_REF
+                    ? "REF target '" + placeholder.getKey() + "' is not defined in this file and the backend could not resolve it"
+                    : problem.getMessage();
+            holder.newAnnotation(HighlightSeverity.ERROR, message)
+                    .range(new TextRange(placeholder.getValueStart(), placeholder.getValueEnd()))
+                    .create();
+            reported.add(placeholder);
+        }
+
+        for (PlaceholderScanner.Placeholder placeholder : result.placeholders) {
+            if (placeholder.getValueEnd() > textLength || reported.contains(placeholder)) continue;
+            TextRange range = new TextRange(placeholder.getValueStart(), placeholder.getValueEnd());
+            if (result.unknownKeys.contains(placeholder.getKey())) {
+                holder.newAnnotation(HighlightSeverity.WARNING, "Unknown logical ID: the backend could not resolve '" + placeholder.getKey() + "'")
+                        .range(range)
+                        .create();
+            }
+        }
+    }
+}
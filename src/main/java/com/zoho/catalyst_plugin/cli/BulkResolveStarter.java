@@ -0,0 +1,193 @@
+package com.zoho.catalyst_plugin.cli;
+
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.diagnostic.Logger;
+import com.zoho.catalyst_plugin.service.AuthService;
+import com.zoho.catalyst_plugin.service.BackendApiService;
+import com.zoho.catalyst_plugin.service.BackendIoExecutor;
+import com.zoho.catalyst_plugin.service.FileResolutionService;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Headless bulk resolver for CI: resolves every XML file in a {@code conf/} directory of a Catalyst project,
+ * with the same pipeline, cache and backend client as the IDE, and exits with a non-zero status if any file
+ * failed. Needs no display and no open project:
+ * <pre>
+ * idea.sh catalystLskResolve --project=/path/to/project [--token-env=CATALYST_LSK_TOKEN | --token-file=FILE | --token-source=ide]
+ *                            [--in-place | --output=DIR] [--parallel=4]
+ * </pre>
+ * Without {@code --in-place} or {@code --output}, results go to {@code <name>.resolved.xml} next to each file, as
+ * with the Resolve Files action; {@code --output} mirrors the project's directory layout below {@code DIR}. The
+ * module of each file is the directory holding its {@code conf} directory ({@code <project>/.../<module>/conf/...}),
+ * as in the IDE (see {@link ModuleNameService#moduleNameOf}), so {@code --project} may be the project itself or any
+ * directory above its modules. {@code --parallel} is capped at the backend client's concurrency limit.
+ */
+public class BulkResolveStarter implements ApplicationStarter {
+    private static final Logger LOG = Logger.getInstance(BulkResolveStarter.class);
+
+    private static final String DEFAULT_TOKEN_ENV = "CATALYST_LSK_TOKEN";
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        int exitCode;
+        try {
+            exitCode = run(parseOptions(args.subList(Math.min(1, args.size()), args.size()))); // args[0] is the command
+        } catch (IllegalArgumentException e) {
+            System.err.println("catalystLskResolve: " + e.getMessage());
+            exitCode = 2;
+        } catch (Exception e) {
+            LOG.error("Bulk resolve failed", e);
+            System.err.println("catalystLskResolve: " + e.getMessage());
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private int run(Map<String, String> options) throws IOException, InterruptedException {
+        String projectOption = options.get("project");
+        if (projectOption == null) throw new IllegalArgumentException("--project=<directory> is required.");
+        Path projectDir = Paths.get(projectOption).toAbsolutePath().normalize();
+        if (!Files.isDirectory(projectDir)) throw new IllegalArgumentException("Not a directory: " + projectDir);
+        boolean inPlace = options.containsKey("in-place");
+        Path outputDir = options.containsKey("output") ? Paths.get(options.get("output")).toAbsolutePath().normalize() : null;
+        if (inPlace && outputDir != null) throw new IllegalArgumentException("--in-place and --output are mutually exclusive.");
+        int parallel = parallelism(options.getOrDefault("parallel", "4"), BackendApiService.getInstance().getMaxConcurrency());
+        String sessionToken = readToken(options);
+
+        List<Path> files = findConfXmlFiles(projectDir);
+        System.out.println("Resolving " + files.size() + " file(s) under " + projectDir + " with " + parallel + " in parallel.");
+
+        AtomicInteger resolved = new AtomicInteger();
+        AtomicInteger replaced = new AtomicInteger();
+        AtomicInteger unresolvedKeys = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        long startNanos = System.nanoTime();
+        BackendIoExecutor.getInstance().forEach(files, parallel, source -> {
+            String moduleName = ModuleNameService.moduleNameOf(projectDir.toString(), source.toString());
+            if (moduleName == null) {
+                failures.add(projectDir.relativize(source) + ": module could not be determined");
+                return;
+            }
+            try {
+                Path output = inPlace ? source
+                        : outputDir != null ? outputDir.resolve(projectDir.relativize(source))
+                        : FileResolutionService.defaultOutputPath(source);
+                Files.createDirectories(output.getParent());
+                long size = Files.size(source);
+                FileResolutionService.FileResult result = FileResolutionService.getInstance().resolveFile(source, output, moduleName, sessionToken);
+                resolved.incrementAndGet();
+                bytes.addAndGet(size);
+                replaced.addAndGet(result.getReplacedCount());
+                unresolvedKeys.addAndGet(result.getUnresolvedKeys().size());
+                if (!result.getUnresolvedKeys().isEmpty()) {
+                    System.out.println("  " + projectDir.relativize(source) + ": " + result.getUnresolvedKeys().size() + " key(s) unresolved");
+                }
+            } catch (Exception e) {
+                LOG.warn("Failed to resolve " + source + ": " + e.getMessage(), e);
+                failures.add(projectDir.relativize(source) + ": " + e.getMessage());
+            }
+        });
+
+        double seconds = Math.max(1, System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%d file(s) resolved, %d failed, in %.1f s: %.1f files/s, %.1f MB/s; %d placeholder(s) replaced, %d key(s) unresolved.%n",
+                resolved.get(), failures.size(), seconds, resolved.get() / seconds, bytes.get() / seconds / (1024 * 1024),
+                replaced.get(), unresolvedKeys.get());
+        for (String failure : failures) {
+            System.out.println("  FAILED " + failure);
+        }
+        return failures.isEmpty() ? 0 : 1;
+    }
+
+    /** XML files with a {@code conf} directory somewhere in their project-relative path; resolved copies excluded. */
+    private static List<Path> findConfXmlFiles(Path projectDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> FileResolutionService.isResolvableXml(path.getFileName().toString()))
+                    .filter(path -> confIndex(projectDir.relativize(path)) >= 0)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /** Index of the first {@code conf} directory in {@code relative}, or -1 if it has none. */
+    private static int confIndex(Path relative) {
+        for (int i = 0; i < relative.getNameCount() - 1; i++) {
+            if (relative.getName(i).toString().equals("conf")) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the {@code --parallel} value, capped at {@code maxConcurrency}: files beyond what the backend client
+     *         lets through at once would only wait for it while holding a thread
+     */
+    static int parallelism(String option, int maxConcurrency) {
+        int parallel;
+        try {
+            parallel = Integer.parseInt(option);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--parallel must be a number.");
+        }
+        if (parallel < 1) throw new IllegalArgumentException("--parallel must be at least 1.");
+        if (parallel > maxConcurrency) {
+            System.out.println("--parallel=" + parallel + " capped at " + maxConcurrency + ", the backend client's concurrency limit.");
+            return maxConcurrency;
+        }
+        return parallel;
+    }
+
+    private static String readToken(Map<String, String> options) throws IOException {
+        String token;
+        String source;
+        if (options.containsKey("token-file")) {
+            source = "token file " + options.get("token-file");
+            token = Files.readString(Paths.get(options.get("token-file")), StandardCharsets.UTF_8).trim();
+        } else if ("ide".equals(options.get("token-source"))) {
+            // The IDE's stored sign-in; needs a credential store that works headless (e.g. KeePass)
+            source = "the IDE's stored sign-in";
+            token = AuthService.getInstance().getAuthToken();
+        } else {
+            String variable = options.getOrDefault("token-env", DEFAULT_TOKEN_ENV);
+            source = "environment variable " + variable;
+            token = System.getenv(variable);
+        }
+        if (token == null || token.isEmpty()) throw new IllegalArgumentException("No session token in " + source + ".");
+        return token;
+    }
+
+    private static Map<String, String> parseOptions(List<String> args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument '" + arg + "'.");
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -3,6 +3,7 @@ package com.zoho.catalyst_plugin.config;
 public class PluginConstants {
 
     public static final String GITHUB_CALLBACK_PATH = "/api/github/catalystLskCallback";
+    public static final String LOOPBACK_RESOLVE_PATH = "/api/catalystLsk/resolve";
     public static final String NOTIFICATION_GROUP_ID = "CatalystPluginNotifications";
 
     public static final String GITHUB_CLIENT_ID = "Ov23liZyGpw1bvIf1wYt";
@@ -3,7 +3,8 @@ package com.zoho.catalyst_plugin.dto;
 public class AuthResponse {
     public String message;  
     public String token;    
- 
+    public Long expiresIn;  // seconds until the token expires; absent if the backend does not say
+
     public AuthResponse() {}
 
     public AuthResponse(String message, String token) {
@@ -20,6 +21,10 @@ public class AuthResponse {
         return token;
     }
 
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
     // --- Setters ---
     public void setMessage(String message) {
         this.message = message;
@@ -28,4 +33,8 @@ public class AuthResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
 }
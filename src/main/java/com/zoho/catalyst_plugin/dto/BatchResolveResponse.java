@@ -0,0 +1,63 @@
+package com.zoho.catalyst_plugin.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class BatchResolveResponse {
+    public String message;
+    public Map<String, String> resolved;   // placeholder key -> resolved value
+    public List<String> unresolved;        // keys the backend could not resolve
+    public String error;
+
+    public BatchResolveResponse() {}
+
+    // For ERROR
+    public BatchResolveResponse(String error) {
+        this.error = error;
+        this.message = null;
+        this.resolved = null;
+        this.unresolved = null;
+    }
+
+    // For SUCCESS
+    public BatchResolveResponse(String message, Map<String, String> resolved, List<String> unresolved) {
+        this.message = message;
+        this.resolved = resolved;
+        this.unresolved = unresolved;
+        this.error = null;
+    }
+
+    // --- Getters ---
+    public String getMessage() {
+        return message;
+    }
+
+    public Map<String, String> getResolved() {
+        return resolved;
+    }
+
+    public List<String> getUnresolved() {
+        return unresolved;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    // --- Setters ---
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public void setResolved(Map<String, String> resolved) {
+        this.resolved = resolved;
+    }
+
+    public void setUnresolved(List<String> unresolved) {
+        this.unresolved = unresolved;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,141 @@
+package com.zoho.catalyst_plugin.editor;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.Alarm;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.ResolutionRequest;
+import com.zoho.catalyst_plugin.service.AuthService;
+import com.zoho.catalyst_plugin.service.ResolutionScheduler;
+import com.zoho.catalyst_plugin.service.ResolutionCache;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-editor background job that warms the {@link ResolutionCache} while the user types.
+ * Document changes are collected into a dirty range and, after a debounce delay, newly typed placeholders
+ * in that range are offered to the {@link ResolutionPipeline}, which drops them when it is busy.
+ * Requests are rate limited (per editor and across all editors) and the job stops as soon as the editor is released.
+ */
+public class PlaceholderPrefetcher implements DocumentListener, Disposable {
+    private static final Logger LOG = Logger.getInstance(PlaceholderPrefetcher.class);
+
+    private static final int DEBOUNCE_MILLIS = 750;
+    private static final int MAX_KEYS_PER_ROUND = 100;
+    private static final long MIN_REQUEST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+    /** Earliest time the next prefetch request may be sent, shared by all editors. */
+    private static final AtomicLong nextRequestAllowedAt = new AtomicLong(System.nanoTime());
+
+    private final Project project;
+    private final Editor editor;
+    private final Alarm alarm;
+    private volatile boolean disposed;
+
+    // Union of all changed ranges since the last flush; guarded by 'this'.
+    private int dirtyStart = -1;
+    private int dirtyEnd = -1;
+
+    public PlaceholderPrefetcher(@NotNull Project project, @NotNull Editor editor) {
+        this.project = project;
+        this.editor = editor;
+        this.alarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, this);
+        editor.getDocument().addDocumentListener(this, this);
+    }
+
+    @Override
+    public void documentChanged(@NotNull DocumentEvent event) {
+        int start = event.getOffset();
+        int end = start + event.getNewLength();
+        synchronized (this) {
+            dirtyStart = dirtyStart < 0 ? start : Math.min(dirtyStart, start);
+            dirtyEnd = Math.max(dirtyEnd, end);
+        }
+        alarm.cancelAllRequests();
+        alarm.addRequest(this::flush, DEBOUNCE_MILLIS);
+    }
+
+    private void flush() {
+        final int start;
+        final int end;
+        synchronized (this) {
+            start = dirtyStart;
+            end = dirtyEnd;
+            dirtyStart = -1;
+            dirtyEnd = -1;
+        }
+        if (disposed || start < 0 || project.isDisposed()) return;
+
+        Document document = editor.getDocument();
+        String moduleName = ReadAction.compute(() -> ModuleNameService.getInstance(project).getModuleName(FileDocumentManager.getInstance().getFile(document)));
+        if (moduleName == null) return;
+
+        Set<String> keys = ReadAction.compute(() -> {
+            CharSequence text = document.getCharsSequence();
+            int scanEnd = Math.min(end, text.length());
+            int lineStart = document.getLineStartOffset(document.getLineNumber(Math.min(start, scanEnd)));
+            // Start at the enclosing tag so attributes on a multi-line start tag are not missed
+            int tagStart = StringUtil.lastIndexOf(text, '<', 0, Math.min(lineStart + 1, text.length()));
+            int lineEnd = document.getLineEndOffset(document.getLineNumber(scanEnd));
+            return PlaceholderScanner.collectKeys(PlaceholderScanner.scan(text, Math.max(tagStart, 0), lineEnd));
+        });
+
+        ResolutionCache cache = ResolutionCache.getInstance();
+        List<String> unknown = new ArrayList<>();
+        for (String key : keys) {
+            if (cache.get(moduleName, key) == null && !cache.isKnownUnresolved(moduleName, key)) {
+                unknown.add(key);
+            }
+        }
+        if (unknown.isEmpty()) return;
+
+        String authToken = AuthService.getInstance().getAuthToken();
+        if (authToken == null) return;
+
+        if (disposed || !acquireRequestSlot()) {
+            LOG.debug("Prefetch skipped: editor released or rate limit reached.");
+            return;
+        }
+        List<String> batch = unknown.subList(0, Math.min(MAX_KEYS_PER_ROUND, unknown.size()));
+        // Offered, not submitted: when the pipeline is busy the prefetch is dropped rather than queued
+        ResolutionPipeline.getInstance()
+                .offer(ResolutionRequest.forKeys(moduleName, authToken, ResolutionScheduler.Priority.EDITOR_PREFETCH, batch))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        // Best effort only: the interactive Resolve will report real problems.
+                        LOG.debug("Placeholder prefetch failed: " + error.getMessage());
+                    } else {
+                        LOG.debug("Prefetched {} placeholder(s) for module '{}'.", batch.size(), moduleName);
+                    }
+                });
+    }
+
+    /**
+     * Reserves the next global request slot, or returns false if prefetching is currently throttled.
+     */
+    private static boolean acquireRequestSlot() {
+        long now = System.nanoTime();
+        long allowedAt = nextRequestAllowedAt.get();
+        return allowedAt - now <= 0 && nextRequestAllowedAt.compareAndSet(allowedAt, now + MIN_REQUEST_INTERVAL_NANOS);
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        LOG.debug("Placeholder prefetcher disposed.");
+    }
+}
@@ -0,0 +1,42 @@
+package com.zoho.catalyst_plugin.editor;
+
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.event.EditorFactoryEvent;
+import com.intellij.openapi.editor.event.EditorFactoryListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Attaches a {@link PlaceholderPrefetcher} to every XML editor opened in a project and disposes it
+ * when the editor is released.
+ */
+public class PrefetchEditorFactoryListener implements EditorFactoryListener {
+    private static final Key<PlaceholderPrefetcher> PREFETCHER_KEY = Key.create("catalyst.lsk.placeholderPrefetcher");
+
+    @Override
+    public void editorCreated(@NotNull EditorFactoryEvent event) {
+        Editor editor = event.getEditor();
+        Project project = editor.getProject();
+        if (project == null || project.isDefault() || editor.isViewer()) return;
+        VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+        if (file == null || !"xml".equalsIgnoreCase(file.getExtension())) return;
+
+        PlaceholderPrefetcher prefetcher = new PlaceholderPrefetcher(project, editor);
+        Disposer.register(project, prefetcher);
+        editor.putUserData(PREFETCHER_KEY, prefetcher);
+    }
+
+    @Override
+    public void editorReleased(@NotNull EditorFactoryEvent event) {
+        Editor editor = event.getEditor();
+        PlaceholderPrefetcher prefetcher = editor.getUserData(PREFETCHER_KEY);
+        if (prefetcher != null) {
+            editor.putUserData(PREFETCHER_KEY, null);
+            Disposer.dispose(prefetcher);
+        }
+    }
+}
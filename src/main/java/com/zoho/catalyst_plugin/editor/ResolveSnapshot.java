@@ -0,0 +1,179 @@
+package com.zoho.catalyst_plugin.editor;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.RangeMarker;
+import com.intellij.openapi.util.TextRange;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the regions being resolved: their text, the document's modification stamp, and a
+ * {@link RangeMarker} per region and per placeholder. Results computed against the snapshot are mapped back
+ * through the markers, so the user can keep editing while a resolve is running; placeholders that were edited
+ * in the meantime are left alone.
+ * <p>
+ * Must be created and applied on the EDT; {@link #dispose()} releases the markers.
+ */
+public final class ResolveSnapshot {
+    private static final Logger LOG = Logger.getInstance(ResolveSnapshot.class);
+
+    private final Document document;
+    private final long modificationStamp;
+    private final List<TextRange> regions;
+    private final List<RangeMarker> regionMarkers = new ArrayList<>();
+    private final List<PlaceholderScanner.Placeholder> placeholders = new ArrayList<>();
+    private final List<String> originalValues = new ArrayList<>();
+    private final List<RangeMarker> placeholderMarkers = new ArrayList<>();
+    private final String text;
+
+    /** Outcome of applying a result; {@code wholeRegion} means the document was untouched and replaced as a block. */
+    public static final class ApplyResult {
+        private final int applied;
+        private final int skipped;
+        private final boolean wholeRegion;
+
+        ApplyResult(int applied, int skipped, boolean wholeRegion) {
+            this.applied = applied;
+            this.skipped = skipped;
+            this.wholeRegion = wholeRegion;
+        }
+
+        public int getApplied() { return applied; }
+
+        /** Placeholders not applied because they were edited (or deleted) while resolving, or had no value. */
+        public int getSkipped() { return skipped; }
+
+        public boolean isWholeRegion() { return wholeRegion; }
+    }
+
+    private ResolveSnapshot(@NotNull Document document, @NotNull List<TextRange> regions) {
+        this.document = document;
+        this.modificationStamp = document.getModificationStamp();
+        this.regions = regions;
+        CharSequence chars = document.getImmutableCharSequence();
+        this.text = regions.size() == 1 ? regions.get(0).subSequence(chars).toString() : null;
+        for (TextRange region : regions) {
+            regionMarkers.add(document.createRangeMarker(region));
+            for (PlaceholderScanner.Placeholder placeholder : PlaceholderScanner.scan(chars, region.getStartOffset(), region.getEndOffset())) {
+                placeholders.add(placeholder);
+                originalValues.add(chars.subSequence(placeholder.getValueStart(), placeholder.getValueEnd()).toString());
+                placeholderMarkers.add(document.createRangeMarker(placeholder.getValueStart(), placeholder.getValueEnd()));
+            }
+        }
+    }
+
+    public static ResolveSnapshot capture(@NotNull Document document, int startOffset, int endOffset) {
+        return new ResolveSnapshot(document, Collections.singletonList(new TextRange(startOffset, endOffset)));
+    }
+
+    public static ResolveSnapshot capture(@NotNull Document document, @NotNull List<TextRange> regions) {
+        return new ResolveSnapshot(document, new ArrayList<>(regions));
+    }
+
+    /** Text of the (single) captured region. */
+    @Nullable
+    public String getText() {
+        return text;
+    }
+
+    public List<PlaceholderScanner.Placeholder> getPlaceholders() {
+        return Collections.unmodifiableList(placeholders);
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    public boolean isDocumentUnchanged() {
+        return document.getModificationStamp() == modificationStamp;
+    }
+
+    /**
+     * Applies per-key values to every placeholder that is still intact. Call inside a write command.
+     */
+    public ApplyResult apply(@NotNull Map<String, String> resolvedByKey) {
+        int applied = 0;
+        for (int i = placeholders.size() - 1; i >= 0; i--) {
+            String value = resolvedByKey.get(placeholders.get(i).getKey());
+            if (value != null && replaceIfIntact(i, value)) {
+                applied++;
+            }
+        }
+        return new ApplyResult(applied, placeholders.size() - applied, false);
+    }
+
+    /**
+     * Applies the resolved form of the single captured region. If the document is unchanged the region is replaced
+     * as a block; otherwise the resolved value of each placeholder is recovered by lining up the attribute values of
+     * the snapshot and of {@code resolvedXml}, and applied only where the placeholder is still intact.
+     * Call inside a write command.
+     *
+     * @return the result, or null if the resolved text could not be mapped back onto the edited document.
+     */
+    @Nullable
+    public ApplyResult applyResolvedText(@NotNull String resolvedXml) {
+        RangeMarker region = regionMarkers.get(0);
+        if (isDocumentUnchanged() && region.isValid()) {
+            document.replaceString(region.getStartOffset(), region.getEndOffset(), resolvedXml);
+            return new ApplyResult(placeholders.size(), 0, true);
+        }
+        Map<String, String> perKey = resolvedValuesByKey(resolvedXml);
+        if (perKey == null) {
+            LOG.warn("Resolved XML does not line up with the snapshot; cannot rebase onto the edited document.");
+            return null;
+        }
+        return apply(perKey);
+    }
+
+    /**
+     * Derives key -> resolved value from a resolved copy of the single captured region.
+     *
+     * @return null if the attribute structure of the two texts differs.
+     */
+    @Nullable
+    public Map<String, String> resolvedValuesByKey(@NotNull String resolvedXml) {
+        if (text == null) return null;
+        int base = regions.get(0).getStartOffset();
+        List<int[]> original = PlaceholderScanner.scanAttributeValues(text, 0, text.length());
+        List<int[]> resolved = PlaceholderScanner.scanAttributeValues(resolvedXml, 0, resolvedXml.length());
+        if (original.size() != resolved.size()) return null;
+
+        Map<Integer, Integer> ordinalByStart = new HashMap<>();
+        for (int i = 0; i < original.size(); i++) {
+            ordinalByStart.put(original.get(i)[0] + base, i);
+        }
+        Map<String, String> perKey = new HashMap<>();
+        for (PlaceholderScanner.Placeholder placeholder : placeholders) {
+            Integer ordinal = ordinalByStart.get(placeholder.getValueStart());
+            if (ordinal == null) return null;
+            int[] range = resolved.get(ordinal);
+            perKey.putIfAbsent(placeholder.getKey(), resolvedXml.substring(range[0], range[1]));
+        }
+        return perKey;
+    }
+
+    private boolean replaceIfIntact(int index, String value) {
+        RangeMarker marker = placeholderMarkers.get(index);
+        if (!marker.isValid()) return false;
+        String original = originalValues.get(index);
+        if (marker.getEndOffset() - marker.getStartOffset() != original.length()
+                || !original.contentEquals(document.getImmutableCharSequence().subSequence(marker.getStartOffset(), marker.getEndOffset()))) {
+            return false; // Edited while the resolve was running
+        }
+        document.replaceString(marker.getStartOffset(), marker.getEndOffset(), value);
+        return true;
+    }
+
+    public void dispose() {
+        regionMarkers.forEach(RangeMarker::dispose);
+        placeholderMarkers.forEach(RangeMarker::dispose);
+    }
+}
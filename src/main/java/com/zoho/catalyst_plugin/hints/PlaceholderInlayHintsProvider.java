@@ -0,0 +1,70 @@
+package com.zoho.catalyst_plugin.hints;
+
+import com.intellij.codeInsight.hints.declarative.InlayHintsCollector;
+import com.intellij.codeInsight.hints.declarative.InlayHintsProvider;
+import com.intellij.codeInsight.hints.declarative.InlayTreeSink;
+import com.intellij.codeInsight.hints.declarative.InlineInlayPosition;
+import com.intellij.codeInsight.hints.declarative.SharedBypassCollector;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlAttributeValue;
+import com.intellij.psi.xml.XmlFile;
+import com.zoho.catalyst_plugin.service.ResolutionCache;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import kotlin.Unit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shows the resolved ID next to every LSK / REF placeholder in XML attribute values.
+ * Hints are rendered from the {@link ResolutionCache} only; cache misses are handed to
+ * {@link ResolvedIdHintFetcher}, which fetches them in batches for the visible part of the editor,
+ * so collecting hints never performs I/O.
+ */
+public class PlaceholderInlayHintsProvider implements InlayHintsProvider {
+
+    @Nullable
+    @Override
+    public InlayHintsCollector createCollector(@NotNull PsiFile file, @NotNull Editor editor) {
+        if (!(file instanceof XmlFile)) return null;
+        String moduleName = ModuleNameService.getInstance(file.getProject()).getModuleName(file.getVirtualFile());
+        if (moduleName == null) return null;
+        return new Collector(editor, moduleName, ResolvedIdHintFetcher.getInstance(file.getProject()));
+    }
+
+    private static final class Collector implements SharedBypassCollector {
+        private final Editor editor;
+        private final String moduleName;
+        private final ResolvedIdHintFetcher fetcher;
+        private final ResolutionCache cache = ResolutionCache.getInstance();
+
+        Collector(Editor editor, String moduleName, ResolvedIdHintFetcher fetcher) {
+            this.editor = editor;
+            this.moduleName = moduleName;
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public void collectFromElement(@NotNull PsiElement element, @NotNull InlayTreeSink sink) {
+            if (!(element instanceof XmlAttributeValue)) return;
+            XmlAttributeValue attributeValue = (XmlAttributeValue) element;
+            String key = PlaceholderScanner.keyOf(attributeValue.getValue());
+            if (key == null) return;
+
+            String resolved = cache.get(moduleName, key);
+            if (resolved == null) {
+                if (!cache.isKnownUnresolved(moduleName, key)) {
+                    fetcher.requestLater(editor, moduleName, key, attributeValue.getTextRange().getStartOffset());
+                }
+                return;
+            }
+            String resolvedId = resolved.substring(resolved.lastIndexOf(':') + 1);
+            sink.addPresentation(new InlineInlayPosition(attributeValue.getTextRange().getEndOffset(), true, 0), null, resolved, true, builder -> {
+                builder.text("= " + resolvedId, null);
+                return Unit.INSTANCE;
+            });
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.zoho.catalyst_plugin.hints;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.ex.util.EditorUtil;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.Alarm;
+import com.zoho.catalyst_plugin.service.AuthService;
+import com.zoho.catalyst_plugin.service.BackendIoExecutor;
+import com.zoho.catalyst_plugin.service.PlaceholderResolver;
+import com.zoho.catalyst_plugin.service.ResolutionScheduler;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Project service that lazily fetches placeholder values missing from the cache for inlay hints.
+ * Misses reported by the hints collector are queued per editor; after a short debounce (and whenever an editor
+ * scrolls) only the keys inside the visible area are fetched, in one batch per editor. Once a batch is cached
+ * the file's hints are refreshed.
+ */
+public class ResolvedIdHintFetcher implements Disposable {
+    private static final Logger LOG = Logger.getInstance(ResolvedIdHintFetcher.class);
+
+    private static final int DEBOUNCE_MILLIS = 300;
+    private static final int MAX_KEYS_PER_FETCH = 200;
+
+    private final Project project;
+    private final Alarm alarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, this);
+    private final Map<Editor, EditorState> editors = new ConcurrentHashMap<>();
+
+    private static final class EditorState {
+        final String moduleName;
+        final Map<String, Integer> pending = new ConcurrentHashMap<>(); // key -> offset of its first occurrence
+        final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+        EditorState(String moduleName) {
+            this.moduleName = moduleName;
+        }
+    }
+
+    public ResolvedIdHintFetcher(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static ResolvedIdHintFetcher getInstance(@NotNull Project project) {
+        return project.getService(ResolvedIdHintFetcher.class);
+    }
+
+    /**
+     * Queues a cache miss found while collecting hints. Never blocks and never performs I/O.
+     */
+    public void requestLater(@NotNull Editor editor, @NotNull String moduleName, @NotNull String key, int offset) {
+        if (editor.isDisposed()) return;
+        EditorState state = editors.computeIfAbsent(editor, e -> track(e, moduleName));
+        if (state.inFlight.contains(key)) return;
+        if (state.pending.putIfAbsent(key, offset) == null) {
+            scheduleFlush();
+        }
+    }
+
+    private EditorState track(Editor editor, String moduleName) {
+        Disposable editorDisposable = Disposer.newDisposable("Catalyst LSK hint fetcher");
+        Disposer.register(this, editorDisposable);
+        EditorUtil.disposeWithEditor(editor, editorDisposable);
+        Disposer.register(editorDisposable, () -> editors.remove(editor));
+        editor.getScrollingModel().addVisibleAreaListener(event -> scheduleFlush(), editorDisposable);
+        return new EditorState(moduleName);
+    }
+
+    private void scheduleFlush() {
+        if (alarm.isDisposed()) return;
+        alarm.cancelAllRequests();
+        alarm.addRequest(this::flush, DEBOUNCE_MILLIS);
+    }
+
+    /** Runs on the EDT: picks the pending keys inside each editor's visible area. */
+    private void flush() {
+        for (Map.Entry<Editor, EditorState> entry : editors.entrySet()) {
+            Editor editor = entry.getKey();
+            EditorState state = entry.getValue();
+            if (editor.isDisposed() || state.pending.isEmpty()) continue;
+
+            TextRange visible = visibleRange(editor);
+            List<String> batch = new ArrayList<>();
+            Iterator<Map.Entry<String, Integer>> iterator = state.pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < MAX_KEYS_PER_FETCH) {
+                Map.Entry<String, Integer> pending = iterator.next();
+                if (visible.containsOffset(pending.getValue())) {
+                    batch.add(pending.getKey());
+                    iterator.remove();
+                }
+            }
+            if (!batch.isEmpty()) {
+                state.inFlight.addAll(batch);
+                VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+                try {
+                    BackendIoExecutor.getInstance().execute(() -> fetch(state, batch, file));
+                } catch (RejectedExecutionException e) {
+                    state.inFlight.removeAll(batch);
+                }
+            }
+        }
+    }
+
+    private void fetch(EditorState state, List<String> batch, VirtualFile file) {
+        try {
+            String authToken = AuthService.getInstance().getAuthToken();
+            if (authToken == null) return;
+            PlaceholderResolver.getInstance().resolve(state.moduleName, batch, authToken, ResolutionScheduler.Priority.EDITOR_PREFETCH);
+            LOG.debug("Fetched {} placeholder(s) for inlay hints.", batch.size());
+            refreshHints(file);
+        } catch (Exception e) {
+            LOG.debug("Fetching placeholders for inlay hints failed: " + e.getMessage());
+        } finally {
+            batch.forEach(state.inFlight::remove);
+            if (!state.pending.isEmpty()) scheduleFlush();
+        }
+    }
+
+    private void refreshHints(VirtualFile file) {
+        if (file == null || project.isDisposed()) return;
+        ReadAction.run(() -> {
+            if (project.isDisposed() || !file.isValid()) return;
+            PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+            if (psiFile != null) {
+                DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+            }
+        });
+    }
+
+    private static TextRange visibleRange(Editor editor) {
+        Rectangle area = editor.getScrollingModel().getVisibleArea();
+        int start = editor.logicalPositionToOffset(editor.xyToLogicalPosition(new Point(area.x, area.y)));
+        int end = editor.logicalPositionToOffset(editor.xyToLogicalPosition(new Point(area.x + area.width, area.y + area.height)));
+        int length = editor.getDocument().getTextLength();
+        return new TextRange(Math.min(start, length), Math.min(Math.max(end, start), length));
+    }
+
+    @Override
+    public void dispose() {
+        editors.clear();
+    }
+}
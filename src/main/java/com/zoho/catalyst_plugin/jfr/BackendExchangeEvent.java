@@ -0,0 +1,42 @@
+package com.zoho.catalyst_plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one HTTP exchange with the backend, i.e. every attempt including retries and replays.
+ * Starts after the client-side rate and concurrency limits have admitted the request.
+ */
+@Name("com.zoho.catalyst.BackendExchange")
+@Label("Catalyst LSK Backend Exchange")
+@Category({"Catalyst LSK", "Resolve"})
+@Description("An HTTP request to the resolver backend")
+@StackTrace(false)
+public final class BackendExchangeEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Correlation ID")
+    public String correlationId;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Status Code")
+    @Description("-1 if no response was received")
+    public int statusCode = -1;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+}
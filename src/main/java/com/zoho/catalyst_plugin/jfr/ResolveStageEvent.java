@@ -0,0 +1,83 @@
+package com.zoho.catalyst_plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Flight Recorder event for one stage of a Resolve. Events of one click share a {@link #correlationId}; events
+ * emitted inside {@code BackendApiService} use the request's {@code Idempotency-Key} instead, which the backend
+ * also sees.
+ * <p>
+ * Usage: {@code ResolveStageEvent e = ResolveStageEvent.begin(...); ...; e.end(length);}. When no recording is
+ * running, {@link #end} does nothing beyond a flag check. Payloads are measured in characters, which the stages
+ * have at hand; encoding them just to report a byte count would cost more than the event.
+ */
+@Name("com.zoho.catalyst.ResolveStage")
+@Label("Catalyst LSK Resolve Stage")
+@Category({"Catalyst LSK", "Resolve"})
+@Description("One stage of resolving LSK placeholders")
+@StackTrace(false)
+public final class ResolveStageEvent extends Event {
+
+    public static final String FILE_LOOKUP = "PSI/file lookup";
+    public static final String MODULE_DETECTION = "Module detection";
+    public static final String TOKEN_FETCH = "Token fetch";
+    public static final String SERIALIZATION = "Serialization";
+    public static final String DESERIALIZATION = "Deserialization";
+    public static final String DOCUMENT_WRITE = "Document write";
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Correlation ID")
+    public String correlationId;
+
+    @Label("Module")
+    public String moduleName;
+
+    @Label("Payload Length")
+    @Description("Characters of document text or JSON the stage handled")
+    public long payloadChars;
+
+    @Label("Placeholders")
+    @Description("Placeholder keys sent, received or applied, where the stage deals with them")
+    public int keyCount;
+
+    public static String newCorrelationId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public static ResolveStageEvent begin(String stage, String correlationId, String moduleName) {
+        ResolveStageEvent event = new ResolveStageEvent();
+        event.stage = stage;
+        event.correlationId = correlationId;
+        event.moduleName = moduleName;
+        event.begin();
+        return event;
+    }
+
+    public void end(long payloadChars) {
+        end(payloadChars, 0);
+    }
+
+    public void end(long payloadChars, int keyCount) {
+        end();
+        if (shouldCommit()) {
+            this.payloadChars = payloadChars;
+            this.keyCount = keyCount;
+            commit();
+        }
+    }
+
+    /** Sets the module for stages that determine it. */
+    public ResolveStageEvent withModule(String moduleName) {
+        this.moduleName = moduleName;
+        return this;
+    }
+}
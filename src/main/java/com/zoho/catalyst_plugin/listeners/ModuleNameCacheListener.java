@@ -0,0 +1,55 @@
+package com.zoho.catalyst_plugin.listeners;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Drops cached module names of files that are moved, renamed or deleted, and all of them when the project root changes.
+ */
+public class ModuleNameCacheListener implements BulkFileListener, ProjectInfoListener {
+
+    private final Project project;
+
+    public ModuleNameCacheListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void before(@NotNull List<? extends VFileEvent> events) {
+        invalidate(events, true);
+    }
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        // A moved or renamed file is the same VirtualFile afterwards; drop anything looked up while the event was in progress
+        invalidate(events, false);
+    }
+
+    private void invalidate(List<? extends VFileEvent> events, boolean includeDeletes) {
+        ModuleNameService moduleNames = null;
+        for (VFileEvent event : events) {
+            if (event.getFile() == null) continue;
+            if ((includeDeletes && event instanceof VFileDeleteEvent) || event instanceof VFileMoveEvent
+                    || (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename())) {
+                if (moduleNames == null) moduleNames = ModuleNameService.getInstance(project);
+                moduleNames.invalidate(event.getFile());
+            }
+        }
+    }
+
+    @Override
+    public void projectRootPathChanged(@NotNull Project project, @Nullable String rootPath) {
+        if (project == this.project) {
+            ModuleNameService.getInstance(project).projectRootChanged(rootPath);
+        }
+    }
+}
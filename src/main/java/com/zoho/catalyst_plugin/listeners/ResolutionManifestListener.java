@@ -0,0 +1,64 @@
+package com.zoho.catalyst_plugin.listeners;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.NewVirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.zoho.catalyst_plugin.service.ResolutionManifest;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link ResolutionManifest} in step with the VFS: edited sources are marked dirty,
+ * deleted, moved or renamed sources are dropped (they will be resolved again under their new path).
+ */
+public class ResolutionManifestListener implements BulkFileListener {
+
+    private final Project project;
+
+    public ResolutionManifestListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void before(@NotNull List<? extends VFileEvent> events) {
+        // Paths must be captured before the move/rename/delete happens
+        ResolutionManifest manifest = null;
+        for (VFileEvent event : events) {
+            if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent
+                    || (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename())) {
+                if (manifest == null) manifest = ResolutionManifest.getInstance(project);
+                forgetRecursively(manifest, event.getFile());
+            }
+        }
+    }
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        ResolutionManifest manifest = null;
+        for (VFileEvent event : events) {
+            if (event instanceof VFileContentChangeEvent) {
+                if (manifest == null) manifest = ResolutionManifest.getInstance(project);
+                manifest.markDirty(event.getPath());
+            }
+        }
+    }
+
+    private static void forgetRecursively(ResolutionManifest manifest, VirtualFile file) {
+        if (file == null) return;
+        if (!file.isDirectory()) {
+            manifest.forget(file.getPath());
+            return;
+        }
+        // Only children already loaded in the VFS can have been resolved through it
+        for (VirtualFile child : ((NewVirtualFile) file).getCachedChildren()) {
+            forgetRecursively(manifest, child);
+        }
+    }
+}
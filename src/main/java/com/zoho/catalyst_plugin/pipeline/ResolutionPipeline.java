@@ -0,0 +1,719 @@
+package com.zoho.catalyst_plugin.pipeline;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.service.ChunkedSelectionResolver;
+import com.zoho.catalyst_plugin.service.PlaceholderResolver;
+import com.zoho.catalyst_plugin.service.ResolutionCache;
+import com.zoho.catalyst_plugin.service.ResolutionScheduler;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The single engine behind every placeholder lookup: selections, bulk file resolution, prefetching,
+ * inlay hints and annotations all submit {@link ResolutionRequest}s here.
+ * <p>
+ * Requests flow through a chain of {@link Flow} stages, each with a bounded buffer:
+ * <pre>
+ *   scan -> dedupe -> cache -> batch -> network -> apply
+ * </pre>
+ * <ul>
+ *     <li><b>scan</b> finds the placeholders of text requests;</li>
+ *     <li><b>dedupe</b> turns requests into one lookup per module and key, shared by every request waiting for it;</li>
+ *     <li><b>cache</b> settles lookups from the {@link ResolutionCache};</li>
+ *     <li><b>batch</b> groups the remaining lookups per module and priority, flushing when full or after a short linger;</li>
+ *     <li><b>network</b> sends batches through the {@link ResolutionScheduler}, a bounded number at a time;</li>
+ *     <li><b>apply</b> hands the values to the waiting requests and completes them.</li>
+ * </ul>
+ * When a stage falls behind its buffer fills up and {@link #submit} blocks, while {@link #offer} (used for
+ * best-effort work such as prefetching) rejects the request instead. Each stage publishes on its own single-thread
+ * executor, so a stage blocked on a full buffer only holds up the stage feeding it, never the one it waits for.
+ * Each stage reports its own {@link StageMetrics}.
+ * <p>
+ * A key already in flight is not requested again; a later request waits for it. A waiter with a higher priority
+ * promotes the lookup if it has not been sent yet, and the newest session token is used when it is.
+ * <p>
+ * A selection sent as XML ({@link ResolutionRequest#forSelectionXml}) passes the same stages as a single unit:
+ * it is not split into keys, bypasses the cache and batching, and is sent by the network stage as a whole.
+ * <p>
+ * A stage never lets an exception escape to its upstream: a failure fails the affected requests only, and the
+ * stages stay subscribed for everything after it.
+ */
+public class ResolutionPipeline {
+    private static final Logger LOG = Logger.getInstance(ResolutionPipeline.class);
+
+    private static final int STAGE_BUFFER = Integer.getInteger("catalyst.lsk.pipeline.buffer", 256);
+    private static final int NETWORK_PARALLELISM = Integer.getInteger("catalyst.lsk.pipeline.network.parallelism", 8);
+    private static final int MAX_KEYS_PER_BATCH = 500;
+    private static final ResolutionPipeline instance = new ResolutionPipeline();
+
+    // module + '\0' + key -> lookup in flight; guarded by itself
+    private final Map<String, KeyLookup> inFlight = new HashMap<>();
+
+    private final SubmissionPublisher<PendingRequest> intake;
+    private final List<StageMetrics> stageMetrics = new ArrayList<>();
+
+    private ResolutionPipeline() {
+        intake = new SubmissionPublisher<>(stageExecutor("intake"), STAGE_BUFFER);
+        ScanStage scan = new ScanStage();
+        BatchStage batch = new BatchStage();
+        DedupeStage dedupe = new DedupeStage(batch);
+        CacheStage cache = new CacheStage();
+        NetworkStage network = new NetworkStage();
+        ApplyStage apply = new ApplyStage();
+        connect(intake, scan);
+        connect(scan, dedupe);
+        connect(dedupe, cache);
+        connect(cache, batch);
+        connect(batch, network);
+        connect(network, apply);
+    }
+
+    public static ResolutionPipeline getInstance() {
+        return instance;
+    }
+
+    /** One thread per stage keeps its items in order and lets it block on a full buffer without starving the others. */
+    private static Executor stageExecutor(String name) {
+        return AppExecutorUtil.createBoundedApplicationPoolExecutor("Catalyst LSK Pipeline " + name, 1);
+    }
+
+    /** Daemon platform threads for the network stage's calls, one per batch it may have in flight. */
+    private static ExecutorService createNetworkPool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(NETWORK_PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "Catalyst LSK Pipeline network " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private <T> void connect(SubmissionPublisher<T> upstream, Stage<T, ?> downstream) {
+        downstream.inputExecutor = upstream.getExecutor();
+        downstream.upstream = upstream;
+        upstream.subscribe(downstream);
+        downstream.metrics.setBacklogSupplier(upstream::estimateMaximumLag);
+        stageMetrics.add(downstream.metrics);
+    }
+
+    /**
+     * Queues {@code request}, blocking while the pipeline is saturated. Must not be called on the EDT.
+     */
+    public CompletableFuture<ResolutionResult> submit(@NotNull ResolutionRequest request) {
+        PendingRequest pending = new PendingRequest(request);
+        intake.submit(pending);
+        return pending.future;
+    }
+
+    /**
+     * Queues {@code request} only if the pipeline has room; otherwise the returned future fails with a
+     * {@link RejectedExecutionException}. Never blocks.
+     */
+    public CompletableFuture<ResolutionResult> offer(@NotNull ResolutionRequest request) {
+        PendingRequest pending = new PendingRequest(request);
+        if (intake.offer(pending, (subscriber, dropped) -> false) < 0) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Resolution pipeline is saturated."));
+        }
+        return pending.future;
+    }
+
+    /**
+     * {@link #submit}s {@code request} and waits for its result.
+     *
+     * @throws IOException if the backend could not be reached or reported an error, or the wait was interrupted.
+     */
+    public ResolutionResult resolve(@NotNull ResolutionRequest request) throws IOException {
+        try {
+            return submit(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for placeholder resolution.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof IOException ? (IOException) cause : new IOException("Placeholder resolution failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /** Requests accepted but not yet picked up by the scan stage. */
+    public int getIntakeBacklog() {
+        return intake.estimateMaximumLag();
+    }
+
+    /** Metrics of every stage, in pipeline order. */
+    public List<StageMetrics> getStageMetrics() {
+        return new ArrayList<>(stageMetrics);
+    }
+
+    // --- Items flowing through the stages ---
+
+    private static final class PendingRequest {
+        final ResolutionRequest request;
+        final CompletableFuture<ResolutionResult> future = new CompletableFuture<>();
+        private List<PlaceholderScanner.Placeholder> placeholders = List.of();
+        private Set<String> keys = Set.of();
+        private Set<String> remaining = new HashSet<>();
+        private final Map<String, String> resolved = new HashMap<>();
+        private final Set<String> unresolved = new LinkedHashSet<>();
+
+        PendingRequest(ResolutionRequest request) {
+            this.request = request;
+        }
+
+        synchronized void setKeys(List<PlaceholderScanner.Placeholder> placeholders, Set<String> keys) {
+            this.placeholders = placeholders;
+            this.keys = keys;
+            this.remaining = new HashSet<>(keys);
+        }
+
+        synchronized Set<String> getKeys() {
+            return keys;
+        }
+
+        void settle(String key, @Nullable String value) {
+            ResolutionResult result;
+            synchronized (this) {
+                if (!remaining.remove(key)) return;
+                if (value != null) {
+                    resolved.put(key, value);
+                } else {
+                    unresolved.add(key);
+                }
+                if (!remaining.isEmpty()) return;
+                result = new ResolutionResult(placeholders, new HashMap<>(resolved), new LinkedHashSet<>(unresolved));
+            }
+            future.complete(result);
+        }
+
+        void completeWithSelectionResponse(ApiResponse response) {
+            ResolutionResult result;
+            synchronized (this) {
+                result = new ResolutionResult(placeholders, new HashMap<>(), new LinkedHashSet<>(), response);
+            }
+            future.complete(result);
+        }
+
+        void completeIfEmpty() {
+            ResolutionResult result;
+            synchronized (this) {
+                if (!remaining.isEmpty()) return;
+                result = new ResolutionResult(placeholders, new HashMap<>(resolved), new LinkedHashSet<>(unresolved));
+            }
+            future.complete(result);
+        }
+    }
+
+    private static final class KeyLookup {
+        final String moduleName;
+        final String key;
+        final List<PendingRequest> waiters = new ArrayList<>(1); // guarded by inFlight
+        // Raised or replaced by later waiters; written under inFlight
+        volatile String sessionToken;
+        volatile long sessionTokenNanos;
+        volatile ResolutionScheduler.Priority priority;
+        @Nullable String batchKey; // open batch holding this lookup; guarded by BatchStage.open
+        @Nullable final PendingRequest selection; // a selection sent as XML; never shared, cached or batched
+
+        KeyLookup(String moduleName, String key, String sessionToken, ResolutionScheduler.Priority priority) {
+            this(moduleName, key, sessionToken, priority, null);
+        }
+
+        private KeyLookup(String moduleName, String key, String sessionToken, ResolutionScheduler.Priority priority,
+                          @Nullable PendingRequest selection) {
+            this.moduleName = moduleName;
+            this.key = key;
+            this.sessionToken = sessionToken;
+            this.sessionTokenNanos = System.nanoTime();
+            this.priority = priority;
+            this.selection = selection;
+        }
+
+        static KeyLookup forSelection(PendingRequest pending) {
+            ResolutionRequest request = pending.request;
+            return new KeyLookup(request.getModuleName(), "", request.getSessionToken(), request.getPriority(), pending);
+        }
+
+        /** Adds {@code pending} as a waiter and takes over its session token; returns whether that raised the priority. */
+        boolean join(PendingRequest pending) {
+            ResolutionRequest request = pending.request;
+            waiters.add(pending);
+            sessionToken = request.getSessionToken();
+            sessionTokenNanos = System.nanoTime();
+            if (request.getPriority().compareTo(priority) < 0) {
+                priority = request.getPriority();
+                return true;
+            }
+            return false;
+        }
+
+        String id() {
+            return inFlightId(moduleName, key);
+        }
+    }
+
+    private static final class KeyBatch {
+        final List<KeyLookup> lookups;
+
+        KeyBatch(List<KeyLookup> lookups) {
+            this.lookups = lookups;
+        }
+
+        /** The session token most recently handed in by any request waiting on this batch. */
+        String newestSessionToken() {
+            KeyLookup newest = lookups.get(0);
+            for (KeyLookup lookup : lookups) {
+                if (lookup.sessionTokenNanos - newest.sessionTokenNanos > 0) newest = lookup;
+            }
+            return newest.sessionToken;
+        }
+
+        ResolutionScheduler.Priority highestPriority() {
+            ResolutionScheduler.Priority highest = lookups.get(0).priority;
+            for (KeyLookup lookup : lookups) {
+                if (lookup.priority.compareTo(highest) < 0) highest = lookup.priority;
+            }
+            return highest;
+        }
+    }
+
+    private static final class BatchOutcome {
+        final KeyBatch batch;
+        @Nullable final Map<String, String> resolved;
+        @Nullable final ApiResponse selectionResponse;
+        @Nullable final Throwable error;
+
+        BatchOutcome(KeyBatch batch, @Nullable Map<String, String> resolved, @Nullable Throwable error) {
+            this(batch, resolved, null, error);
+        }
+
+        BatchOutcome(KeyBatch batch, @Nullable Map<String, String> resolved, @Nullable ApiResponse selectionResponse, @Nullable Throwable error) {
+            this.batch = batch;
+            this.resolved = resolved;
+            this.selectionResponse = selectionResponse;
+            this.error = error;
+        }
+    }
+
+    private static String inFlightId(String moduleName, String key) {
+        return moduleName + '\u0000' + key;
+    }
+
+    /** Completes a lookup for every request waiting on it; {@code value} null means the key is unresolvable. */
+    private void settle(KeyLookup lookup, @Nullable String value) {
+        for (PendingRequest waiter : detach(lookup)) {
+            waiter.settle(lookup.key, value);
+        }
+    }
+
+    private void fail(KeyLookup lookup, Throwable error) {
+        if (lookup.selection != null) {
+            lookup.selection.future.completeExceptionally(error);
+            return;
+        }
+        for (PendingRequest waiter : detach(lookup)) {
+            waiter.future.completeExceptionally(error);
+        }
+    }
+
+    private List<PendingRequest> detach(KeyLookup lookup) {
+        synchronized (inFlight) {
+            inFlight.remove(lookup.id(), lookup);
+            return new ArrayList<>(lookup.waiters);
+        }
+    }
+
+    // --- Stages ---
+
+    /**
+     * Base of all stages: a {@link Flow.Processor} that publishes into its own bounded buffer on its own thread,
+     * so a slow downstream stage blocks this one instead of growing a queue. Subclasses decide how they take items.
+     */
+    private abstract class Stage<I, O> extends SubmissionPublisher<O> implements Flow.Processor<I, O> {
+        final StageMetrics metrics;
+        Flow.Subscription subscription;
+        Executor inputExecutor; // delivers this stage's input; set by connect
+        Flow.Publisher<I> upstream; // set by connect
+
+        Stage(String name) {
+            super(stageExecutor(name), STAGE_BUFFER);
+            this.metrics = new StageMetrics(name);
+        }
+
+        void emit(O item) {
+            metrics.itemEmitted();
+            submit(item);
+        }
+
+        /**
+         * Only reached if an item escaped the stage's own error handling, which cancelled the subscription. The stage
+         * subscribes again rather than closing, which would take down every stage after it for good; requests whose
+         * items were lost with the old subscription are not completed.
+         */
+        @Override
+        public void onError(Throwable throwable) {
+            LOG.error("Resolution pipeline stage '" + metrics.getName() + "' lost its subscription; subscribing again.", throwable);
+            upstream.subscribe(this);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+    }
+
+    /** A stage that pulls one item at a time from upstream and handles it before asking for the next. */
+    private abstract class SequentialStage<I, O> extends Stage<I, O> {
+        SequentialStage(String name) {
+            super(name);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(I item) {
+            metrics.itemReceived();
+            long startNanos = System.nanoTime();
+            try {
+                process(item);
+            } catch (Throwable t) {
+                LOG.warn("Resolution pipeline stage '" + metrics.getName() + "' failed on an item: " + t.getMessage(), t);
+                fail(item, t);
+            } finally {
+                metrics.itemProcessed(System.nanoTime() - startNanos);
+                subscription.request(1);
+            }
+        }
+
+        abstract void process(I item) throws Exception;
+
+        abstract void fail(I item, Throwable error);
+    }
+
+    private final class ScanStage extends SequentialStage<PendingRequest, PendingRequest> {
+        ScanStage() {
+            super("scan");
+        }
+
+        @Override
+        void process(PendingRequest pending) {
+            ResolutionRequest request = pending.request;
+            CharSequence text = request.getText();
+            if (text == null) {
+                pending.setKeys(List.of(), request.getKeys());
+            } else {
+                List<PlaceholderScanner.Placeholder> placeholders = new ArrayList<>();
+                for (TextRange region : request.getRegions()) {
+                    placeholders.addAll(PlaceholderScanner.scan(text, region.getStartOffset(), Math.min(region.getEndOffset(), text.length())));
+                }
+                pending.setKeys(placeholders, PlaceholderScanner.collectKeys(placeholders));
+            }
+            if (pending.getKeys().isEmpty() && !request.isSentAsXml()) {
+                pending.completeIfEmpty();
+            } else {
+                emit(pending);
+            }
+        }
+
+        @Override
+        void fail(PendingRequest pending, Throwable error) {
+            pending.future.completeExceptionally(error);
+        }
+    }
+
+    private final class DedupeStage extends SequentialStage<PendingRequest, KeyLookup> {
+        private final BatchStage batch;
+
+        DedupeStage(BatchStage batch) {
+            super("dedupe");
+            this.batch = batch;
+        }
+
+        @Override
+        void process(PendingRequest pending) {
+            ResolutionRequest request = pending.request;
+            if (request.isSentAsXml()) {
+                emit(KeyLookup.forSelection(pending));
+                return;
+            }
+            List<KeyLookup> fresh = new ArrayList<>();
+            List<KeyLookup> promoted = new ArrayList<>();
+            synchronized (inFlight) {
+                for (String key : pending.getKeys()) {
+                    KeyLookup lookup = inFlight.get(inFlightId(request.getModuleName(), key));
+                    if (lookup == null) {
+                        lookup = new KeyLookup(request.getModuleName(), key, request.getSessionToken(), request.getPriority());
+                        inFlight.put(lookup.id(), lookup);
+                        lookup.waiters.add(pending);
+                        fresh.add(lookup);
+                    } else if (lookup.join(pending)) {
+                        promoted.add(lookup);
+                    }
+                }
+            }
+            for (KeyLookup lookup : fresh) {
+                emit(lookup);
+            }
+            for (KeyLookup lookup : promoted) {
+                batch.promote(lookup);
+            }
+        }
+
+        @Override
+        void fail(PendingRequest pending, Throwable error) {
+            pending.future.completeExceptionally(error);
+        }
+    }
+
+    private final class CacheStage extends SequentialStage<KeyLookup, KeyLookup> {
+        CacheStage() {
+            super("cache");
+        }
+
+        @Override
+        void process(KeyLookup lookup) {
+            if (lookup.selection != null) {
+                emit(lookup);
+                return;
+            }
+            ResolutionCache cache = ResolutionCache.getInstance();
+            String value = cache.get(lookup.moduleName, lookup.key);
+            if (value != null) {
+                settle(lookup, value);
+            } else if (cache.isKnownUnresolved(lookup.moduleName, lookup.key)) {
+                settle(lookup, null);
+            } else {
+                emit(lookup);
+            }
+        }
+
+        @Override
+        void fail(KeyLookup lookup, Throwable error) {
+            ResolutionPipeline.this.fail(lookup, error);
+        }
+    }
+
+    private final class BatchStage extends SequentialStage<KeyLookup, KeyBatch> {
+        // priority + module -> lookups waiting to be sent; guarded by itself
+        private final Map<String, List<KeyLookup>> open = new HashMap<>();
+
+        BatchStage() {
+            super("batch");
+        }
+
+        @Override
+        void process(KeyLookup lookup) {
+            if (lookup.selection != null) {
+                emit(new KeyBatch(List.of(lookup)));
+            } else {
+                add(lookup);
+            }
+        }
+
+        /**
+         * Moves {@code lookup} into the batch of its raised priority if it is still waiting in an open batch.
+         * A lookup not batched yet is batched at its new priority when it arrives; one already sent keeps its place.
+         */
+        void promote(KeyLookup lookup) {
+            synchronized (open) {
+                if (lookup.batchKey == null || lookup.batchKey.equals(batchKey(lookup))) return;
+                List<KeyLookup> lookups = open.get(lookup.batchKey);
+                if (lookups != null && lookups.remove(lookup) && lookups.isEmpty()) {
+                    open.remove(lookup.batchKey);
+                }
+                lookup.batchKey = null;
+            }
+            add(lookup);
+        }
+
+        private String batchKey(KeyLookup lookup) {
+            return lookup.priority + "\u0000" + lookup.moduleName;
+        }
+
+        private void add(KeyLookup lookup) {
+            String batchKey;
+            List<KeyLookup> full = null;
+            boolean first;
+            synchronized (open) {
+                batchKey = batchKey(lookup);
+                List<KeyLookup> lookups = open.computeIfAbsent(batchKey, k -> new ArrayList<>());
+                first = lookups.isEmpty();
+                lookups.add(lookup);
+                lookup.batchKey = batchKey;
+                if (lookups.size() >= MAX_KEYS_PER_BATCH) {
+                    full = open.remove(batchKey);
+                    unbatch(full);
+                }
+            }
+            if (full != null) {
+                emit(new KeyBatch(full));
+            } else if (first) {
+                // Flush on the thread feeding this stage, so a full downstream buffer holds up our input, not another stage
+                AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                        () -> inputExecutor.execute(() -> flush(batchKey)), lingerMillis(lookup.priority), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void flush(String batchKey) {
+            List<KeyLookup> lookups;
+            synchronized (open) {
+                lookups = open.remove(batchKey);
+                if (lookups != null) unbatch(lookups);
+            }
+            if (lookups != null && !lookups.isEmpty()) {
+                emit(new KeyBatch(lookups));
+            }
+        }
+
+        // Called under open
+        private void unbatch(List<KeyLookup> lookups) {
+            for (KeyLookup lookup : lookups) {
+                lookup.batchKey = null;
+            }
+        }
+
+        /** How long a batch may wait for more keys; short for interactive work, longer where merging matters more. */
+        private long lingerMillis(ResolutionScheduler.Priority priority) {
+            switch (priority) {
+                case INTERACTIVE: return 5;
+                case BULK: return 20;
+                case EDITOR_PREFETCH: return 100;
+                default: return 200;
+            }
+        }
+
+        @Override
+        void fail(KeyLookup lookup, Throwable error) {
+            ResolutionPipeline.this.fail(lookup, error);
+        }
+    }
+
+    /**
+     * Keeps up to {@link #NETWORK_PARALLELISM} batches in flight: demand is only renewed when a call completes.
+     * Batches are dispatched to the stage's own pool of {@link #NETWORK_PARALLELISM} threads as they arrive rather
+     * than processed one at a time. Nothing else runs on that pool, so callers blocked waiting for a result (on the
+     * backend I/O executor or anywhere else) can never hold up the calls they are waiting for.
+     */
+    private final class NetworkStage extends Stage<KeyBatch, BatchOutcome> {
+        private final ExecutorService calls = createNetworkPool();
+
+        NetworkStage() {
+            super("network");
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(NETWORK_PARALLELISM);
+        }
+
+        @Override
+        public void onNext(KeyBatch batch) {
+            metrics.itemReceived();
+            // At most NETWORK_PARALLELISM batches are requested at a time, so every one gets a thread right away
+            try {
+                calls.execute(() -> {
+                    long startNanos = System.nanoTime();
+                    try {
+                        deliver(send(batch));
+                    } finally {
+                        metrics.itemProcessed(System.nanoTime() - startNanos);
+                        subscription.request(1);
+                    }
+                });
+            } catch (Throwable t) {
+                deliver(new BatchOutcome(batch, null, t));
+                subscription.request(1);
+            }
+        }
+
+        private BatchOutcome send(KeyBatch batch) {
+            try {
+                PendingRequest selection = batch.lookups.get(0).selection;
+                if (selection != null) {
+                    ResolutionRequest request = selection.request;
+                    ApiResponse response = ChunkedSelectionResolver.getInstance().resolveSelection(
+                            request.getModuleName(), String.valueOf(request.getText()), request.getSessionToken());
+                    return new BatchOutcome(batch, null, response, null);
+                }
+                List<String> keys = new ArrayList<>(batch.lookups.size());
+                for (KeyLookup lookup : batch.lookups) {
+                    keys.add(lookup.key);
+                }
+                Map<String, String> resolved = PlaceholderResolver.getInstance().fetch(batch.lookups.get(0).moduleName,
+                        keys, batch.newestSessionToken(), batch.highestPriority());
+                return new BatchOutcome(batch, resolved, null);
+            } catch (Throwable t) {
+                LOG.debug("Batch of {} key(s) failed: {}", batch.lookups.size(), t.getMessage());
+                return new BatchOutcome(batch, null, t);
+            }
+        }
+
+        /** Hands {@code outcome} to the apply stage, or fails its requests right here if that is not possible. */
+        private void deliver(BatchOutcome outcome) {
+            try {
+                emit(outcome);
+            } catch (Throwable t) {
+                LOG.warn("Resolution pipeline stage 'network' could not pass on a batch: " + t.getMessage(), t);
+                for (KeyLookup lookup : outcome.batch.lookups) {
+                    ResolutionPipeline.this.fail(lookup, outcome.error != null ? outcome.error : t);
+                }
+            }
+        }
+    }
+
+    private final class ApplyStage extends SequentialStage<BatchOutcome, Void> {
+        ApplyStage() {
+            super("apply");
+        }
+
+        @Override
+        void process(BatchOutcome outcome) {
+            Collection<KeyLookup> lookups = outcome.batch.lookups;
+            for (KeyLookup lookup : lookups) {
+                if (lookup.selection != null && outcome.error == null) {
+                    lookup.selection.completeWithSelectionResponse(outcome.selectionResponse != null
+                            ? outcome.selectionResponse : new ApiResponse("Empty response from the backend."));
+                } else if (outcome.error != null) {
+                    ResolutionPipeline.this.fail(lookup, outcome.error);
+                } else {
+                    settle(lookup, outcome.resolved != null ? outcome.resolved.get(lookup.key) : null);
+                }
+                metrics.itemEmitted();
+            }
+        }
+
+        @Override
+        void fail(BatchOutcome outcome, Throwable error) {
+            for (KeyLookup lookup : outcome.batch.lookups) {
+                ResolutionPipeline.this.fail(lookup, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.zoho.catalyst_plugin.pipeline;
+
+import com.intellij.openapi.util.TextRange;
+import com.zoho.catalyst_plugin.service.ResolutionScheduler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A unit of work for the {@link ResolutionPipeline}: regions of a text that still have to be scanned
+ * for placeholders, a set of already known placeholder keys, or a selection to be sent to the backend as XML.
+ */
+public final class ResolutionRequest {
+    private final String moduleName;
+    private final String sessionToken;
+    private final ResolutionScheduler.Priority priority;
+    @Nullable private final CharSequence text;
+    private final List<TextRange> regions;
+    private final Set<String> keys;
+    private final boolean sentAsXml;
+
+    private ResolutionRequest(String moduleName, String sessionToken, ResolutionScheduler.Priority priority,
+                              @Nullable CharSequence text, List<TextRange> regions, Set<String> keys, boolean sentAsXml) {
+        this.moduleName = moduleName;
+        this.sessionToken = sessionToken;
+        this.priority = priority;
+        this.text = text;
+        this.regions = regions;
+        this.keys = keys;
+        this.sentAsXml = sentAsXml;
+    }
+
+    /**
+     * @param text an immutable text (a {@code String} or {@code Document.getImmutableCharSequence()}); it is
+     *             scanned later on a pipeline thread.
+     */
+    public static ResolutionRequest forText(@NotNull String moduleName, @NotNull String sessionToken, @NotNull ResolutionScheduler.Priority priority,
+                                            @NotNull CharSequence text, @NotNull List<TextRange> regions) {
+        return new ResolutionRequest(moduleName, sessionToken, priority, text, new ArrayList<>(regions), Collections.emptySet(), false);
+    }
+
+    /**
+     * A selection the backend resolves as a whole, REFs against the LSKs declared in it, instead of key by key.
+     * It skips the cache and batching and is sent by the network stage through the {@code ChunkedSelectionResolver};
+     * the answer is in {@link ResolutionResult#getSelectionResponse()}.
+     */
+    public static ResolutionRequest forSelectionXml(@NotNull String moduleName, @NotNull String sessionToken, @NotNull ResolutionScheduler.Priority priority,
+                                                    @NotNull String xml) {
+        return new ResolutionRequest(moduleName, sessionToken, priority, xml, List.of(new TextRange(0, xml.length())), Collections.emptySet(), true);
+    }
+
+    public static ResolutionRequest forKeys(@NotNull String moduleName, @NotNull String sessionToken, @NotNull ResolutionScheduler.Priority priority,
+                                            @NotNull Collection<String> keys) {
+        return new ResolutionRequest(moduleName, sessionToken, priority, null, Collections.emptyList(), new LinkedHashSet<>(keys), false);
+    }
+
+    public String getModuleName() { return moduleName; }
+
+    public String getSessionToken() { return sessionToken; }
+
+    public ResolutionScheduler.Priority getPriority() { return priority; }
+
+    /** The text to scan, or null for a key-only request. */
+    @Nullable
+    public CharSequence getText() { return text; }
+
+    public List<TextRange> getRegions() { return regions; }
+
+    /** The keys of a key-only request; empty for a text request. */
+    public Set<String> getKeys() { return keys; }
+
+    /** Whether the text goes to the backend as XML (see {@link #forSelectionXml}) rather than key by key. */
+    public boolean isSentAsXml() { return sentAsXml; }
+}
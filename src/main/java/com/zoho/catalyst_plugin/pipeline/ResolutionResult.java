@@ -0,0 +1,46 @@
+package com.zoho.catalyst_plugin.pipeline;
+
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a {@link ResolutionRequest}. Keys are either in {@link #getResolved()} or in {@link #getUnresolvedKeys()},
+ * except for a selection sent as XML, which is resolved as a whole (see {@link #getSelectionResponse()}).
+ */
+public final class ResolutionResult {
+    private final List<PlaceholderScanner.Placeholder> placeholders;
+    private final Map<String, String> resolved;
+    private final Set<String> unresolvedKeys;
+    @Nullable private final ApiResponse selectionResponse;
+
+    ResolutionResult(List<PlaceholderScanner.Placeholder> placeholders, Map<String, String> resolved, Set<String> unresolvedKeys) {
+        this(placeholders, resolved, unresolvedKeys, null);
+    }
+
+    ResolutionResult(List<PlaceholderScanner.Placeholder> placeholders, Map<String, String> resolved, Set<String> unresolvedKeys,
+                     @Nullable ApiResponse selectionResponse) {
+        this.placeholders = placeholders;
+        this.resolved = resolved;
+        this.unresolvedKeys = unresolvedKeys;
+        this.selectionResponse = selectionResponse;
+    }
+
+    /** Placeholders found by the scan stage, in document order; empty for key-only requests. */
+    public List<PlaceholderScanner.Placeholder> getPlaceholders() { return placeholders; }
+
+    public Map<String, String> getResolved() { return resolved; }
+
+    public Set<String> getUnresolvedKeys() { return unresolvedKeys; }
+
+    /**
+     * The backend's answer to a {@link ResolutionRequest#forSelectionXml} request (resolved XML or an error);
+     * null for other requests, whose values are in {@link #getResolved()}.
+     */
+    @Nullable
+    public ApiResponse getSelectionResponse() { return selectionResponse; }
+}
@@ -0,0 +1,73 @@
+package com.zoho.catalyst_plugin.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.IntSupplier;
+
+/**
+ * Throughput and latency counters of one {@link ResolutionPipeline} stage.
+ * Latency is the time a stage spends on one item (for the network stage: one backend call).
+ */
+public final class StageMetrics {
+    private final String name;
+    private final long createdNanos = System.nanoTime();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong emitted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private volatile IntSupplier backlog = () -> 0;
+
+    StageMetrics(String name) {
+        this.name = name;
+    }
+
+    void itemReceived() {
+        received.incrementAndGet();
+    }
+
+    void itemEmitted() {
+        emitted.incrementAndGet();
+    }
+
+    void itemProcessed(long nanos) {
+        processed.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    void setBacklogSupplier(IntSupplier backlog) {
+        this.backlog = backlog;
+    }
+
+    public String getName() { return name; }
+
+    public long getReceivedCount() { return received.get(); }
+
+    public long getEmittedCount() { return emitted.get(); }
+
+    /** Items buffered in front of this stage (an estimate, see {@code SubmissionPublisher#estimateMaximumLag}). */
+    public int getBacklog() { return backlog.getAsInt(); }
+
+    public double getAverageLatencyMillis() {
+        long count = processed.get();
+        return count == 0 ? 0 : totalNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /** Items processed per second since the pipeline was created. */
+    public double getThroughputPerSecond() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - createdNanos);
+        return processed.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: in=%d out=%d backlog=%d avg=%.2fms max=%.2fms rate=%.1f/s",
+                name, getReceivedCount(), getEmittedCount(), getBacklog(), getAverageLatencyMillis(), getMaxLatencyMillis(), getThroughputPerSecond());
+    }
+}
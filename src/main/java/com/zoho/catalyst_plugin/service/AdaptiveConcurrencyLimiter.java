@@ -0,0 +1,152 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD limit on the number of backend requests in flight.
+ * <ul>
+ *     <li>Each request that succeeds within the latency target grows the limit by {@code 1 / limit},
+ *     i.e. by roughly one per round trip at full use.</li>
+ *     <li>An overload signal (429/503, a 5xx, an I/O failure, or a response slower than the target) halves it,
+ *     at most once per {@link #DECREASE_COOLDOWN_NANOS}, so one burst of failures counts once.</li>
+ *     <li>A {@code Retry-After} hint pauses all new requests until it expires.</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger LOG = Logger.getInstance(AdaptiveConcurrencyLimiter.class);
+
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum Outcome { SUCCESS, OVERLOADED, FAILED }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityAvailable = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long pausedUntilNanos;
+    private long lastDecreaseNanos;
+    private boolean paused;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetMillis) {
+        this(initialLimit, minLimit, maxLimit, latencyTargetMillis, System::nanoTime);
+    }
+
+    /** For tests: {@code nanoClock} replaces {@link System#nanoTime()} for the cooldown and pauses. */
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetMillis, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.lastDecreaseNanos = nanoClock.getAsLong() - DECREASE_COOLDOWN_NANOS;
+    }
+
+    /**
+     * Waits until a request may be sent: the backend is not asking us to back off and fewer than
+     * {@link #getLimit()} requests are in flight. Every successful call must be paired with {@link #release}.
+     */
+    public void acquire() throws InterruptedIOException {
+        lock.lock();
+        try {
+            while (true) {
+                long pauseNanos = pausedUntilNanos - nanoClock.getAsLong();
+                if (paused && pauseNanos > 0) {
+                    capacityAvailable.awaitNanos(pauseNanos);
+                    continue;
+                }
+                paused = false;
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return;
+                }
+                capacityAvailable.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a backend request slot.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Outcome outcome, long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            long now = nanoClock.getAsLong();
+            boolean overloaded = outcome != Outcome.SUCCESS || latencyNanos > latencyTargetNanos;
+            if (overloaded) {
+                if (now - lastDecreaseNanos >= DECREASE_COOLDOWN_NANOS) {
+                    lastDecreaseNanos = now;
+                    double previous = limit;
+                    limit = Math.max(minLimit, limit / 2);
+                    LOG.info("Backend " + (outcome == Outcome.SUCCESS ? "slow (" + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + " ms)" : outcome)
+                            + ", concurrency limit " + (int) previous + " -> " + (int) limit);
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds back all new requests for {@code millis}, e.g. for a {@code Retry-After} hint. Never shortens an existing pause.
+     */
+    public void pauseFor(long millis) {
+        lock.lock();
+        try {
+            long until = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(millis);
+            if (!paused || until - pausedUntilNanos > 0) {
+                pausedUntilNanos = until;
+                paused = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return milliseconds left of the current {@code Retry-After} pause, or 0.
+     */
+    public long getPauseRemainingMillis() {
+        lock.lock();
+        try {
+            long remaining = pausedUntilNanos - nanoClock.getAsLong();
+            return paused && remaining > 0 ? TimeUnit.NANOSECONDS.toMillis(remaining) : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
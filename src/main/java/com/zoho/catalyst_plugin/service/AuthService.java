@@ -1,22 +1,35 @@
 package com.zoho.catalyst_plugin.service;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.intellij.credentialStore.CredentialAttributes;
 import com.intellij.credentialStore.Credentials;
 import com.intellij.ide.passwordSafe.PasswordSafe;
+import com.intellij.ide.util.PropertiesComponent;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service responsible for securely storing and retrieving the user's
  * *application-specific session token* obtained after successful authentication
  * via the backend service. Uses IntelliJ's PasswordSafe.
+ * <p>
+ * The token's expiry time is not secret and is kept next to it in the application's properties, so
+ * {@link SessionTokenRefresher} can renew the token before it runs out.
  */
 public class AuthService {
     private static final Logger LOG = Logger.getInstance(AuthService.class);
 
     private static final String CREDENTIAL_SERVICE_NAME = "com.zoho.catalyst_plugin";
     private static final String SESSION_TOKEN_KEY = "BackendApiSessionToken";
+    private static final String SESSION_EXPIRES_AT_KEY = "com.zoho.catalyst_plugin.session.expiresAt";
 
     private static final AuthService instance = new AuthService();
 
@@ -72,9 +85,11 @@ public class AuthService {
      * Securely stores the backend session token in PasswordSafe.
      *
      * @param sessionToken The token to store. Must not be null or empty.
+     * @param expiresInSeconds The token's lifetime as reported by the backend; if null, the {@code exp} claim is used
+     *                         when the token is a JWT, otherwise the expiry is unknown.
      * @throws IllegalArgumentException if the token is null or empty.
      */
-    public void storeAuthToken(@NotNull String sessionToken) {
+    public void storeAuthToken(@NotNull String sessionToken, @Nullable Long expiresInSeconds) {
         if (sessionToken == null || sessionToken.trim().isEmpty()) {
             LOG.error("Attempted to store a null or empty session token.");
             throw new IllegalArgumentException("Cannot store a null or empty session token.");
@@ -86,12 +101,43 @@ public class AuthService {
 
         try {
             PasswordSafe.getInstance().set(attributes, credentials);
-            LOG.info("Session token stored successfully.");
+            long expiresAt = expiresInSeconds != null && expiresInSeconds > 0
+                    ? System.currentTimeMillis() + expiresInSeconds * 1000
+                    : expiryFromJwt(sessionToken);
+            PropertiesComponent.getInstance().setValue(SESSION_EXPIRES_AT_KEY, String.valueOf(expiresAt), "0");
+            LOG.info("Session token stored successfully" + (expiresAt > 0 ? ", expires in " + (expiresAt - System.currentTimeMillis()) / 1000 + " s." : ", expiry unknown."));
         } catch (Exception e) {
             LOG.error("Error storing token in PasswordSafe", e);
         }
     }
 
+    /**
+     * @return when the stored session token expires (epoch millis), or 0 if unknown.
+     */
+    public long getTokenExpiresAt() {
+        return PropertiesComponent.getInstance().getLong(SESSION_EXPIRES_AT_KEY, 0);
+    }
+
+    /**
+     * Reads the {@code exp} claim if the token is a JWT.
+     *
+     * @return the expiry in epoch millis, or 0 if the token is opaque.
+     */
+    private static long expiryFromJwt(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) return 0;
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            JsonElement json = JsonParser.parseString(payload);
+            if (!json.isJsonObject()) return 0;
+            JsonObject claims = json.getAsJsonObject();
+            return claims.has("exp") ? claims.get("exp").getAsLong() * 1000 : 0;
+        } catch (RuntimeException e) {
+            LOG.debug("Session token looks like a JWT but its payload could not be read: {}", e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Removes the stored backend session token from PasswordSafe.
      */
@@ -100,6 +146,7 @@ public class AuthService {
         CredentialAttributes attributes = createCredentialAttributes();
         try {
             PasswordSafe.getInstance().set(attributes, null);
+            PropertiesComponent.getInstance().unsetValue(SESSION_EXPIRES_AT_KEY);
             LOG.info("Session token cleared successfully.");
         } catch (Exception e) {
             LOG.error("Error clearing token in PasswordSafe", e);
@@ -109,9 +156,24 @@ public class AuthService {
 
     /**
      * Checks if a session token is currently stored.
+     * Reads the credential store, which can block (e.g. on a locked keychain); see {@link #isSignedInAsync()}.
      * @return true if a non-null token exists, false otherwise.
      */
     public boolean isSignedIn() {
         return getAuthToken() != null;
     }
+
+    /**
+     * {@link #isSignedIn()} on a pooled thread, for callers on the EDT or on the project-open path.
+     */
+    public CompletableFuture<Boolean> isSignedInAsync() {
+        return CompletableFuture.supplyAsync(this::isSignedIn, AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * {@link #getAuthToken()} on a pooled thread, for callers on the EDT; completes with null when not signed in.
+     */
+    public CompletableFuture<String> getAuthTokenAsync() {
+        return CompletableFuture.supplyAsync(this::getAuthToken, AppExecutorUtil.getAppExecutorService());
+    }
 }
\ No newline at end of file
@@ -3,37 +3,162 @@ package com.zoho.catalyst_plugin.service;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
 import com.zoho.catalyst_plugin.dto.ApiResponse;
 import com.zoho.catalyst_plugin.dto.AuthResponse;
+import com.zoho.catalyst_plugin.dto.BatchResolveResponse;
 
 import com.zoho.catalyst_plugin.dto.SimpleResponse;
+import com.zoho.catalyst_plugin.jfr.BackendExchangeEvent;
+import com.zoho.catalyst_plugin.jfr.ResolveStageEvent;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import com.zoho.catalyst_plugin.util.TokenBucket;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of the Catalyst LSK backend: GitHub code exchange, session refresh and placeholder resolution.
+ * <p>
+ * Placeholders are resolved with {@code POST /logical-seed-key/resolve}: {@code {moduleName, xmlContent}} returns the
+ * rewritten XML ({@link ApiResponse}), REF placeholders resolved against the LSKs of the same XML. Callers that need a
+ * key -> value map ({@link #resolvePlaceholders}) send their distinct keys as a small XML fragment of their own and
+ * read the values back from the rewritten fragment, so no other resolve endpoint is needed.
+ * <p>
+ * Two backend behaviours are assumed rather than documented by the backend: {@code POST /auth/refresh} trading a
+ * session token for a new {@link AuthResponse}, and {@code Idempotency-Key} being honoured on replays. A backend
+ * without the refresh endpoint (404/405) makes {@link #refreshSessionToken} return null, and the user is asked to
+ * sign in again instead. A backend that ignores the header may process a request replayed after a 401 or a 429/503
+ * answer twice.
+ */
 public class BackendApiService {
     private static final Logger LOG = Logger.getInstance(BackendApiService.class);
-    private static final BackendApiService instance = new BackendApiService();
     private final Gson gson = new Gson();
 
-    private static final String API_BASE_URL = "http://localhost:8080/api";
+    // Overridable to point the plugin (or the load-test harness) at another backend, e.g. a local stub
+    private static final String API_BASE_URL =
+            System.getProperty("catalyst.lsk.api.base.url", "http://localhost:8080/api").replaceAll("/+$", "");
     private static final String GITHUB_EXCHANGE_ENDPOINT = API_BASE_URL + "/auth/github/exchange-code";
+    private static final String SESSION_REFRESH_ENDPOINT = API_BASE_URL + "/auth/refresh";
+    private static final String HEALTH_ENDPOINT = API_BASE_URL + "/health";
     private static final String RESOLVE_ENDPOINT = API_BASE_URL + "/logical-seed-key/resolve";
 
+    // Client-side protection of the shared backend; tune with the catalyst.lsk.backend.* system properties
+    private static final double MAX_REQUESTS_PER_SECOND = Double.parseDouble(System.getProperty("catalyst.lsk.backend.rate", "10"));
+    private static final int MAX_REQUEST_BURST = Integer.getInteger("catalyst.lsk.backend.burst", 20);
+    private static final int MAX_CONCURRENT_REQUESTS = Integer.getInteger("catalyst.lsk.backend.concurrency.max", 16);
+    private static final long LATENCY_TARGET_MILLIS = Long.getLong("catalyst.lsk.backend.latency.target.millis", 5000);
+    private static final int MAX_OVERLOAD_RETRIES = 2;
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+    private static final long MAX_RETRY_AFTER_MILLIS = 30_000;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final long IDLE_CONNECTION_SECONDS = 60;
+    private static final Timeout WARM_UP_TIMEOUT = Timeout.ofSeconds(5);
+
+    private final TokenBucket rateLimiter = new TokenBucket(MAX_REQUESTS_PER_SECOND, MAX_REQUEST_BURST);
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter =
+            new AdaptiveConcurrencyLimiter(4, 1, MAX_CONCURRENT_REQUESTS, LATENCY_TARGET_MILLIS);
+
+    // Shared so connections to the backend are kept alive and reused instead of reconnecting for every call
+    private final CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(MAX_CONCURRENT_REQUESTS + 2) // + sign-in and session refresh
+                    .setMaxConnPerRoute(MAX_CONCURRENT_REQUESTS + 2)
+                    .build())
+            .evictIdleConnections(TimeValue.ofSeconds(IDLE_CONNECTION_SECONDS))
+            .build();
+
+    /**
+     * Supplies a fresh session token after the backend rejected one with 401.
+     * Kept as a hook so this class stays usable without the IDE's credential store.
+     */
+    public interface SessionTokenRenewer {
+        /**
+         * @return a token to replay the request with, or null if the session cannot be renewed.
+         */
+        @Nullable
+        String renew(@NotNull String rejectedToken);
+    }
+
+    @Nullable private volatile SessionTokenRenewer sessionTokenRenewer;
+
     private BackendApiService() {}
 
+    // Created on first use, once every static field of BackendApiService is set, wherever it is declared
+    private static final class InstanceHolder {
+        static final BackendApiService INSTANCE = new BackendApiService();
+    }
+
     public static BackendApiService getInstance() {
-        return instance;
+        return InstanceHolder.INSTANCE;
+    }
+
+    public void setSessionTokenRenewer(@Nullable SessionTokenRenewer renewer) {
+        this.sessionTokenRenewer = renewer;
+    }
+
+    /**
+     * Trades a still valid (or just expired) session token for a new one.
+     *
+     * @return the new session, or null if the backend has no refresh endpoint (404/405) and the user has to sign in again.
+     * @throws IOException if the backend refuses, e.g. because the session has been revoked.
+     */
+    @Nullable
+    public AuthResponse refreshSessionToken(String sessionToken) throws IOException {
+        if (sessionToken == null || sessionToken.trim().isEmpty()) { throw new IllegalArgumentException("Session token cannot be null or empty for refresh."); }
+        LOG.info("Calling backend session refresh API.");
+
+        // Not throttled: the refresh must not queue behind the requests waiting for it
+        HttpResult result = post(SESSION_REFRESH_ENDPOINT, "{}", sessionToken, false, null);
+        if (result.statusCode == 404 || result.statusCode == 405) {
+            LOG.warn("Backend has no session refresh endpoint (HTTP Status: " + result.statusCode + ").");
+            return null;
+        }
+        if (result.statusCode < 200 || result.statusCode >= 300) {
+            String backendError = parseErrorMessage(result.body);
+            throw new IOException("Session refresh failed (HTTP Status: " + result.statusCode + ")" + (backendError != null ? ": " + backendError : ""));
+        }
+        try {
+            AuthResponse authResponse = result.body != null ? gson.fromJson(result.body, AuthResponse.class) : null;
+            if (authResponse == null || authResponse.getToken() == null || authResponse.getToken().isEmpty()) {
+                throw new IOException("Session refresh response did not contain a token.");
+            }
+            return authResponse;
+        } catch (JsonSyntaxException e) {
+            throw new IOException("Invalid JSON format in session refresh response.", e);
+        }
     }
 
     public AuthResponse exchangeGitHubCode(String authorizationCode)
@@ -49,69 +174,48 @@ public class BackendApiService {
         payload.put("code", authorizationCode);
         String requestBodyJson = gson.toJson(payload);
 
-        // --- Use Apache HttpClient 5 for HTTP reqs ---
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost httpPost = new HttpPost(GITHUB_EXCHANGE_ENDPOINT);
-
-            // Set Headers
-            httpPost.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
-            httpPost.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
-
-            // Set Request Body
-            httpPost.setEntity(new StringEntity(requestBodyJson, ContentType.APPLICATION_JSON));
+        try {
+            // Sign-in is a one-off user action, so it bypasses the rate limits
+            HttpResult result = post(GITHUB_EXCHANGE_ENDPOINT, requestBodyJson, null, false, null);
+            int statusCode = result.statusCode;
+            String responseBody = result.body;
 
-            LOG.debug("Executing POST request to {}", GITHUB_EXCHANGE_ENDPOINT);
+            LOG.debug("Received code exchange response status: {}, Body: {}", statusCode, responseBody != null ? responseBody.substring(0, Math.min(responseBody.length(), 500)) + "..." : "null");
 
-            // Execute and process response directly
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getCode();
-                String responseBody = null;
-                HttpEntity entity = response.getEntity();
-                if (entity != null) {
+            if (statusCode >= 200 && statusCode < 300) {
+                // Success
+                if (responseBody != null && !responseBody.isEmpty()) {
                     try {
-                        responseBody = EntityUtils.toString(entity);
-                    } finally {
-                        EntityUtils.consumeQuietly(entity); // Ensure consumed
-                    }
-                }
-
-                LOG.debug("Received code exchange response status: {}, Body: {}", statusCode, responseBody != null ? responseBody.substring(0, Math.min(responseBody.length(), 500)) + "..." : "null");
-
-                if (statusCode >= 200 && statusCode < 300) {
-                    // Success
-                    if (responseBody != null && !responseBody.isEmpty()) {
-                        try {
-                            AuthResponse authResponse = gson.fromJson(responseBody, AuthResponse.class);
-                            if (authResponse == null) {
-                                throw new IOException("Parsed JSON response body is null for GitHub Code Exchange.");
-                            }
-                            LOG.info("GitHub Code Exchange successful according to backend.");
-                            return authResponse; // Return parsed DTO
-                        } catch (JsonSyntaxException e) {
-                            LOG.error("Failed to parse successful JSON response for GitHub Code Exchange: " + responseBody, e);
-                            throw new IOException("Invalid JSON format in successful response from server for GitHub Code Exchange.", e);
+                        AuthResponse authResponse = gson.fromJson(responseBody, AuthResponse.class);
+                        if (authResponse == null) {
+                            throw new IOException("Parsed JSON response body is null for GitHub Code Exchange.");
                         }
-                    } else {
-                        LOG.error("Received successful status code ({}) but empty response body for GitHub Code Exchange.", String.valueOf(statusCode));
-                        throw new IOException("Empty response body on successful status " + statusCode + " for GitHub Code Exchange.");
+                        LOG.info("GitHub Code Exchange successful according to backend.");
+                        return authResponse; // Return parsed DTO
+                    } catch (JsonSyntaxException e) {
+                        LOG.error("Failed to parse successful JSON response for GitHub Code Exchange: " + responseBody, e);
+                        throw new IOException("Invalid JSON format in successful response from server for GitHub Code Exchange.", e);
                     }
                 } else {
-                    // Error status code
-                    String errorMsg = "GitHub Code Exchange failed (HTTP Status: " + statusCode + ")";
-                    if (responseBody != null) {
-                        // Try parsing potential error DTOs (AuthResponse/SimpleResponse might contain messages)
-                        String backendError = parseErrorMessage(responseBody); // Use existing helper
-                        if(backendError != null) {
-                            errorMsg = backendError + " (HTTP Status: " + statusCode + ")";
-                        } else {
-                            errorMsg += " - " + responseBody.substring(0, Math.min(responseBody.length(), 200)) + "...";
-                        }
+                    LOG.error("Received successful status code ({}) but empty response body for GitHub Code Exchange.", String.valueOf(statusCode));
+                    throw new IOException("Empty response body on successful status " + statusCode + " for GitHub Code Exchange.");
+                }
+            } else {
+                // Error status code
+                String errorMsg = "GitHub Code Exchange failed (HTTP Status: " + statusCode + ")";
+                if (responseBody != null) {
+                    // Try parsing potential error DTOs (AuthResponse/SimpleResponse might contain messages)
+                    String backendError = parseErrorMessage(responseBody); // Use existing helper
+                    if(backendError != null) {
+                        errorMsg = backendError + " (HTTP Status: " + statusCode + ")";
+                    } else {
+                        errorMsg += " - " + responseBody.substring(0, Math.min(responseBody.length(), 200)) + "...";
                     }
-                    LOG.warn("GitHub Code Exchange API call failed: {}" + errorMsg);
-                    throw new IOException(errorMsg); // Throw exception to signal failure
                 }
-            } // CloseableHttpResponse closed
-        } // CloseableHttpClient closed
+                LOG.warn("GitHub Code Exchange API call failed: {}" + errorMsg);
+                throw new IOException(errorMsg); // Throw exception to signal failure
+            }
+        }
         catch (IOException e) {
             // Catch/log network or processing errors
             LOG.error("IOException during HTTP request to {}: {}", GITHUB_EXCHANGE_ENDPOINT, e.getMessage());
@@ -127,48 +231,331 @@ public class BackendApiService {
     public ApiResponse resolveLskSelection(String inputModuleName, String xmlContent, String sessionToken) throws IOException, IllegalArgumentException {
         LOG.info("Calling LSK Resolve API for XML selection.");
 
-        if (sessionToken == null || sessionToken.trim().isEmpty()) { throw new IllegalArgumentException("Auth token cannot be null or empty for resolution."); }
+        if (sessionToken == null || sessionToken.trim().isEmpty()) {
+            throw new IllegalArgumentException("Auth token cannot be null or empty for resolution.");
+        }
         if (inputModuleName == null || inputModuleName.trim().isEmpty()) {
             throw new IllegalArgumentException("Module name cannot be empty for resolution.");
         }
-        if (xmlContent == null || xmlContent.isEmpty()) { throw new IllegalArgumentException("XML content cannot be empty for resolution."); }
+        if (xmlContent == null || xmlContent.isEmpty()) {
+            throw new IllegalArgumentException("XML content cannot be empty for resolution.");
+        }
+
+        String requestId = UUID.randomUUID().toString();
+        ResolveStageEvent serialization = ResolveStageEvent.begin(ResolveStageEvent.SERIALIZATION, requestId, inputModuleName);
+        String requestBodyJson = buildResolveRequestJson(inputModuleName, xmlContent);
+        serialization.end(requestBodyJson.length());
+
+        try {
+            HttpResult result = post(RESOLVE_ENDPOINT, requestBodyJson, sessionToken, true, requestId);
+            int statusCode = result.statusCode;
+            String responseBody = result.body;
+
+            LOG.debug("Received response status: {}, Body: {}", statusCode, responseBody != null ? responseBody.substring(0, Math.min(responseBody.length(), 500)) + "..." : "null");
+
+            if (statusCode >= 200 && statusCode < 300) {
+                if (responseBody != null) {
+                    try {
+                        ResolveStageEvent deserialization = ResolveStageEvent.begin(ResolveStageEvent.DESERIALIZATION, requestId, inputModuleName);
+                        ApiResponse apiResponse = gson.fromJson(responseBody, ApiResponse.class);
+                        deserialization.end(responseBody.length());
+                        if (apiResponse == null) {
+                            throw new IOException("Failed to parse successful response JSON from server.");
+                        }
+                        LOG.info("LSK resolution successful according to backend.");
+                        return apiResponse;
+                    } catch (JsonSyntaxException e) {
+                        LOG.error("Failed to parse successful response JSON: " + responseBody, e);
+                        throw new IOException("Invalid JSON format in successful response from server.", e);
+                    }
+                } else {
+                    LOG.error("Received successful status code ({}) but empty response body from server.", String.valueOf(statusCode));
+                    throw new IOException("Empty response body on successful status " + statusCode + " from server.");
+                }
+            } else {
+                String errorMsg = "LSK Resolution failed (HTTP Status: " + statusCode + ")";
+                if (responseBody != null) {
+                    String backendError = parseErrorMessage(responseBody);
+                    if (backendError != null) {
+                        errorMsg = backendError + " (HTTP Status: " + statusCode + ")";
+                    } else {
+                        errorMsg += " - " + responseBody.substring(0, Math.min(responseBody.length(), 200));
+                    }
+                }
+
+                LOG.warn("LSK resolution failed on backend: " + errorMsg);
+                return new ApiResponse(errorMsg); // Return ApiResponse indicating error
+            }
+        } catch (IOException e) {
+            LOG.error("IOException during HTTP request to {}: {}", RESOLVE_ENDPOINT, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            LOG.error("Unexpected exception during HTTP request execution", e);
+            throw new IOException("Unexpected error during API call: " + e.getMessage(), e);
+        }
+    }
 
+    /**
+     * Resolves a de-duplicated set of placeholder keys in a single {@code /resolve} request.
+     * Unlike {@link #resolveLskSelection}, the result is a key -> value map instead of rewritten XML,
+     * so callers can apply the values to any number of regions (or files) themselves.
+     * <p>
+     * The keys are sent as a key lookup fragment (see {@link #buildKeyLookupXml}) and read back from the rewritten
+     * fragment by attribute order. A key whose value comes back unchanged is reported as unresolved.
+     */
+    public BatchResolveResponse resolvePlaceholders(String inputModuleName, Collection<String> placeholderKeys, String sessionToken) throws IOException, IllegalArgumentException {
+        LOG.info("Calling LSK Resolve API for " + (placeholderKeys != null ? placeholderKeys.size() : 0) + " placeholder key(s).");
+
+        if (placeholderKeys == null || placeholderKeys.isEmpty()) { throw new IllegalArgumentException("Placeholder list cannot be empty for batch resolution."); }
+
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(placeholderKeys));
+        ApiResponse response = resolveLskSelection(inputModuleName, buildKeyLookupXml(keys), sessionToken);
+        if (response.getError() != null) {
+            return new BatchResolveResponse(response.getError());
+        }
+        if (response.getData() == null) {
+            throw new IOException("Backend returned no XML for the key lookup.");
+        }
+        return readKeyLookupXml(keys, response.getData(), response.getMessage());
+    }
+
+    /** Request body of {@link #resolveLskSelection}. */
+    String buildResolveRequestJson(String inputModuleName, String xmlContent) {
         Map<String, String> requestPayload = new HashMap<>();
         requestPayload.put("moduleName", inputModuleName);
         requestPayload.put("xmlContent", xmlContent);
-        String requestBodyJson = gson.toJson(requestPayload);
+        return gson.toJson(requestPayload);
+    }
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+    /**
+     * XML sent by {@link #resolvePlaceholders}: one {@code <lookup value="..."/>} element per key, in order.
+     * Every key, the target of a REF included, is declared as an LSK here, so the backend resolves it like an LSK
+     * of a selection.
+     */
+    static String buildKeyLookupXml(Collection<String> keys) {
+        StringBuilder xml = new StringBuilder(keys.size() * 64 + 24);
+        xml.append("<lookups>\n");
+        for (String key : keys) {
+            xml.append("<lookup value=\"").append(StringUtil.escapeXmlEntities(key)).append("\"/>\n");
+        }
+        return xml.append("</lookups>").toString();
+    }
 
-            HttpPost httpPost = new HttpPost(RESOLVE_ENDPOINT);
-            httpPost.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType()); httpPost.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType()); httpPost.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + sessionToken);
-            httpPost.setEntity(new StringEntity(requestBodyJson, ContentType.APPLICATION_JSON));
+    /**
+     * Maps the rewritten {@link #buildKeyLookupXml} fragment back to the keys by attribute order.
+     *
+     * @throws IOException if the backend returned a different number of attribute values than was sent.
+     */
+    static BatchResolveResponse readKeyLookupXml(List<String> keys, String resolvedXml, String message) throws IOException {
+        List<int[]> values = PlaceholderScanner.scanAttributeValues(resolvedXml, 0, resolvedXml.length());
+        if (values.size() != keys.size()) {
+            throw new IOException("Backend returned " + values.size() + " value(s) for " + keys.size() + " key(s).");
+        }
+        Map<String, String> resolved = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            String value = StringUtil.unescapeXmlEntities(resolvedXml.substring(values.get(i)[0], values.get(i)[1]));
+            if (value.isEmpty() || value.equals(key)) {
+                unresolved.add(key);
+            } else {
+                resolved.put(key, value);
+            }
+        }
+        return new BatchResolveResponse(message, resolved, unresolved);
+    }
 
-            LOG.debug("Executing POST request to {}", RESOLVE_ENDPOINT);
+    /**
+     * Prepares for the first real request: initialises JSON (de)serialisation of the DTOs and opens a
+     * keep-alive connection to the backend with a health request. Any HTTP answer counts; only the
+     * connection is of interest.
+     *
+     * @return the health request's status code
+     */
+    public int warmUp() throws IOException {
+        gson.fromJson(gson.toJson(new ApiResponse("warm-up")), ApiResponse.class);
+
+        HttpGet httpGet = new HttpGet(HEALTH_ENDPOINT);
+        httpGet.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(WARM_UP_TIMEOUT)
+                .setResponseTimeout(WARM_UP_TIMEOUT)
+                .build());
+        long startNanos = System.nanoTime();
+        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            MetricsRegistry.getInstance().recordExchange(endpointName(HEALTH_ENDPOINT), response.getCode(),
+                    System.nanoTime() - startNanos, 0, 0, false);
+            LOG.info("Backend warm-up: HTTP " + response.getCode() + " from " + HEALTH_ENDPOINT + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms.");
+            return response.getCode();
+        }
+    }
 
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getCode(); String responseBody = null; HttpEntity entity = response.getEntity();
-                if (entity != null) { try { responseBody = EntityUtils.toString(entity); } finally { EntityUtils.consumeQuietly(entity); } }
+    private static final class HttpResult {
+        final int statusCode;
+        final String body;
 
-                LOG.debug("Received response status: {}, Body: {}", statusCode, responseBody != null ? responseBody.substring(0, Math.min(responseBody.length(), 500))+"..." : "null");
+        HttpResult(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+    }
 
-                if (statusCode >= 200 && statusCode < 300) {
-                    if (responseBody != null) { try { ApiResponse apiResponse = gson.fromJson(responseBody, ApiResponse.class); if (apiResponse == null) { throw new IOException("Failed to parse successful response JSON from server."); } LOG.info("LSK resolution successful according to backend."); return apiResponse; } catch (JsonSyntaxException e) { LOG.error("Failed to parse successful response JSON: " + responseBody, e); throw new IOException("Invalid JSON format in successful response from server.", e); } } else { LOG.error("Received successful status code ({}) but empty response body from server.", String.valueOf(statusCode)); throw new IOException("Empty response body on successful status " + statusCode + " from server."); }
-                } else {
-                    String errorMsg = "LSK Resolution failed (HTTP Status: " + statusCode + ")";
-                    if (responseBody != null) { String backendError = parseErrorMessage(responseBody); if (backendError != null) { errorMsg = backendError + " (HTTP Status: " + statusCode + ")"; } else { errorMsg += " - " + responseBody.substring(0, Math.min(responseBody.length(), 200)); } }
+    /**
+     * POSTs {@code requestBodyJson} and returns the status and body.
+     * Throttled calls first take a token from the rate limiter and a slot from the adaptive concurrency limiter;
+     * a 429/503 answer pauses all throttled calls for its {@code Retry-After} time and is retried a few times.
+     * A throttled call rejected with 401 is replayed once with a token from the {@link SessionTokenRenewer}.
+     * Every attempt of an authenticated call carries the same {@code Idempotency-Key}, so the backend can
+     * recognise a replay of a request it already processed. It is {@code requestId} if given, which also
+     * correlates the attempts' {@link BackendExchangeEvent}s with the caller's {@link ResolveStageEvent}s.
+     */
+    private HttpResult post(String endpoint, String requestBodyJson, String sessionToken, boolean throttled,
+                            @Nullable String requestId) throws IOException {
+        String idempotencyKey = sessionToken == null ? null : requestId != null ? requestId : UUID.randomUUID().toString();
+        String endpointName = endpointName(endpoint);
+        long requestBytes = requestBodyJson.getBytes(StandardCharsets.UTF_8).length;
+        boolean renewed = false;
+        boolean retry = false;
+        for (int attempt = 0; ; attempt++) {
+            if (throttled) {
+                rateLimiter.acquire();
+                concurrencyLimiter.acquire();
+            }
+            BackendExchangeEvent exchangeEvent = new BackendExchangeEvent();
+            exchangeEvent.begin();
+            long startNanos = System.nanoTime();
+            AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.FAILED;
+            Long retryAfterMillis = null;
+            int statusCode = -1;
+            long responseBytes = 0;
+            HttpResult result;
+            try {
+                HttpPost httpPost = new HttpPost(endpoint);
+                httpPost.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
+                httpPost.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+                if (sessionToken != null) {
+                    httpPost.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + sessionToken);
+                    httpPost.setHeader(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+                }
+                httpPost.setEntity(new StringEntity(requestBodyJson, ContentType.APPLICATION_JSON));
+
+                LOG.debug("Executing POST request to {}", endpoint);
 
-                    LOG.warn("LSK resolution failed on backend: " + errorMsg);
-                    return new ApiResponse(errorMsg); // Return ApiResponse indicating error
+                try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                    statusCode = response.getCode();
+                    String responseBody = null;
+                    HttpEntity entity = response.getEntity();
+                    if (entity != null) {
+                        try {
+                            responseBody = EntityUtils.toString(entity);
+                            responseBytes = entity.getContentLength() >= 0 ? entity.getContentLength() : responseBody.length();
+                        } finally {
+                            EntityUtils.consumeQuietly(entity);
+                        }
+                    }
+                    if (statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+                        outcome = AdaptiveConcurrencyLimiter.Outcome.OVERLOADED;
+                        Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                        retryAfterMillis = parseRetryAfterMillis(retryAfter != null ? retryAfter.getValue() : null);
+                    } else if (statusCode >= 500) {
+                        outcome = AdaptiveConcurrencyLimiter.Outcome.OVERLOADED;
+                    } else {
+                        outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+                    }
+                    result = new HttpResult(statusCode, responseBody);
+                } catch (ParseException e) {
+                    throw new IOException("Could not read response from " + endpoint + ": " + e.getMessage(), e);
+                }
+            } finally {
+                long latencyNanos = System.nanoTime() - startNanos;
+                if (throttled) {
+                    concurrencyLimiter.release(outcome, latencyNanos);
+                }
+                MetricsRegistry.getInstance().recordExchange(endpointName, statusCode, latencyNanos, requestBytes, responseBytes, retry);
+                exchangeEvent.end();
+                if (exchangeEvent.shouldCommit()) {
+                    exchangeEvent.endpoint = endpointName;
+                    exchangeEvent.correlationId = idempotencyKey;
+                    exchangeEvent.attempt = attempt;
+                    exchangeEvent.statusCode = statusCode;
+                    exchangeEvent.requestBytes = requestBytes;
+                    exchangeEvent.responseBytes = responseBytes;
+                    exchangeEvent.commit();
+                }
+                retry = true;
+            }
+
+            SessionTokenRenewer renewer = sessionTokenRenewer;
+            if (result.statusCode == HttpStatus.SC_UNAUTHORIZED && throttled && !renewed && sessionToken != null && renewer != null) {
+                renewed = true;
+                String renewedToken = renewer.renew(sessionToken);
+                if (renewedToken == null || renewedToken.equals(sessionToken)) {
+                    return result;
                 }
+                LOG.info("Backend rejected the session token for " + endpoint + ", replaying with a renewed token.");
+                sessionToken = renewedToken;
+                attempt--; // a replay is not an overload retry
+                continue;
             }
-        } catch (IOException e) { LOG.error("IOException during HTTP request to {}: {}", RESOLVE_ENDPOINT, e.getMessage()); throw e;
-        } catch (Exception e) { LOG.error("Unexpected exception during HTTP request execution", e); throw new IOException("Unexpected error during API call: " + e.getMessage(), e); }
+            if (retryAfterMillis == null || !throttled) {
+                return result;
+            }
+            concurrencyLimiter.pauseFor(retryAfterMillis);
+            if (attempt >= MAX_OVERLOAD_RETRIES || retryAfterMillis > MAX_RETRY_AFTER_MILLIS) {
+                return result;
+            }
+            LOG.info("Backend returned HTTP " + result.statusCode + " for " + endpoint + ", retrying in " + retryAfterMillis + " ms.");
+        }
+    }
+
+    /** The endpoint's path below the API base URL, used as its name in the metrics. */
+    private static String endpointName(String endpoint) {
+        return endpoint.startsWith(API_BASE_URL) ? endpoint.substring(API_BASE_URL.length()) : endpoint;
+    }
+
+    /**
+     * Parses a {@code Retry-After} value (delay in seconds or an HTTP date).
+     *
+     * @return the delay in milliseconds, {@link #DEFAULT_RETRY_AFTER_MILLIS} if absent or unparseable.
+     */
+    static long parseRetryAfterMillis(String value) {
+        if (value == null || value.isBlank()) return DEFAULT_RETRY_AFTER_MILLIS;
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds, try HTTP-date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException e) {
+            LOG.debug("Unparseable Retry-After header: {}", value);
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+    }
+
+    /** Upper bound of the adaptive limit: more backend requests than this are never in flight at once. */
+    public int getMaxConcurrency() {
+        return MAX_CONCURRENT_REQUESTS;
+    }
+
+    /** Current adaptive limit on backend requests in flight. */
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter.getLimit();
     }
 
+    public int getRequestsInFlight() {
+        return concurrencyLimiter.getInFlight();
+    }
+
+    /** Milliseconds left of a backoff requested by the backend through {@code Retry-After}, or 0. */
+    public long getBackoffRemainingMillis() {
+        return concurrencyLimiter.getPauseRemainingMillis();
+    }
 
 
-    private String parseErrorMessage(String responseBody) {
+    String parseErrorMessage(String responseBody) {
         // If the response body is null or empty, we can't parse anything.
         if (responseBody == null || responseBody.isEmpty()) {
             LOG.debug("Cannot parse error message from null or empty response body.");
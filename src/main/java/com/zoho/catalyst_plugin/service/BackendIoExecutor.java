@@ -0,0 +1,205 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Plugin-owned executor for blocking backend I/O, so waiting on the network never occupies the IDE's shared pool
+ * (or a Netty thread of the built-in server).
+ * <p>
+ * On a runtime with virtual threads (Java 21+) every task gets its own virtual thread; otherwise tasks run on a
+ * bounded pool of daemon platform threads with a bounded queue, and submissions beyond that are rejected with a
+ * {@link RejectedExecutionException}. How many calls actually reach the backend at once is decided by the
+ * {@link ResolutionScheduler} and {@link BackendApiService}'s limits, not by this executor.
+ * Callers that work through many items a few at a time use {@link #forEach} rather than a bounded executor of
+ * their own on top of this one.
+ * Shut down when the plugin is unloaded.
+ */
+public class BackendIoExecutor implements Executor, Disposable {
+    private static final Logger LOG = Logger.getInstance(BackendIoExecutor.class);
+
+    private static final int MAX_PLATFORM_THREADS = Integer.getInteger("catalyst.lsk.io.threads", 16);
+    private static final int MAX_QUEUED_TASKS = Integer.getInteger("catalyst.lsk.io.queue", 1024);
+
+    private final ExecutorService delegate;
+    private final boolean virtualThreads;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BackendIoExecutor() {
+        ExecutorService virtual = Boolean.getBoolean("catalyst.lsk.io.noVirtualThreads") ? null : createVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        delegate = virtual != null ? virtual : createPlatformPool();
+        LOG.info("Backend I/O executor uses " + (virtualThreads ? "virtual threads." : "up to " + MAX_PLATFORM_THREADS + " platform threads."));
+    }
+
+    public static BackendIoExecutor getInstance() {
+        return ApplicationManager.getApplication().getService(BackendIoExecutor.class);
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up reflectively since the plugin is compiled for Java 17.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService createPlatformPool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "Catalyst LSK I/O " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_PLATFORM_THREADS, MAX_PLATFORM_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED_TASKS), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable task) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOG.error("Uncaught exception in backend I/O task", t);
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            LOG.warn("Backend I/O task rejected: " + (delegate.isShutdown() ? "executor is shut down." : MAX_QUEUED_TASKS + " tasks already queued."));
+            throw e;
+        }
+    }
+
+    /**
+     * Runs {@code action} for every item, on the calling thread and on up to {@code parallelism - 1} tasks of this
+     * executor, each taking the next item when done with the previous one. Returns once every item is done.
+     * <p>
+     * The calling thread always takes part and tasks that have not started by the time the items run out are
+     * skipped, so the call completes even when every thread of this executor is busy, including when the caller
+     * itself runs on one.
+     *
+     * @throws InterruptedException if interrupted; items not started yet are then dropped
+     */
+    public <T> void forEach(@NotNull Collection<? extends T> items, int parallelism, @NotNull Consumer<? super T> action) throws InterruptedException {
+        Queue<T> pending = new ConcurrentLinkedQueue<>(items);
+        Helpers helpers = new Helpers();
+        for (int i = 1; i < Math.min(parallelism, items.size()); i++) {
+            try {
+                execute(() -> {
+                    if (!helpers.join()) return;
+                    try {
+                        drain(pending, action);
+                    } finally {
+                        helpers.leave();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                break; // the calling thread and the helpers already started do the rest
+            }
+        }
+        try {
+            drain(pending, action);
+        } finally {
+            pending.clear();
+            helpers.close();
+        }
+    }
+
+    private static <T> void drain(Queue<T> pending, Consumer<? super T> action) {
+        T item;
+        while ((item = pending.poll()) != null) {
+            try {
+                action.accept(item);
+            } catch (RuntimeException e) {
+                LOG.error("Uncaught exception handling an item of a backend I/O batch", e);
+            }
+        }
+    }
+
+    /** Helper tasks of one {@link #forEach} call still at work. */
+    private static final class Helpers {
+        private int running;
+        private boolean closed;
+
+        synchronized boolean join() {
+            if (closed) return false;
+            running++;
+            return true;
+        }
+
+        synchronized void leave() {
+            running--;
+            notifyAll();
+        }
+
+        /** Turns away helpers that have not started yet and waits for the running ones. */
+        synchronized void close() throws InterruptedException {
+            closed = true;
+            while (running > 0) {
+                wait();
+            }
+        }
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** Tasks currently running. */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /** Tasks accepted but not yet started. */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void dispose() {
+        LOG.info("Shutting down backend I/O executor (" + active.get() + " active, " + queued.get() + " queued).");
+        delegate.shutdownNow();
+    }
+}
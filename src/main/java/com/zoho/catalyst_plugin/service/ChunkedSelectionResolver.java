@@ -0,0 +1,118 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.TextRange;
+import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import com.zoho.catalyst_plugin.util.ReferenceGraphValidator;
+import com.zoho.catalyst_plugin.util.XmlChunker;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves XML selections through {@link BackendApiService#resolveLskSelection}, splitting very large ones into
+ * chunks at element boundaries that are resolved concurrently and reassembled in order.
+ * <p>
+ * A REF and the LSK it references always end up in the same chunk (see {@link ReferenceGraphValidator#referenceLinks}),
+ * so the backend resolves every chunk against the LSKs it declares, exactly as it would the whole selection.
+ */
+public class ChunkedSelectionResolver {
+    private static final Logger LOG = Logger.getInstance(ChunkedSelectionResolver.class);
+
+    /** Selections smaller than this go to the backend as a single request. */
+    private static final int CHUNKING_THRESHOLD_CHARS = Integer.getInteger("catalyst.lsk.chunk.threshold", 1024 * 1024);
+    private static final int TARGET_CHUNK_CHARS = Integer.getInteger("catalyst.lsk.chunk.size", 512 * 1024);
+    private static final int MAX_PARALLEL_CHUNKS = Integer.getInteger("catalyst.lsk.chunk.parallelism", 4);
+    private static final ChunkedSelectionResolver instance = new ChunkedSelectionResolver();
+
+    private ChunkedSelectionResolver() {}
+
+    public static ChunkedSelectionResolver getInstance() {
+        return instance;
+    }
+
+    /**
+     * Same contract as {@link BackendApiService#resolveLskSelection}: the returned response carries either the
+     * resolved XML in {@code data} or an {@code error}.
+     */
+    public ApiResponse resolveSelection(@NotNull String moduleName, @NotNull String xmlContent, @NotNull String sessionToken) throws IOException {
+        BackendApiService backendService = BackendApiService.getInstance();
+        if (xmlContent.length() < CHUNKING_THRESHOLD_CHARS) {
+            return resolveInteractively(backendService, moduleName, xmlContent, sessionToken);
+        }
+
+        List<PlaceholderScanner.Placeholder> placeholders = PlaceholderScanner.scan(xmlContent);
+        List<int[]> references = new ArrayList<>();
+        for (int[] link : ReferenceGraphValidator.referenceLinks(placeholders)) {
+            references.add(new int[]{placeholders.get(link[0]).getValueStart(), placeholders.get(link[1]).getValueStart()});
+        }
+        List<TextRange> chunks = XmlChunker.split(xmlContent, TARGET_CHUNK_CHARS, references);
+        if (chunks.size() < 2 || !fitsInChunks(placeholders, chunks)) {
+            LOG.info("Selection of " + xmlContent.length() + " chars cannot be split at element boundaries; sending as one request.");
+            return resolveInteractively(backendService, moduleName, xmlContent, sessionToken);
+        }
+        LOG.info("Resolving selection of " + xmlContent.length() + " chars in " + chunks.size() + " chunks (parallelism " + MAX_PARALLEL_CHUNKS + ").");
+
+        List<Integer> chunkIndices = new ArrayList<>(chunks.size());
+        for (int c = 0; c < chunks.size(); c++) {
+            chunkIndices.add(c);
+        }
+        ApiResponse[] chunkResponses = new ApiResponse[chunks.size()];
+        AtomicReference<IOException> chunkFailure = new AtomicReference<>();
+        try {
+            BackendIoExecutor.getInstance().forEach(chunkIndices, MAX_PARALLEL_CHUNKS, c -> {
+                if (chunkFailure.get() != null) return; // another chunk failed; the result is lost anyway
+                String chunkText = chunks.get(c).substring(xmlContent);
+                try {
+                    chunkResponses[c] = resolveInteractively(backendService, moduleName, chunkText, sessionToken);
+                } catch (IOException e) {
+                    chunkFailure.compareAndSet(null, e);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Chunked resolution interrupted.", e);
+        }
+        if (chunkFailure.get() != null) {
+            throw chunkFailure.get();
+        }
+
+        StringBuilder resolvedXml = new StringBuilder(xmlContent.length());
+        int cursor = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            ApiResponse chunkResponse = chunkResponses[c];
+            if (chunkResponse.getError() != null || chunkResponse.getData() == null) {
+                String error = chunkResponse.getError() != null ? chunkResponse.getError() : "Empty result";
+                return new ApiResponse("Chunk " + (c + 1) + " of " + chunks.size() + " failed: " + error);
+            }
+            TextRange chunk = chunks.get(c);
+            resolvedXml.append(xmlContent, cursor, chunk.getStartOffset()).append(chunkResponse.getData());
+            cursor = chunk.getEndOffset();
+        }
+        resolvedXml.append(xmlContent, cursor, xmlContent.length());
+        return new ApiResponse("Resolved in " + chunks.size() + " chunks.", resolvedXml.toString());
+    }
+
+    private static ApiResponse resolveInteractively(BackendApiService backendService, String moduleName, String xml, String sessionToken) throws IOException {
+        return ResolutionScheduler.getInstance().execute(ResolutionScheduler.Priority.INTERACTIVE,
+                () -> backendService.resolveLskSelection(moduleName, xml, sessionToken));
+    }
+
+    /**
+     * @return whether every placeholder lies inside a chunk; one between chunks (e.g. on the root element's own tag)
+     * would be sent in no request, so the selection can't be split safely.
+     */
+    private static boolean fitsInChunks(List<PlaceholderScanner.Placeholder> placeholders, List<TextRange> chunks) {
+        int c = 0;
+        for (PlaceholderScanner.Placeholder placeholder : placeholders) {
+            int offset = placeholder.getValueStart();
+            while (c < chunks.size() && chunks.get(c).getEndOffset() <= offset) c++;
+            if (c == chunks.size() || chunks.get(c).getStartOffset() > offset) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,175 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.TextRange;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.ResolutionRequest;
+import com.zoho.catalyst_plugin.pipeline.ResolutionResult;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves whole XML files on disk without opening them in an editor.
+ * Files below {@link #STREAMING_THRESHOLD_BYTES} are resolved in memory with {@link PlaceholderScanner};
+ * larger ones automatically take the bounded-memory {@link StreamingXmlResolver} path.
+ * The result is written to a temporary file first and then moved over the output, so a failed run
+ * never leaves a half-written file behind.
+ * Both paths read and write a file in the encoding named by its BOM or XML declaration (UTF-8 if neither says
+ * otherwise), so the declaration stays true.
+ * Lookups are scheduled as {@link ResolutionScheduler.Priority#BULK} work.
+ */
+public class FileResolutionService {
+    private static final Logger LOG = Logger.getInstance(FileResolutionService.class);
+    private static final FileResolutionService instance = new FileResolutionService();
+
+    public static final long STREAMING_THRESHOLD_BYTES = Long.getLong("catalyst.lsk.streaming.threshold", 20L * 1024 * 1024);
+    public static final String RESOLVED_SUFFIX = ".resolved.xml";
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int PROLOG_SCAN_BYTES = 1024;
+    private static final Pattern PROLOG_ENCODING = Pattern.compile("^<\\?xml[^>]*?\\sencoding\\s*=\\s*[\"']([A-Za-z][A-Za-z0-9._-]*)[\"']");
+
+    public static final class FileResult {
+        private final Path source;
+        private final Path output;
+        private final int placeholderCount;
+        private final int replacedCount;
+        private final Set<String> keys;
+        private final Set<String> unresolvedKeys;
+        private final boolean streamed;
+
+        FileResult(Path source, Path output, int placeholderCount, int replacedCount, Set<String> keys, Set<String> unresolvedKeys, boolean streamed) {
+            this.source = source;
+            this.output = output;
+            this.placeholderCount = placeholderCount;
+            this.replacedCount = replacedCount;
+            this.keys = keys;
+            this.unresolvedKeys = unresolvedKeys;
+            this.streamed = streamed;
+        }
+
+        public Path getSource() { return source; }
+
+        public Path getOutput() { return output; }
+
+        public int getPlaceholderCount() { return placeholderCount; }
+
+        public int getReplacedCount() { return replacedCount; }
+
+        /** Distinct placeholder keys the source depends on. */
+        public Set<String> getKeys() { return keys; }
+
+        public Set<String> getUnresolvedKeys() { return unresolvedKeys; }
+
+        public boolean isStreamed() { return streamed; }
+    }
+
+    private FileResolutionService() {}
+
+    public static FileResolutionService getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return {@code <name>.resolved.xml} next to the source file.
+     */
+    public static Path defaultOutputPath(@NotNull Path source) {
+        String name = source.getFileName().toString();
+        String baseName = name.toLowerCase().endsWith(".xml") ? name.substring(0, name.length() - 4) : name;
+        return source.resolveSibling(baseName + RESOLVED_SUFFIX);
+    }
+
+    /**
+     * @return true for XML files that may contain placeholders (resolved copies are skipped).
+     */
+    public static boolean isResolvableXml(@NotNull String fileName) {
+        String lowerCase = fileName.toLowerCase();
+        return lowerCase.endsWith(".xml") && !lowerCase.endsWith(RESOLVED_SUFFIX);
+    }
+
+    /**
+     * Resolves {@code source} and writes the result to {@code output} (which may be the source itself).
+     */
+    public FileResult resolveFile(@NotNull Path source, @NotNull Path output, @NotNull String moduleName, @NotNull String sessionToken) throws IOException {
+        long size = Files.size(source);
+        Path parent = output.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(parent, ".catalyst-lsk-", ".tmp");
+        try {
+            FileResult result = size >= STREAMING_THRESHOLD_BYTES
+                    ? resolveStreaming(source, output, tempFile, moduleName, sessionToken)
+                    : resolveInMemory(source, output, tempFile, moduleName, sessionToken);
+            Files.move(tempFile, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOG.debug("Resolved {} ({} bytes, streamed: {}) into {}", source, size, result.isStreamed(), output);
+            return result;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private FileResult resolveInMemory(Path source, Path output, Path tempFile, String moduleName, String sessionToken) throws IOException {
+        byte[] bytes = Files.readAllBytes(source);
+        Charset charset = detectCharset(bytes);
+        // A strict decoder, so a file that does not match its declared encoding fails instead of being corrupted
+        String text = charset.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+        ResolutionResult result = ResolutionPipeline.getInstance().resolve(ResolutionRequest.forText(
+                moduleName, sessionToken, ResolutionScheduler.Priority.BULK, text, List.of(new TextRange(0, text.length()))));
+        List<PlaceholderScanner.Placeholder> placeholders = result.getPlaceholders();
+        Set<String> keys = PlaceholderScanner.collectKeys(placeholders);
+        Map<String, String> resolved = result.getResolved();
+
+        int replaced = 0;
+        for (PlaceholderScanner.Placeholder placeholder : placeholders) {
+            if (resolved.containsKey(placeholder.getKey())) replaced++;
+        }
+        Set<String> unresolved = new LinkedHashSet<>(keys);
+        unresolved.removeAll(resolved.keySet());
+
+        Files.writeString(tempFile, PlaceholderScanner.applyResolutions(text, 0, text.length(), placeholders, resolved), charset);
+        return new FileResult(source, output, placeholders.size(), replaced, keys, unresolved, false);
+    }
+
+    /**
+     * @return the charset of an XML file from its byte order mark or XML declaration, UTF-8 if it has neither.
+     * A UTF-16 BOM is kept in the decoded text (as U+FEFF), so it is written back unchanged.
+     */
+    static Charset detectCharset(byte[] bytes) throws IOException {
+        if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xFE && (bytes[1] & 0xFF) == 0xFF) return StandardCharsets.UTF_16BE;
+        if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xFE) return StandardCharsets.UTF_16LE;
+        int offset = bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF ? 3 : 0;
+        // The declaration itself is ASCII in every encoding this can be asked for, so decode the head as Latin-1
+        String head = new String(bytes, offset, Math.min(bytes.length - offset, PROLOG_SCAN_BYTES), StandardCharsets.ISO_8859_1);
+        Matcher matcher = PROLOG_ENCODING.matcher(head);
+        if (!matcher.find()) return StandardCharsets.UTF_8;
+        try {
+            return Charset.forName(matcher.group(1));
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new IOException("Unsupported XML encoding '" + matcher.group(1) + "'.", e);
+        }
+    }
+
+    private FileResult resolveStreaming(Path source, Path output, Path tempFile, String moduleName, String sessionToken) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile), IO_BUFFER_SIZE)) {
+            StreamingXmlResolver.Result result = StreamingXmlResolver.getInstance().resolve(
+                    () -> new BufferedInputStream(Files.newInputStream(source), IO_BUFFER_SIZE), out, moduleName, sessionToken);
+            return new FileResult(source, output, result.getPlaceholderCount(), result.getReplacedCount(), result.getKeys(), result.getUnresolvedKeys(), true);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.google.gson.Gson;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.zoho.catalyst_plugin.config.PluginConstants;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.ide.BuiltInServerManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bearer token that local scripts present to {@link LoopbackResolveService}. A new one is generated for every IDE
+ * session and written, with the built-in server's port and the endpoint path, to a file only the current user can
+ * read ({@link #getConnectionFile()}); whoever can read that file may resolve through the IDE's session.
+ */
+public final class LoopbackAccessToken {
+    private static final Logger LOG = Logger.getInstance(LoopbackAccessToken.class);
+    private static final LoopbackAccessToken instance = new LoopbackAccessToken();
+
+    private final String token;
+    private volatile boolean written;
+
+    private LoopbackAccessToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        token = HexFormat.of().formatHex(bytes);
+    }
+
+    public static LoopbackAccessToken getInstance() {
+        return instance;
+    }
+
+    public static boolean isEnabled() {
+        return !Boolean.getBoolean("catalyst.lsk.loopback.disabled");
+    }
+
+    /** {@code <IDE system dir>/catalyst-lsk/loopback-api.json}. */
+    public static Path getConnectionFile() {
+        return Paths.get(PathManager.getSystemPath(), "catalyst-lsk", "loopback-api.json");
+    }
+
+    /**
+     * Writes the connection file for this IDE session, once. Call off the EDT.
+     */
+    public void ensureWritten() {
+        if (written || !isEnabled()) return;
+        synchronized (this) {
+            if (written) return;
+            try {
+                writeConnectionFile();
+                written = true;
+            } catch (IOException e) {
+                LOG.warn("Could not write Catalyst LSK loopback API connection file: " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeConnectionFile() throws IOException {
+        Path file = getConnectionFile();
+        Files.createDirectories(file.getParent());
+        Map<String, Object> connection = new LinkedHashMap<>();
+        connection.put("url", "http://127.0.0.1:" + BuiltInServerManager.getInstance().getPort() + PluginConstants.LOOPBACK_RESOLVE_PATH);
+        connection.put("token", token);
+        connection.put("pid", ProcessHandle.current().pid());
+
+        Path tempFile = Files.createTempFile(file.getParent(), ".loopback-api-", ".tmp");
+        try {
+            try {
+                // Before the token is written, so it is never readable by others
+                Files.setPosixFilePermissions(tempFile, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ignored) {
+                // Not a POSIX file system; the IDE system directory is private to the user on Windows
+            }
+            Files.writeString(tempFile, new Gson().toJson(connection), StandardCharsets.UTF_8);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        LOG.info("Catalyst LSK loopback API connection details written to " + file);
+    }
+
+    /**
+     * @param authorization value of the request's {@code Authorization} header
+     */
+    public boolean isValid(@Nullable String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) return false;
+        byte[] presented = authorization.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
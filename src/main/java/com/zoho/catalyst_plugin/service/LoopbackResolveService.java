@@ -0,0 +1,289 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.zoho.catalyst_plugin.config.PluginConstants;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.ResolutionRequest;
+import com.zoho.catalyst_plugin.pipeline.ResolutionResult;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import com.zoho.catalyst_plugin.util.ResponseSender;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.ide.HttpRequestHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolve API on the IDE's built-in server for local scripts, pre-commit hooks and CI agents, so they reuse the
+ * IDE's session, resolution cache and backend connections instead of starting cold.
+ * <p>
+ * {@code POST} {@link PluginConstants#LOOPBACK_RESOLVE_PATH} with {@code Authorization: Bearer <token>} (see
+ * {@link LoopbackAccessToken}) and a body like
+ * <pre>
+ * {"moduleName": "Billing", "inPlace": false,
+ *  "files": ["/abs/path/a.xml", {"path": "/abs/path/b.xml", "moduleName": "Tax", "output": "/tmp/b.xml"}],
+ *  "contents": [{"id": "snippet-1", "xml": "&lt;Row ID=\"Table:ID:Billing:ROW_1\"/&gt;"}]}
+ * </pre>
+ * Files are resolved like the Resolve Files action: into {@code <name>.resolved.xml} next to them, into the
+ * source with {@code inPlace}, or into {@code output}. Contents are resolved in memory and returned.
+ * A file whose source or output has unsaved changes in an editor is refused rather than resolved from stale disk
+ * contents or overwritten underneath the editor; written outputs are refreshed in the VFS.
+ * <p>
+ * Items are resolved concurrently through the {@link ResolutionPipeline}, so keys shared between files are fetched
+ * once and small files share batch requests. The response is newline-delimited JSON, streamed as a chunked
+ * response: one line per item as soon as it is done (in completion order, identified by {@code path} or
+ * {@code id}), then a summary line with {@code "done": true}.
+ */
+public class LoopbackResolveService extends HttpRequestHandler {
+    private static final Logger LOG = Logger.getInstance(LoopbackResolveService.class);
+
+    private static final int MAX_PARALLEL_ITEMS = Integer.getInteger("catalyst.lsk.loopback.parallel", 4);
+    private static final int MAX_ITEMS = Integer.getInteger("catalyst.lsk.loopback.max.items", 5000);
+    private static final String NDJSON = "application/x-ndjson; charset=UTF-8";
+
+    private final Gson gson = new Gson();
+
+    /** One file or content item of a request. */
+    private static final class Item {
+        final String moduleName;
+        final Path source;   // file items
+        final Path output;   // file items
+        final String id;     // content items
+        final String xml;    // content items
+
+        private Item(String moduleName, Path source, Path output, String id, String xml) {
+            this.moduleName = moduleName;
+            this.source = source;
+            this.output = output;
+            this.id = id;
+            this.xml = xml;
+        }
+    }
+
+    @Override
+    public boolean isSupported(@NotNull FullHttpRequest request) {
+        return LoopbackAccessToken.isEnabled()
+                && request.method() == HttpMethod.POST
+                && new QueryStringDecoder(request.uri()).path().equals(PluginConstants.LOOPBACK_RESOLVE_PATH);
+    }
+
+    @Override
+    public boolean process(@NotNull QueryStringDecoder urlDecoder, @NotNull FullHttpRequest request, @NotNull ChannelHandlerContext context) {
+        // Browsers always send an Origin on cross-site POSTs; scripts have no reason to
+        if (request.headers().contains(HttpHeaderNames.ORIGIN)) {
+            sendError(request, context, HttpResponseStatus.FORBIDDEN, "Requests from web pages are not accepted.");
+            return true;
+        }
+        if (!LoopbackAccessToken.getInstance().isValid(request.headers().get(HttpHeaderNames.AUTHORIZATION))) {
+            LOG.warn("Rejected loopback resolve request with a missing or invalid token.");
+            sendError(request, context, HttpResponseStatus.UNAUTHORIZED,
+                    "Missing or invalid token; read it from " + LoopbackAccessToken.getConnectionFile());
+            return true;
+        }
+
+        List<Item> items;
+        try {
+            items = parseItems(request.content().toString(StandardCharsets.UTF_8));
+        } catch (JsonParseException | IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+            sendError(request, context, HttpResponseStatus.BAD_REQUEST, "Invalid request: " + e.getMessage());
+            return true;
+        }
+
+        // The request (and its possibly large body) is released when this method returns; the response only
+        // needs its headers
+        HttpRequest head = new DefaultHttpRequest(request.protocolVersion(), request.method(), request.uri(), request.headers().copy());
+        // PasswordSafe may block, so neither the token lookup nor the resolution runs on the Netty thread
+        try {
+            BackendIoExecutor.getInstance().execute(() -> {
+                String sessionToken = AuthService.getInstance().getAuthToken();
+                if (sessionToken == null) {
+                    sendError(head, context, HttpResponseStatus.SERVICE_UNAVAILABLE, "The IDE is not signed in to Catalyst LSK.");
+                    return;
+                }
+                resolveItems(items, sessionToken, ResponseSender.startChunkedResponse(head, context.channel(), HttpResponseStatus.OK, NDJSON));
+            });
+        } catch (RejectedExecutionException e) {
+            sendError(request, context, HttpResponseStatus.SERVICE_UNAVAILABLE, "The plugin is busy or shutting down; try again.");
+        }
+        return true;
+    }
+
+    private List<Item> parseItems(String body) {
+        JsonElement parsed = JsonParser.parseString(body);
+        if (!parsed.isJsonObject()) throw new IllegalArgumentException("Expected a JSON object.");
+        JsonObject json = parsed.getAsJsonObject();
+        String defaultModule = optionalString(json, "moduleName");
+        boolean inPlace = json.has("inPlace") && json.get("inPlace").getAsBoolean();
+
+        List<Item> items = new ArrayList<>();
+        for (JsonElement element : optionalArray(json, "files")) {
+            JsonObject file = element.isJsonObject() ? element.getAsJsonObject() : null;
+            String pathValue = file != null ? optionalString(file, "path") : element.getAsString();
+            if (pathValue == null) throw new IllegalArgumentException("Every file needs a path.");
+            Path source = Paths.get(pathValue);
+            if (!source.isAbsolute()) throw new IllegalArgumentException("File paths must be absolute: " + pathValue);
+            String output = file != null ? optionalString(file, "output") : null;
+            items.add(new Item(moduleOf(file, defaultModule, pathValue), source,
+                    output != null ? Paths.get(output) : inPlace ? source : FileResolutionService.defaultOutputPath(source), null, null));
+        }
+        for (JsonElement element : optionalArray(json, "contents")) {
+            if (!element.isJsonObject()) throw new IllegalArgumentException("Every content item must be an object with id and xml.");
+            JsonObject content = element.getAsJsonObject();
+            String id = optionalString(content, "id");
+            String xml = optionalString(content, "xml");
+            if (id == null || xml == null) throw new IllegalArgumentException("Every content item needs an id and xml.");
+            items.add(new Item(moduleOf(content, defaultModule, id), null, null, id, xml));
+        }
+        if (items.isEmpty()) throw new IllegalArgumentException("Nothing to resolve; pass files and/or contents.");
+        if (items.size() > MAX_ITEMS) throw new IllegalArgumentException("Too many items (" + items.size() + "); the limit is " + MAX_ITEMS + ".");
+        return items;
+    }
+
+    private static String moduleOf(@Nullable JsonObject item, @Nullable String defaultModule, String name) {
+        String module = item != null ? optionalString(item, "moduleName") : null;
+        if (module == null) module = defaultModule;
+        if (module == null || module.isBlank()) throw new IllegalArgumentException("No moduleName for " + name + ".");
+        return module;
+    }
+
+    @Nullable
+    private static String optionalString(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value != null && !value.isJsonNull() ? value.getAsString() : null;
+    }
+
+    private static JsonArray optionalArray(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        if (value == null || value.isJsonNull()) return new JsonArray();
+        if (!value.isJsonArray()) throw new IllegalArgumentException(name + " must be an array.");
+        return value.getAsJsonArray();
+    }
+
+    private void resolveItems(List<Item> items, String sessionToken, ResponseSender.ChunkedResponse response) {
+        long startNanos = System.nanoTime();
+        AtomicInteger failed = new AtomicInteger();
+        LOG.info("Loopback resolve of " + items.size() + " item(s) started.");
+
+        try {
+            BackendIoExecutor.getInstance().forEach(items, MAX_PARALLEL_ITEMS, item -> {
+                if (!response.isClientConnected()) {
+                    failed.incrementAndGet(); // client went away; skip the remaining work
+                    return;
+                }
+                Map<String, Object> line = resolveItem(item, sessionToken);
+                if (line.containsKey("error")) failed.incrementAndGet();
+                response.send(gson.toJson(line) + "\n");
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.info("Loopback resolve of " + items.size() + " item(s) interrupted.");
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("done", true);
+        summary.put("items", items.size());
+        summary.put("failed", failed.get());
+        summary.put("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        response.send(gson.toJson(summary) + "\n");
+        response.finish();
+        LOG.info("Loopback resolve of " + items.size() + " item(s) finished, " + failed.get() + " failed.");
+    }
+
+    private Map<String, Object> resolveItem(Item item, String sessionToken) {
+        try {
+            return item.source != null ? resolveFile(item, sessionToken) : resolveContent(item, sessionToken);
+        } catch (IOException | RuntimeException e) {
+            LOG.info("Loopback resolve of " + (item.source != null ? item.source : item.id) + " failed: " + e.getMessage());
+            return errorLine(item, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private Map<String, Object> resolveFile(Item item, String sessionToken) throws IOException {
+        if (!Files.isRegularFile(item.source)) throw new IOException("No such file: " + item.source);
+        for (Path path : List.of(item.source, item.output)) {
+            if (hasUnsavedChanges(path)) throw new IOException(path + " has unsaved changes in the IDE; save it and try again.");
+        }
+        FileResolutionService.FileResult result = FileResolutionService.getInstance().resolveFile(item.source, item.output, item.moduleName, sessionToken);
+        // Let open editors and the project view pick up the written file
+        LocalFileSystem.getInstance().refreshNioFiles(List.of(result.getOutput()));
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("path", item.source.toString());
+        line.put("output", result.getOutput().toString());
+        line.put("placeholders", result.getPlaceholderCount());
+        line.put("replaced", result.getReplacedCount());
+        line.put("unresolved", result.getUnresolvedKeys());
+        line.put("streamed", result.isStreamed());
+        return line;
+    }
+
+    private Map<String, Object> resolveContent(Item item, String sessionToken) throws IOException {
+        ResolutionResult result = ResolutionPipeline.getInstance().resolve(ResolutionRequest.forText(
+                item.moduleName, sessionToken, ResolutionScheduler.Priority.BULK, item.xml, List.of(new TextRange(0, item.xml.length()))));
+        List<PlaceholderScanner.Placeholder> placeholders = result.getPlaceholders();
+        Map<String, String> resolved = result.getResolved();
+        int replaced = 0;
+        for (PlaceholderScanner.Placeholder placeholder : placeholders) {
+            if (resolved.containsKey(placeholder.getKey())) replaced++;
+        }
+        Set<String> unresolved = new LinkedHashSet<>(PlaceholderScanner.collectKeys(placeholders));
+        unresolved.removeAll(resolved.keySet());
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", item.id);
+        line.put("xml", PlaceholderScanner.applyResolutions(item.xml, 0, item.xml.length(), placeholders, resolved));
+        line.put("placeholders", placeholders.size());
+        line.put("replaced", replaced);
+        line.put("unresolved", unresolved);
+        return line;
+    }
+
+    private static boolean hasUnsavedChanges(Path path) {
+        VirtualFile file = LocalFileSystem.getInstance().findFileByNioFile(path);
+        return file != null && ReadAction.compute(() -> FileDocumentManager.getInstance().isFileModified(file));
+    }
+
+    private static Map<String, Object> errorLine(Item item, String error) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put(item.source != null ? "path" : "id", item.source != null ? item.source.toString() : item.id);
+        line.put("error", error);
+        return line;
+    }
+
+    private void sendError(HttpRequest request, ChannelHandlerContext context, HttpResponseStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        ResponseSender.sendResponse(request, context.channel(), status, gson.toJson(body), "application/json; charset=UTF-8");
+    }
+}
@@ -0,0 +1,206 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.StageMetrics;
+import com.zoho.catalyst_plugin.util.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide counters for backend traffic, recorded by {@link BackendApiService}, plus a {@link #snapshot()}
+ * that also reads the current state of the scheduler, the backend limiters, the resolution pipeline, the cache
+ * and the I/O executor. Shown in the tool window's Diagnostics tab and exported from there as JSON.
+ * <p>
+ * Latency of an endpoint is measured per HTTP exchange, after the request has passed the client-side limits;
+ * time spent waiting for them shows up as scheduler wait and pipeline stage latency instead.
+ */
+public final class MetricsRegistry {
+    private static final Logger LOG = Logger.getInstance(MetricsRegistry.class);
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    /** Traffic to one backend endpoint. */
+    public static final class EndpointMetrics {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong bytesSent = new AtomicLong();
+        private final AtomicLong bytesReceived = new AtomicLong();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public long getRequestCount() { return requests.get(); }
+
+        /** Responses with status 400 or above, plus requests that failed without a response. */
+        public long getFailureCount() { return failures.get(); }
+
+        public long getRetryCount() { return retries.get(); }
+
+        public long getBytesSent() { return bytesSent.get(); }
+
+        public long getBytesReceived() { return bytesReceived.get(); }
+
+        public LatencyHistogram getLatency() { return latency; }
+
+        private void reset() {
+            requests.set(0);
+            failures.set(0);
+            retries.set(0);
+            bytesSent.set(0);
+            bytesReceived.set(0);
+            latency.reset();
+        }
+    }
+
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    public EndpointMetrics endpoint(@NotNull String name) {
+        return endpoints.computeIfAbsent(name, n -> new EndpointMetrics());
+    }
+
+    /**
+     * Records one HTTP exchange.
+     *
+     * @param statusCode the response status, or -1 if the request failed without a response
+     * @param retry      whether this was a retry or replay of an earlier attempt
+     */
+    public void recordExchange(@NotNull String endpointName, int statusCode, long latencyNanos,
+                               long requestBytes, long responseBytes, boolean retry) {
+        EndpointMetrics metrics = endpoint(endpointName);
+        metrics.requests.incrementAndGet();
+        if (statusCode < 0 || statusCode >= 400) metrics.failures.incrementAndGet();
+        if (retry) metrics.retries.incrementAndGet();
+        metrics.bytesSent.addAndGet(requestBytes);
+        metrics.bytesReceived.addAndGet(Math.max(0, responseBytes));
+        metrics.latency.record(latencyNanos);
+    }
+
+    public void reset() {
+        endpoints.values().forEach(EndpointMetrics::reset);
+        sinceMillis = System.currentTimeMillis();
+        LOG.info("Catalyst LSK metrics reset.");
+    }
+
+    /**
+     * @return all metrics as nested maps, in a stable order suitable for display and JSON export
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("takenAt", Instant.now().toString());
+        root.put("since", Instant.ofEpochMilli(sinceMillis).toString());
+
+        Map<String, Object> endpointsOut = new LinkedHashMap<>();
+        endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            EndpointMetrics m = entry.getValue();
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("requests", m.getRequestCount());
+            e.put("failures", m.getFailureCount());
+            e.put("retries", m.getRetryCount());
+            e.put("bytesSent", m.getBytesSent());
+            e.put("bytesReceived", m.getBytesReceived());
+            e.put("latencyP50Millis", round(m.latency.getPercentileMillis(0.50)));
+            e.put("latencyP95Millis", round(m.latency.getPercentileMillis(0.95)));
+            e.put("latencyP99Millis", round(m.latency.getPercentileMillis(0.99)));
+            e.put("latencyMeanMillis", round(m.latency.getMeanMillis()));
+            e.put("latencyMaxMillis", round(m.latency.getMaxMillis()));
+            endpointsOut.put(entry.getKey(), e);
+        });
+        root.put("endpoints", endpointsOut);
+
+        // The client-side "breaker": AIMD concurrency limit and any Retry-After pause the backend asked for
+        BackendApiService backend = BackendApiService.getInstance();
+        Map<String, Object> limits = new LinkedHashMap<>();
+        limits.put("concurrencyLimit", backend.getConcurrencyLimit());
+        limits.put("inFlight", backend.getRequestsInFlight());
+        limits.put("backoffRemainingMillis", backend.getBackoffRemainingMillis());
+        limits.put("state", backend.getBackoffRemainingMillis() > 0 ? "PAUSED" : "OPEN");
+        root.put("backendLimits", limits);
+
+        ResolutionScheduler scheduler = ResolutionScheduler.getInstance();
+        Map<String, Object> schedulerOut = new LinkedHashMap<>();
+        for (ResolutionScheduler.Priority priority : ResolutionScheduler.Priority.values()) {
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("queued", scheduler.getQueueDepth(priority));
+            p.put("running", scheduler.getRunningCount(priority));
+            p.put("admitted", scheduler.getAdmittedCount(priority));
+            p.put("rejected", scheduler.getRejectedCount(priority));
+            p.put("avgWaitMillis", round(scheduler.getAverageWaitMillis(priority)));
+            p.put("maxWaitMillis", scheduler.getMaxWaitMillis(priority));
+            schedulerOut.put(priority.name(), p);
+        }
+        root.put("scheduler", schedulerOut);
+
+        ResolutionPipeline pipeline = ResolutionPipeline.getInstance();
+        Map<String, Object> pipelineOut = new LinkedHashMap<>();
+        pipelineOut.put("intakeBacklog", pipeline.getIntakeBacklog());
+        for (StageMetrics stage : pipeline.getStageMetrics()) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("received", stage.getReceivedCount());
+            s.put("emitted", stage.getEmittedCount());
+            s.put("backlog", stage.getBacklog());
+            s.put("avgLatencyMillis", round(stage.getAverageLatencyMillis()));
+            s.put("maxLatencyMillis", round(stage.getMaxLatencyMillis()));
+            s.put("throughputPerSecond", round(stage.getThroughputPerSecond()));
+            pipelineOut.put(stage.getName(), s);
+        }
+        root.put("pipeline", pipelineOut);
+
+        ResolutionCache cache = ResolutionCache.getInstance();
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        Map<String, Object> cacheOut = new LinkedHashMap<>();
+        cacheOut.put("entries", cache.size());
+        cacheOut.put("hits", hits);
+        cacheOut.put("misses", misses);
+        cacheOut.put("hitRatio", hits + misses == 0 ? 0 : round((double) hits / (hits + misses)));
+        root.put("cache", cacheOut);
+
+        if (ApplicationManager.getApplication() != null) {
+            BackendIoExecutor io = BackendIoExecutor.getInstance();
+            Map<String, Object> ioOut = new LinkedHashMap<>();
+            ioOut.put("virtualThreads", io.isUsingVirtualThreads());
+            ioOut.put("active", io.getActiveCount());
+            ioOut.put("queued", io.getQueuedCount());
+            ioOut.put("completed", io.getCompletedCount());
+            ioOut.put("rejected", io.getRejectedCount());
+            root.put("ioExecutor", ioOut);
+        }
+        return root;
+    }
+
+    public String snapshotAsJson() {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        return gson.toJson(snapshot());
+    }
+
+    public void exportSnapshot(@NotNull Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(snapshotAsJson());
+        }
+        LOG.info("Catalyst LSK metrics snapshot written to " + file);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
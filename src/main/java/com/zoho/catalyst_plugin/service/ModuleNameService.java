@@ -0,0 +1,91 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives the Catalyst module name of a file from its project-relative path
+ * ({@code <root>/.../<module>/conf/...} -> {@code <module>}) and caches it per file. The headless bulk resolver
+ * uses the same {@link #moduleNameOf} rule, so both agree on the module of a file.
+ * <p>
+ * Entries are dropped by {@link com.zoho.catalyst_plugin.listeners.ModuleNameCacheListener} when a file or one of
+ * its parent directories is moved, renamed or deleted, and all of them when the project root changes.
+ */
+public final class ModuleNameService {
+    private static final Logger LOG = Logger.getInstance(ModuleNameService.class);
+
+    // Cached for files that lie outside any module, since a map cannot hold null
+    private static final String NO_MODULE = "";
+
+    private final Project project;
+    private final Map<VirtualFile, String> moduleByFile = new ConcurrentHashMap<>();
+    // Root announced through ProjectInfoListener; null means the project's base path
+    @Nullable private volatile String rootPath;
+
+    public ModuleNameService(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static ModuleNameService getInstance(@NotNull Project project) {
+        return project.getService(ModuleNameService.class);
+    }
+
+    /**
+     * @return the module the file belongs to, or null if it is not at least two directories below the project root
+     */
+    @Nullable
+    public String getModuleName(@Nullable VirtualFile file) {
+        if (file == null) return null;
+        String cached = moduleByFile.get(file);
+        if (cached == null) {
+            String root = rootPath != null ? rootPath : project.getBasePath();
+            if (root == null) return null; // not cached: the base path may not be known yet
+            String moduleName = moduleNameOf(root, file.getPath());
+            cached = moduleName != null ? moduleName : NO_MODULE;
+            moduleByFile.put(file, cached);
+        }
+        return cached.equals(NO_MODULE) ? null : cached;
+    }
+
+    /**
+     * @return the module of the file at {@code filePath} below {@code root}: the directory holding the first
+     *         {@code conf} directory on its path, or for a file in no {@code conf} directory the second directory
+     *         below the root; null if it lies outside any module (including a {@code conf} directly in the root)
+     */
+    @Nullable
+    public static String moduleNameOf(@NotNull String root, @NotNull String filePath) {
+        String relativePath = FileUtil.getRelativePath(FileUtil.toSystemIndependentName(root), FileUtil.toSystemIndependentName(filePath), '/');
+        if (relativePath == null || relativePath.startsWith("..")) return null;
+        String[] pathDirectories = relativePath.split("/");
+        for (int i = 0; i < pathDirectories.length - 1; i++) {
+            if (pathDirectories[i].equals("conf")) return i > 0 ? pathDirectories[i - 1] : null;
+        }
+        return pathDirectories.length > 2 && !pathDirectories[1].isEmpty() ? pathDirectories[1] : null;
+    }
+
+    /**
+     * Forgets the file, or every cached file below it if it is a directory.
+     */
+    public void invalidate(@NotNull VirtualFile file) {
+        if (moduleByFile.isEmpty()) return;
+        if (!file.isDirectory()) {
+            moduleByFile.remove(file);
+            return;
+        }
+        moduleByFile.keySet().removeIf(cached -> VfsUtilCore.isAncestor(file, cached, false));
+    }
+
+    public void projectRootChanged(@Nullable String newRootPath) {
+        LOG.info("Project root changed to " + newRootPath + ", dropping " + moduleByFile.size() + " cached module name(s).");
+        rootPath = newRootPath;
+        moduleByFile.clear();
+    }
+}
@@ -8,6 +8,7 @@ import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.messages.MessageBus;
 import com.zoho.catalyst_plugin.config.PluginConstants;
 import com.zoho.catalyst_plugin.dto.AuthResponse;
@@ -26,7 +27,7 @@ import org.jetbrains.ide.HttpRequestHandler;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Handles the HTTP callback from the GitHub OAuth flow, running on the IDE's built-in server.
@@ -37,12 +38,15 @@ import java.util.concurrent.atomic.AtomicReference;
 public class OAuthCallbackService extends HttpRequestHandler {
 
     private static final Logger LOG = Logger.getInstance(OAuthCallbackService.class);
-    private static final AtomicReference<String> pendingOAuthState = new AtomicReference<>(null);
-
-    public static void setPendingState(@Nullable String state) {
-        LOG.debug("Setting pending OAuth state: {}", (state != null ? state.substring(0, Math.min(state.length(), 10)) + "..." : "null"));
-        pendingOAuthState.set(state);
-    }
+    private static final String HTML = "text/html; charset=UTF-8";
+    // Fixed pages are encoded once and served from a shared buffer
+    private static final ResponseSender.StaticContent INCORRECT_PATH_PAGE = ResponseSender.staticContent("<html><body>Incorrect callback path.</body></html>", HTML);
+    private static final ResponseSender.StaticContent UNKNOWN_STATE_PAGE = ResponseSender.staticContent("<html><body>Security error: Unknown or expired sign-in request. Please try signing in again. You can close this page.</body></html>", HTML);
+    private static final ResponseSender.StaticContent MISSING_CODE_PAGE = ResponseSender.staticContent("<html><body>Error: Authorization code missing. You can close this page.</body></html>", HTML);
+    private static final ResponseSender.StaticContent BUSY_PAGE = ResponseSender.staticContent("<html><body>Sign-in could not be completed right now. Please try again. You can close this page.</body></html>", HTML);
+    private static final ResponseSender.StaticContent SUCCESS_PAGE = ResponseSender.staticContent("<html><body>Sign-in successful! You can close this page.</body></html>", HTML);
+    private static final ResponseSender.StaticContent TOKEN_FAILURE_PAGE = ResponseSender.staticContent("<html><body>Sign-in failed (token processing). Please try again or contact support. You can close this page.</body></html>", HTML);
+    private static final ResponseSender.StaticContent BACKEND_FAILURE_PAGE = ResponseSender.staticContent("<html><body>Sign-in failed (backend communication). Please try again or contact support. You can close this page.</body></html>", HTML);
 
     @Override
     public boolean isSupported(@NotNull FullHttpRequest request) {
@@ -70,7 +74,7 @@ public class OAuthCallbackService extends HttpRequestHandler {
         if (!urlDecoder.path().equals(expectedPath)) {
             LOG.warn("Request path mismatch. Expected: {}, Got: {}"+ expectedPath+ urlDecoder.path());
             if (request.uri().startsWith(expectedPath)) {
-                sendResponse(request, context, HttpResponseStatus.NOT_FOUND, "<html><body>Incorrect callback path.</body></html>");
+                sendResponse(request, context, HttpResponseStatus.NOT_FOUND, INCORRECT_PATH_PAGE);
                 return true;
             } else {
                 return false;
@@ -84,28 +88,24 @@ public class OAuthCallbackService extends HttpRequestHandler {
         String error = getParameter(parameters, "error");
         String errorDescription = getParameter(parameters, "error_description");
 
+        // --- State Validation ---
+        // Consumed even when GitHub reports an error, so the flow cannot be completed twice
+        OAuthStateRegistry.PendingSignIn pendingSignIn = OAuthStateRegistry.getInstance().consume(receivedState);
+        Project project = pendingSignIn != null ? pendingSignIn.getProject() : null;
+
         // --- Error Handling from GitHub ---
         if (error != null) {
             String errorMsg = "GitHub OAuth Error: " + error + (errorDescription != null ? " - " + errorDescription : "");
             LOG.warn(errorMsg);
-            setPendingState(null);
-            showNotification(NotificationType.ERROR, "GitHub Sign-In Failed", errorMsg);
-            sendResponse(request, context, HttpResponseStatus.BAD_REQUEST, "<html><body>"+errorMsg+" You can close this page.</body></html>");
+            showNotification(project, NotificationType.ERROR, "GitHub Sign-In Failed", errorMsg);
+            sendResponse(request, context, HttpResponseStatus.BAD_REQUEST, "<html><body>" + StringUtil.escapeXmlEntities(errorMsg) + " You can close this page.</body></html>");
             return true;
         }
 
-        // --- State Validation ---
-        String expectedState = pendingOAuthState.getAndSet(null);
-        if (expectedState == null) {
-            LOG.error("OAuth callback received, but no pending state was found.");
-            showNotification(NotificationType.ERROR, "Sign-In Error", "Security state mismatch (no pending state). Please try signing in again.");
-            sendResponse(request, context, HttpResponseStatus.FORBIDDEN, "<html><body>Security error: No pending state. Please try signing in again. You can close this page.</body></html>");
-            return true;
-        }
-        if (!expectedState.equals(receivedState)) {
-            LOG.error("OAuth callback state mismatch! Expected: '{}', Received: '{}'.", expectedState, receivedState);
-            showNotification(NotificationType.ERROR, "Sign-In Error", "Security state validation failed. Please try signing in again.");
-            sendResponse(request, context, HttpResponseStatus.FORBIDDEN, "<html><body>Security error: State mismatch. Please try signing in again. You can close this page.</body></html>");
+        if (pendingSignIn == null) {
+            LOG.error("OAuth callback received with an unknown, already used or expired state.");
+            showNotification(null, NotificationType.ERROR, "Sign-In Error", "Security state validation failed. Please try signing in again.");
+            sendResponse(request, context, HttpResponseStatus.FORBIDDEN, UNKNOWN_STATE_PAGE);
             return true;
         }
         LOG.info("OAuth state validated successfully.");
@@ -113,12 +113,34 @@ public class OAuthCallbackService extends HttpRequestHandler {
         // --- Code Validation ---
         if (receivedCode == null || receivedCode.trim().isEmpty()) {
             LOG.error("OAuth callback successful state validation, but no authorization code received.");
-            showNotification(NotificationType.ERROR, "Sign-In Error", "Authorization code missing in GitHub response.");
-            sendResponse(request, context, HttpResponseStatus.BAD_REQUEST, "<html><body>Error: Authorization code missing. You can close this page.</body></html>");
+            showNotification(project, NotificationType.ERROR, "Sign-In Error", "Authorization code missing in GitHub response.");
+            sendResponse(request, context, HttpResponseStatus.BAD_REQUEST, MISSING_CODE_PAGE);
             return true;
         }
 
         // --- Exchange Code and Store Token ---
+        // The exchange is a blocking backend call; run it off the built-in server's Netty thread and answer the
+        // browser from there. The request is retained until the response has been written.
+        request.retain();
+        try {
+            BackendIoExecutor.getInstance().execute(() -> {
+                try {
+                    exchangeCodeAndRespond(project, receivedCode, request, context);
+                } finally {
+                    request.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            request.release();
+            LOG.warn("Could not schedule GitHub code exchange: " + e.getMessage());
+            showNotification(project, NotificationType.ERROR, "Sign-In Failed", "The plugin is busy or shutting down. Please try signing in again.");
+            sendResponse(request, context, HttpResponseStatus.SERVICE_UNAVAILABLE, BUSY_PAGE);
+        }
+
+        return true; // Handled
+    }
+
+    private void exchangeCodeAndRespond(@Nullable Project project, @NotNull String receivedCode, @NotNull FullHttpRequest request, @NotNull ChannelHandlerContext context) {
         try {
             LOG.info("Exchanging GitHub code for backend token...");
             BackendApiService backendService = BackendApiService.getInstance();
@@ -126,34 +148,32 @@ public class OAuthCallbackService extends HttpRequestHandler {
 
             if (authResponse != null && authResponse.getToken() != null && !authResponse.getToken().isEmpty()) {
                 // Store the token FIRST
-                AuthService.getInstance().storeAuthToken(authResponse.getToken());
+                AuthService.getInstance().storeAuthToken(authResponse.getToken(), authResponse.getExpiresIn());
                 LOG.info("Successfully exchanged code and stored auth token.");
 
                 // --- Publish event AFTER storing token ---
                 publishAuthChangeEvent();
 
                 // Show success notification and respond to browser
-                showNotification(NotificationType.INFORMATION, "Sign-In Successful", "Catalyst LSK Plugin successfully signed in.");
-                sendResponse(request, context, HttpResponseStatus.OK, "<html><body>Sign-in successful! You can close this page.</body></html>");
+                showNotification(project, NotificationType.INFORMATION, "Sign-In Successful", "Catalyst LSK Plugin successfully signed in.");
+                sendResponse(request, context, HttpResponseStatus.OK, SUCCESS_PAGE);
 
             } else {
                 // Handle case where backend call succeeded but no token was returned
                 String errMsg = "Sign-in failed: Backend did not return a valid token.";
                 if (authResponse != null && authResponse.getMessage() != null) { errMsg += " Message: " + authResponse.getMessage(); }
                 LOG.error(errMsg + " AuthResponse: {}"+ authResponse);
-                showNotification(NotificationType.ERROR, "Sign-In Failed", errMsg);
-                sendResponse(request, context, HttpResponseStatus.INTERNAL_SERVER_ERROR, "<html><body>Sign-in failed (token processing). Please try again or contact support. You can close this page.</body></html>");
+                showNotification(project, NotificationType.ERROR, "Sign-In Failed", errMsg);
+                sendResponse(request, context, HttpResponseStatus.INTERNAL_SERVER_ERROR, TOKEN_FAILURE_PAGE);
                 // Optionally publish failure?
                 // publishAuthChangeEvent();
             }
 
         } catch (Exception e) { // Catch errors from backendService.exchangeGitHubCode
             LOG.error("Failed to exchange GitHub code with backend", e);
-            showNotification(NotificationType.ERROR, "Sign-In Failed", "Could not connect to backend or process response: " + e.getMessage());
-            sendResponse(request, context, HttpResponseStatus.INTERNAL_SERVER_ERROR, "<html><body>Sign-in failed (backend communication). Please try again or contact support. You can close this page.</body></html>");
+            showNotification(project, NotificationType.ERROR, "Sign-In Failed", "Could not connect to backend or process response: " + e.getMessage());
+            sendResponse(request, context, HttpResponseStatus.INTERNAL_SERVER_ERROR, BACKEND_FAILURE_PAGE);
         }
-
-        return true; // Handled
     }
 
     // --- Helper methods ---
@@ -164,14 +184,24 @@ public class OAuthCallbackService extends HttpRequestHandler {
     }
 
     private void sendResponse(@NotNull FullHttpRequest req, @NotNull ChannelHandlerContext ctx, HttpResponseStatus status, String content) {
-        ResponseSender.sendResponse(req, ctx, status, content, "text/html; charset=UTF-8");
+        ResponseSender.sendResponse(req, ctx, status, content, HTML);
     }
 
-    private void showNotification(NotificationType type, String title, String content) {
+    private void sendResponse(@NotNull FullHttpRequest req, @NotNull ChannelHandlerContext ctx, HttpResponseStatus status, ResponseSender.StaticContent content) {
+        ResponseSender.sendResponse(req, ctx, status, content);
+    }
+
+    /**
+     * @param target the project that started the sign-in; if unknown or closed, the first open project
+     */
+    private void showNotification(@Nullable Project target, NotificationType type, String title, String content) {
         ApplicationManager.getApplication().invokeLater(() -> {
-            Project project = ProjectManager.getInstance().getDefaultProject();
-            Project[] openProjects = ProjectManager.getInstance().getOpenProjects();
-            if (openProjects.length > 0) { project = openProjects[0]; }
+            Project project = target;
+            if (project == null || project.isDisposed()) {
+                project = ProjectManager.getInstance().getDefaultProject();
+                Project[] openProjects = ProjectManager.getInstance().getOpenProjects();
+                if (openProjects.length > 0) { project = openProjects[0]; }
+            }
             Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, title, content, type), project);
             LOG.debug("Showing notification: [{}] {} - {}", type, title, content);
         });
@@ -0,0 +1,84 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth {@code state} values of sign-in flows waiting for their GitHub callback, each with the project that
+ * started it. Several flows (different projects, or a notification and the Tools menu) can be pending at once;
+ * each callback consumes exactly its own state.
+ */
+public final class OAuthStateRegistry {
+    private static final Logger LOG = Logger.getInstance(OAuthStateRegistry.class);
+    private static final OAuthStateRegistry instance = new OAuthStateRegistry();
+
+    private static final long STATE_TTL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("catalyst.lsk.oauth.state.ttl.millis", 10 * 60_000));
+
+    /** A sign-in flow waiting for its callback. */
+    public static final class PendingSignIn {
+        private final WeakReference<Project> project;
+        private final long expiresAtNanos;
+
+        private PendingSignIn(@Nullable Project project, long expiresAtNanos) {
+            this.project = new WeakReference<>(project);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        /** The project that started the flow, or null if it has been closed since. */
+        @Nullable
+        public Project getProject() {
+            Project p = project.get();
+            return p != null && !p.isDisposed() ? p : null;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos > 0;
+        }
+    }
+
+    private final ConcurrentMap<String, PendingSignIn> pending = new ConcurrentHashMap<>();
+
+    private OAuthStateRegistry() {}
+
+    public static OAuthStateRegistry getInstance() {
+        return instance;
+    }
+
+    public void register(@NotNull String state, @Nullable Project project) {
+        long now = System.nanoTime();
+        // Abandoned flows are dropped here; removeIf on a ConcurrentHashMap does not block other callers
+        pending.values().removeIf(entry -> entry.isExpired(now));
+        pending.put(state, new PendingSignIn(project, now + STATE_TTL_NANOS));
+        LOG.debug("Registered OAuth state, {} sign-in flow(s) pending.", pending.size());
+    }
+
+    /**
+     * Removes and returns the flow the state belongs to.
+     *
+     * @return null if the state is unknown, was already used, or has expired.
+     */
+    @Nullable
+    public PendingSignIn consume(@Nullable String state) {
+        if (state == null) return null;
+        PendingSignIn entry = pending.remove(state);
+        if (entry == null) return null;
+        if (entry.isExpired(System.nanoTime())) {
+            LOG.info("OAuth state expired before the callback arrived.");
+            return null;
+        }
+        return entry;
+    }
+
+    /** Forgets a flow that could not be started. */
+    public void cancel(@NotNull String state) {
+        pending.remove(state);
+    }
+}
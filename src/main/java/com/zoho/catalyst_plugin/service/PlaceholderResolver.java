@@ -0,0 +1,83 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.zoho.catalyst_plugin.dto.BatchResolveResponse;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.ResolutionRequest;
+import com.zoho.catalyst_plugin.pipeline.ResolutionResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache-first, batched resolution of placeholder keys.
+ * Keys already in the {@link ResolutionCache} are served locally; the remaining ones are fetched from
+ * the backend in as few batch requests as possible and written back to the cache.
+ * Lookups run through the shared {@link ResolutionPipeline}; its network stage calls {@link #fetch}, which goes
+ * through the {@link ResolutionScheduler} with the caller's priority.
+ */
+public class PlaceholderResolver {
+    private static final Logger LOG = Logger.getInstance(PlaceholderResolver.class);
+    private static final PlaceholderResolver instance = new PlaceholderResolver();
+
+    private PlaceholderResolver() {}
+
+    public static PlaceholderResolver getInstance() {
+        return instance;
+    }
+
+    /**
+     * Resolves the given keys, blocking until they are settled.
+     *
+     * @return values for every key that could be resolved; keys missing from the result are unresolvable.
+     * @throws IOException if the backend could not be reached or reported an error.
+     */
+    public Map<String, String> resolve(@NotNull String moduleName, @NotNull Collection<String> placeholderKeys, @NotNull String sessionToken,
+                                       @NotNull ResolutionScheduler.Priority priority) throws IOException {
+        if (placeholderKeys.isEmpty()) return new HashMap<>();
+        ResolutionResult result = ResolutionPipeline.getInstance()
+                .resolve(ResolutionRequest.forKeys(moduleName, sessionToken, priority, placeholderKeys));
+        return new HashMap<>(result.getResolved());
+    }
+
+    /**
+     * @return the cached values of {@code placeholderKeys}, never contacting the backend.
+     */
+    public Map<String, String> resolveCached(@NotNull String moduleName, @NotNull Collection<String> placeholderKeys) {
+        return ResolutionCache.getInstance().getAll(moduleName, placeholderKeys);
+    }
+
+    /**
+     * Sends one batch of uncached keys to the backend and records the outcome in the cache.
+     * Only the pipeline's network stage should call this; everything else goes through {@link #resolve}.
+     */
+    public Map<String, String> fetch(@NotNull String moduleName, @NotNull List<String> batch, @NotNull String sessionToken,
+                                     @NotNull ResolutionScheduler.Priority priority) throws IOException {
+        BatchResolveResponse response = ResolutionScheduler.getInstance().execute(priority,
+                () -> BackendApiService.getInstance().resolvePlaceholders(moduleName, batch, sessionToken));
+        if (response.getError() != null) {
+            throw new IOException(response.getError());
+        }
+        Map<String, String> resolved = response.getResolved() != null ? response.getResolved() : Collections.emptyMap();
+        ResolutionCache cache = ResolutionCache.getInstance();
+        cache.putAll(moduleName, resolved);
+
+        List<String> unresolved = new ArrayList<>();
+        for (String key : batch) {
+            if (!resolved.containsKey(key)) {
+                unresolved.add(key);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            cache.markUnresolved(moduleName, unresolved);
+        }
+        LOG.debug("Fetched {} key(s) for module '{}' at {} priority, {} unresolved.", batch.size(), moduleName, priority, unresolved.size());
+        return new HashMap<>(resolved);
+    }
+}
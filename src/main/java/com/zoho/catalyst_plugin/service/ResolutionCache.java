@@ -0,0 +1,208 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, application-wide cache of resolved placeholder values, keyed by module and placeholder key.
+ * Bounded (least-recently-used entries are evicted) and also remembers keys the backend reported as
+ * unresolvable for a short time, so background jobs don't ask for the same unknown key over and over.
+ * <p>
+ * Every invalidation (explicit, a changed backend value, or {@link #clear()}) bumps a generation counter, so
+ * callers that remember {@link #getGeneration()} can later ask whether any of their keys changed since.
+ */
+public class ResolutionCache {
+    private static final Logger LOG = Logger.getInstance(ResolutionCache.class);
+    private static final ResolutionCache instance = new ResolutionCache();
+
+    private static final int MAX_ENTRIES = 50_000;
+    private static final int MAX_UNRESOLVED_ENTRIES = 10_000;
+    private static final long UNRESOLVED_TTL_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final int MAX_TRACKED_INVALIDATIONS = 10_000;
+
+    private final Map<String, String> resolved = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<String, Long> unresolvedUntil = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_UNRESOLVED_ENTRIES;
+        }
+    };
+
+    // cache key -> generation of its last invalidation; insertion order is invalidation order
+    private final Map<String, Long> invalidatedAt = new LinkedHashMap<>(256);
+    private final AtomicLong generation = new AtomicLong();
+    // invalidations at or below this generation are no longer tracked per key (cleared or evicted)
+    private volatile long untrackedThrough;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private ResolutionCache() {}
+
+    public static ResolutionCache getInstance() {
+        return instance;
+    }
+
+    private static String cacheKey(@NotNull String moduleName, @NotNull String placeholderKey) {
+        return moduleName + '\u0000' + placeholderKey;
+    }
+
+    @Nullable
+    public String get(@NotNull String moduleName, @NotNull String placeholderKey) {
+        String value;
+        synchronized (resolved) {
+            value = resolved.get(cacheKey(moduleName, placeholderKey));
+        }
+        (value != null ? hits : misses).incrementAndGet();
+        return value;
+    }
+
+    /**
+     * @return the cached subset of {@code placeholderKeys}; keys missing from the result were not cached.
+     */
+    public Map<String, String> getAll(@NotNull String moduleName, @NotNull Collection<String> placeholderKeys) {
+        Map<String, String> result = new HashMap<>();
+        synchronized (resolved) {
+            for (String key : placeholderKeys) {
+                String value = resolved.get(cacheKey(moduleName, key));
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+        hits.addAndGet(result.size());
+        misses.addAndGet(placeholderKeys.size() - result.size());
+        return result;
+    }
+
+    public void putAll(@NotNull String moduleName, @NotNull Map<String, String> values) {
+        synchronized (resolved) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    String cacheKey = cacheKey(moduleName, entry.getKey());
+                    String previous = resolved.put(cacheKey, entry.getValue());
+                    if (previous != null && !previous.equals(entry.getValue())) {
+                        recordInvalidation(cacheKey);
+                    }
+                }
+            }
+        }
+        synchronized (unresolvedUntil) {
+            for (String key : values.keySet()) {
+                unresolvedUntil.remove(cacheKey(moduleName, key));
+            }
+        }
+        LOG.debug("Cached {} resolved placeholder(s) for module '{}'.", values.size(), moduleName);
+    }
+
+    /**
+     * Remembers that the backend could not resolve these keys, so they are not requested again for a while.
+     */
+    public void markUnresolved(@NotNull String moduleName, @NotNull Collection<String> placeholderKeys) {
+        long until = System.nanoTime() + UNRESOLVED_TTL_NANOS;
+        synchronized (unresolvedUntil) {
+            for (String key : placeholderKeys) {
+                unresolvedUntil.put(cacheKey(moduleName, key), until);
+            }
+        }
+    }
+
+    public boolean isKnownUnresolved(@NotNull String moduleName, @NotNull String placeholderKey) {
+        String cacheKey = cacheKey(moduleName, placeholderKey);
+        synchronized (unresolvedUntil) {
+            Long until = unresolvedUntil.get(cacheKey);
+            if (until == null) return false;
+            if (until - System.nanoTime() > 0) return true;
+            unresolvedUntil.remove(cacheKey);
+            return false;
+        }
+    }
+
+    public void invalidate(@NotNull String moduleName, @NotNull String placeholderKey) {
+        String cacheKey = cacheKey(moduleName, placeholderKey);
+        synchronized (resolved) {
+            resolved.remove(cacheKey);
+        }
+        synchronized (unresolvedUntil) {
+            unresolvedUntil.remove(cacheKey);
+        }
+        recordInvalidation(cacheKey);
+    }
+
+    public void clear() {
+        synchronized (resolved) {
+            resolved.clear();
+        }
+        synchronized (unresolvedUntil) {
+            unresolvedUntil.clear();
+        }
+        synchronized (invalidatedAt) {
+            invalidatedAt.clear();
+            untrackedThrough = generation.incrementAndGet();
+        }
+        LOG.info("Resolution cache cleared.");
+    }
+
+    private void recordInvalidation(String cacheKey) {
+        synchronized (invalidatedAt) {
+            invalidatedAt.remove(cacheKey);
+            invalidatedAt.put(cacheKey, generation.incrementAndGet());
+            if (invalidatedAt.size() > MAX_TRACKED_INVALIDATIONS) {
+                Iterator<Map.Entry<String, Long>> eldest = invalidatedAt.entrySet().iterator();
+                untrackedThrough = eldest.next().getValue();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the current invalidation generation; pass it to {@link #isInvalidatedSince} later.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return true if any of {@code placeholderKeys} may have been invalidated after {@code sinceGeneration}.
+     * Errs on the side of true once the per-key history for that generation is no longer available.
+     */
+    public boolean isInvalidatedSince(@NotNull String moduleName, @NotNull Collection<String> placeholderKeys, long sinceGeneration) {
+        if (generation.get() <= sinceGeneration) return false;
+        synchronized (invalidatedAt) {
+            if (untrackedThrough > sinceGeneration) return true;
+            for (String key : placeholderKeys) {
+                Long invalidated = invalidatedAt.get(cacheKey(moduleName, key));
+                if (invalidated != null && invalidated > sinceGeneration) return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        synchronized (resolved) {
+            return resolved.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,206 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.xmlb.annotations.XCollection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-project record of every file resolved by the bulk file action: the source's timestamp, length and
+ * content hash, the module it was resolved for, the placeholder keys it depends on and the output written.
+ * A rerun consults it to skip files whose source, output and keys are all unchanged since the last run.
+ * <p>
+ * Entries are marked dirty by {@link com.zoho.catalyst_plugin.listeners.ResolutionManifestListener} on VFS events;
+ * key changes are detected through {@link ResolutionCache#isInvalidatedSince}. The manifest is stored in the
+ * IDE's project cache directory, not in {@code .idea}.
+ */
+@State(name = "CatalystResolutionManifest", storages = @Storage(StoragePathMacros.CACHE_FILE))
+public class ResolutionManifest implements PersistentStateComponent<ResolutionManifest.ManifestState> {
+    private static final Logger LOG = Logger.getInstance(ResolutionManifest.class);
+
+    public static class Entry {
+        public String path;
+        public String output;
+        public String moduleName;
+        public long timestamp;
+        public long length;
+        public String hash;
+        public long outputTimestamp;
+        public boolean complete;
+        @XCollection(style = XCollection.Style.v2)
+        public List<String> keys = new ArrayList<>();
+    }
+
+    public static class ManifestState {
+        @XCollection(style = XCollection.Style.v2)
+        public List<Entry> entries = new ArrayList<>();
+    }
+
+    // All guarded by "this"
+    private final Map<String, Entry> entriesByPath = new HashMap<>();
+    private final Set<String> dirtyPaths = new HashSet<>();
+    // ResolutionCache generation each entry was resolved at; not persisted, cache generations restart with the IDE
+    private final Map<String, Long> generationByPath = new HashMap<>();
+
+    public static ResolutionManifest getInstance(@NotNull Project project) {
+        return project.getService(ResolutionManifest.class);
+    }
+
+    @Override
+    public synchronized ManifestState getState() {
+        ManifestState state = new ManifestState();
+        state.entries.addAll(entriesByPath.values());
+        return state;
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull ManifestState state) {
+        entriesByPath.clear();
+        dirtyPaths.clear();
+        generationByPath.clear();
+        for (Entry entry : state.entries) {
+            if (entry.path == null || entry.output == null) continue;
+            entriesByPath.put(entry.path, entry);
+        }
+        LOG.info("Loaded resolution manifest with " + entriesByPath.size() + " entries.");
+    }
+
+    /**
+     * Fast check that touches no file contents: VFS timestamp and length, the output's modification time and
+     * the in-memory key invalidation log. Files with unresolved keys are never considered up to date.
+     */
+    public boolean isUpToDate(@NotNull VirtualFile file, @NotNull String moduleName, @NotNull Path output) {
+        Entry entry;
+        long generation;
+        synchronized (this) {
+            entry = entriesByPath.get(file.getPath());
+            if (entry == null || dirtyPaths.contains(entry.path)) return false;
+            generation = generationByPath.getOrDefault(entry.path, 0L);
+        }
+        return entry.timestamp == file.getTimeStamp()
+                && entry.length == file.getLength()
+                && isUnchanged(entry, moduleName, output, generation);
+    }
+
+    /**
+     * Slow check for files whose timestamp changed (e.g. touched or saved without edits): compares content hashes.
+     * On a match the entry is refreshed so the next run takes the fast path again.
+     */
+    public boolean isContentUnchanged(@NotNull VirtualFile file, @NotNull String moduleName, @NotNull Path output) {
+        Entry entry;
+        long generation;
+        synchronized (this) {
+            entry = entriesByPath.get(file.getPath());
+            if (entry == null) return false;
+            generation = generationByPath.getOrDefault(entry.path, 0L);
+        }
+        if (!isUnchanged(entry, moduleName, output, generation)) return false;
+        String hash = hash(file.toNioPath());
+        if (hash == null || !hash.equals(entry.hash)) return false;
+        synchronized (this) {
+            entry.timestamp = file.getTimeStamp();
+            entry.length = file.getLength();
+            dirtyPaths.remove(entry.path);
+        }
+        return true;
+    }
+
+    private static boolean isUnchanged(Entry entry, String moduleName, Path output, long generation) {
+        if (!entry.complete || !moduleName.equals(entry.moduleName) || !output.toString().equals(entry.output)) return false;
+        if (ResolutionCache.getInstance().isInvalidatedSince(moduleName, entry.keys, generation)) return false;
+        try {
+            return Files.getLastModifiedTime(output).toMillis() == entry.outputTimestamp;
+        } catch (IOException e) {
+            return false; // Output missing
+        }
+    }
+
+    /**
+     * Records a successful resolution of {@code file}. {@code generation} is the {@link ResolutionCache#getGeneration()}
+     * read before the file was resolved, so invalidations that race with the run still mark it stale.
+     */
+    public void record(@NotNull VirtualFile file, @NotNull String moduleName, @NotNull FileResolutionService.FileResult result, long generation) {
+        Entry entry = new Entry();
+        entry.path = file.getPath();
+        entry.output = result.getOutput().toString();
+        entry.moduleName = moduleName;
+        entry.timestamp = file.getTimeStamp();
+        entry.length = file.getLength();
+        entry.hash = hash(result.getSource());
+        entry.complete = result.getUnresolvedKeys().isEmpty();
+        entry.keys = new ArrayList<>(result.getKeys());
+        try {
+            entry.outputTimestamp = Files.getLastModifiedTime(result.getOutput()).toMillis();
+        } catch (IOException e) {
+            LOG.warn("Could not read timestamp of " + result.getOutput() + ": " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            entriesByPath.put(entry.path, entry);
+            generationByPath.put(entry.path, generation);
+            dirtyPaths.remove(entry.path);
+        }
+    }
+
+    /**
+     * Marks the entry of source file {@code path} dirty. Changes to outputs need no event, they are caught by
+     * the output timestamp check.
+     */
+    public synchronized void markDirty(@NotNull String path) {
+        if (entriesByPath.containsKey(path)) {
+            dirtyPaths.add(path);
+        }
+    }
+
+    /**
+     * Drops the entry of source file {@code path}, e.g. after it was deleted or moved.
+     */
+    public synchronized void forget(@NotNull String path) {
+        entriesByPath.remove(path);
+        dirtyPaths.remove(path);
+        generationByPath.remove(path);
+    }
+
+    public synchronized int size() {
+        return entriesByPath.size();
+    }
+
+    @Nullable
+    private static String hash(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOG.warn("Could not hash " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control in front of {@link BackendApiService}. Every backend call is made through
+ * {@link #execute} with a {@link Priority}; the call runs on the caller's thread once a slot is free.
+ * <ul>
+ *     <li>Higher priorities are admitted first; within a priority, callers are served in arrival order.</li>
+ *     <li>Each priority has its own concurrency limit and bounded queue. A few slots are reserved for
+ *     {@link Priority#INTERACTIVE}, so a Resolve click never waits behind background or bulk work.</li>
+ *     <li>Waiting callers age: every {@link #AGING_MILLIS} spent queued counts as one priority level,
+ *     so a steady stream of prefetches cannot starve bulk or sync work forever.</li>
+ * </ul>
+ * The total is further capped by the backend's adaptive concurrency limit, so queued work waits here, in
+ * priority order, rather than inside {@link BackendApiService}.
+ * Limits can be tuned with the {@code catalyst.lsk.scheduler.*} system properties.
+ */
+public class ResolutionScheduler {
+    private static final Logger LOG = Logger.getInstance(ResolutionScheduler.class);
+
+    public enum Priority {
+        INTERACTIVE(Integer.MAX_VALUE, 64),
+        EDITOR_PREFETCH(2, 16),
+        BULK(3, 256),
+        SYNC(1, 16);
+
+        private final int maxConcurrent;
+        private final int maxQueued;
+
+        Priority(int maxConcurrent, int maxQueued) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+        }
+    }
+
+    @FunctionalInterface
+    public interface BackendCall<T> {
+        T call() throws IOException;
+    }
+
+    private static final int MAX_CONCURRENT = Integer.getInteger("catalyst.lsk.scheduler.concurrency", 6);
+    private static final int INTERACTIVE_RESERVED = Integer.getInteger("catalyst.lsk.scheduler.interactive.reserved", 2);
+    private static final long AGING_MILLIS = Long.getLong("catalyst.lsk.scheduler.aging.millis", 2000);
+    private static final long SLOW_ADMISSION_MILLIS = 1000;
+    private static final ResolutionScheduler instance = new ResolutionScheduler();
+
+    private static final class Ticket {
+        final Priority priority;
+        final long enqueuedNanos;
+        boolean admitted;
+
+        Ticket(Priority priority, long enqueuedNanos) {
+            this.priority = priority;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private static final class ClassStats {
+        final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+        int running;
+        long admitted;
+        long rejected;
+        long totalWaitNanos;
+        long maxWaitNanos;
+    }
+
+    private final int maxConcurrent;
+    private final int interactiveReserved;
+    private final long agingMillis;
+    private final IntSupplier backendLimit;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition admittedCondition = lock.newCondition();
+    private final Map<Priority, ClassStats> stats = new EnumMap<>(Priority.class);
+    private int running;
+
+    private ResolutionScheduler() {
+        this(MAX_CONCURRENT, INTERACTIVE_RESERVED, AGING_MILLIS, () -> BackendApiService.getInstance().getConcurrencyLimit(), System::nanoTime);
+    }
+
+    /**
+     * For tests.
+     *
+     * @param backendLimit the backend's current concurrency limit, an upper bound on top of {@code maxConcurrent}
+     * @param nanoClock    replaces {@link System#nanoTime()} for waiting times and aging
+     */
+    ResolutionScheduler(int maxConcurrent, int interactiveReserved, long agingMillis, IntSupplier backendLimit, LongSupplier nanoClock) {
+        this.maxConcurrent = maxConcurrent;
+        this.interactiveReserved = interactiveReserved;
+        this.agingMillis = agingMillis;
+        this.backendLimit = backendLimit;
+        this.nanoClock = nanoClock;
+        for (Priority priority : Priority.values()) {
+            stats.put(priority, new ClassStats());
+        }
+    }
+
+    public static ResolutionScheduler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Waits for a slot of the given priority, then runs {@code call} on the current thread.
+     *
+     * @throws IOException if the priority's queue is full, the wait was interrupted, or {@code call} failed.
+     */
+    public <T> T execute(@NotNull Priority priority, @NotNull BackendCall<T> call) throws IOException {
+        Ticket ticket = admit(priority);
+        try {
+            return call.call();
+        } finally {
+            release(ticket);
+        }
+    }
+
+    private Ticket admit(Priority priority) throws IOException {
+        Ticket ticket = new Ticket(priority, nanoClock.getAsLong());
+        lock.lock();
+        try {
+            ClassStats classStats = stats.get(priority);
+            if (classStats.queue.size() >= priority.maxQueued) {
+                classStats.rejected++;
+                throw new IOException("Too many pending " + priority + " resolutions (" + priority.maxQueued + " queued).");
+            }
+            classStats.queue.addLast(ticket);
+            dispatch();
+            while (!ticket.admitted) {
+                try {
+                    admittedCondition.await();
+                } catch (InterruptedException e) {
+                    if (ticket.admitted) {
+                        releaseLocked(ticket);
+                    } else {
+                        classStats.queue.remove(ticket);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a " + priority + " resolution slot.");
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - ticket.enqueuedNanos);
+        if (waitedMillis >= SLOW_ADMISSION_MILLIS) {
+            LOG.debug("{} resolution waited {} ms for a slot.", priority, waitedMillis);
+        }
+        return ticket;
+    }
+
+    private void release(Ticket ticket) {
+        lock.lock();
+        try {
+            releaseLocked(ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(Ticket ticket) {
+        running--;
+        stats.get(ticket.priority).running--;
+        dispatch();
+    }
+
+    /**
+     * Admits queued tickets while capacity allows, always picking the eligible queue head with the best aged priority.
+     */
+    private void dispatch() {
+        boolean admittedAny = false;
+        while (true) {
+            long now = nanoClock.getAsLong();
+            Ticket next = pickNext(now);
+            if (next == null) break;
+            ClassStats classStats = stats.get(next.priority);
+            classStats.queue.removeFirst();
+            classStats.running++;
+            running++;
+            long waitNanos = now - next.enqueuedNanos;
+            classStats.admitted++;
+            classStats.totalWaitNanos += waitNanos;
+            classStats.maxWaitNanos = Math.max(classStats.maxWaitNanos, waitNanos);
+            next.admitted = true;
+            admittedAny = true;
+        }
+        if (admittedAny) {
+            admittedCondition.signalAll();
+        }
+    }
+
+    @Nullable
+    private Ticket pickNext(long nowNanos) {
+        // Never admit more than the backend currently sustains (see AdaptiveConcurrencyLimiter)
+        int capacity = Math.min(maxConcurrent, backendLimit.getAsInt());
+        if (running >= capacity) return null;
+        boolean backgroundCapacity = running < Math.max(1, capacity - interactiveReserved);
+        Ticket best = null;
+        long bestRank = Long.MAX_VALUE;
+        for (Priority priority : Priority.values()) {
+            ClassStats classStats = stats.get(priority);
+            Ticket head = classStats.queue.peekFirst();
+            if (head == null || classStats.running >= priority.maxConcurrent) continue;
+            if (priority != Priority.INTERACTIVE && !backgroundCapacity) continue;
+            long agedLevels = TimeUnit.NANOSECONDS.toMillis(nowNanos - head.enqueuedNanos) / agingMillis;
+            long rank = priority.ordinal() - agedLevels;
+            if (rank < bestRank) {
+                best = head;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    // --- Metrics ---
+
+    public int getQueueDepth(@NotNull Priority priority) {
+        lock.lock();
+        try {
+            return stats.get(priority).queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRunningCount(@NotNull Priority priority) {
+        lock.lock();
+        try {
+            return stats.get(priority).running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAdmittedCount(@NotNull Priority priority) {
+        lock.lock();
+        try {
+            return stats.get(priority).admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount(@NotNull Priority priority) {
+        lock.lock();
+        try {
+            return stats.get(priority).rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getAverageWaitMillis(@NotNull Priority priority) {
+        lock.lock();
+        try {
+            ClassStats classStats = stats.get(priority);
+            return classStats.admitted == 0 ? 0 : classStats.totalWaitNanos / 1_000_000.0 / classStats.admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxWaitMillis(@NotNull Priority priority) {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(stats.get(priority).maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.zoho.catalyst_plugin.config.PluginConstants;
+import com.zoho.catalyst_plugin.dto.AuthResponse;
+import com.zoho.catalyst_plugin.listeners.AuthenticationListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps the backend session alive without sending the user through the browser sign-in again.
+ * <p>
+ * The stored token is renewed in the background shortly before it expires. Requests that still get a 401
+ * ask {@link #renew} for a new token through {@link BackendApiService.SessionTokenRenewer}; concurrent callers
+ * share a single refresh call, and a token another caller already replaced is answered without one.
+ * <p>
+ * Refreshing relies on the backend's {@code /auth/refresh} endpoint (see {@link BackendApiService}). If the backend
+ * turns out not to have one, background refreshes stop and the first rejected token is signed out, so the user
+ * re-authenticates through the browser instead.
+ */
+public class SessionTokenRefresher implements Disposable {
+    private static final Logger LOG = Logger.getInstance(SessionTokenRefresher.class);
+
+    // Renew this long before expiry, or after 80% of the lifetime for short-lived tokens
+    private static final long REFRESH_LEAD_MILLIS = Long.getLong("catalyst.lsk.session.refresh.lead.millis", 5 * 60_000);
+    private static final long RENEW_TIMEOUT_MILLIS = 30_000;
+    // After a failed refresh, 401s for the same token are not retried for this long
+    private static final long FAILED_REFRESH_BACKOFF_MILLIS = 60_000;
+
+    // All guarded by "this"
+    @Nullable private CompletableFuture<String> refreshInFlight;
+    @Nullable private ScheduledFuture<?> scheduledRefresh;
+    @Nullable private String failedToken;
+    private long failedAtMillis;
+    @Nullable private String renewedFrom;
+    @Nullable private String renewedTo;
+    @Nullable private String signedOutToken;
+    // Set once the backend answered the refresh call with 404/405
+    private volatile boolean refreshUnsupported;
+
+    public SessionTokenRefresher() {
+        BackendApiService.getInstance().setSessionTokenRenewer(this::renew);
+        ApplicationManager.getApplication().getMessageBus().connect(this)
+                .subscribe(AuthenticationListener.TOPIC, this::scheduleRefresh);
+        scheduleRefresh();
+    }
+
+    public static SessionTokenRefresher getInstance() {
+        return ApplicationManager.getApplication().getService(SessionTokenRefresher.class);
+    }
+
+    /**
+     * (Re)schedules the background refresh for the stored token's expiry. Does nothing if no token is stored
+     * or its expiry is unknown; such tokens are only renewed when the backend rejects them.
+     * <p>
+     * Runs on the EDT for sign-in events, so it only reads the expiry from the properties, never the credential
+     * store: signing out clears the expiry along with the token.
+     */
+    public synchronized void scheduleRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+        long expiresAt = AuthService.getInstance().getTokenExpiresAt();
+        if (expiresAt <= 0 || refreshUnsupported) return;
+
+        long now = System.currentTimeMillis();
+        long lead = Math.min(REFRESH_LEAD_MILLIS, Math.max(0, (expiresAt - now) / 5));
+        long delay = Math.max(0, expiresAt - lead - now);
+        LOG.info("Session token expires in " + (expiresAt - now) / 1000 + " s, refreshing in " + delay / 1000 + " s.");
+        scheduledRefresh = AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            try {
+                BackendIoExecutor.getInstance().execute(this::refreshInBackground);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Could not start background session refresh: " + e.getMessage());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshInBackground() {
+        String token = AuthService.getInstance().getAuthToken();
+        if (token != null && renew(token, false) == null && !refreshUnsupported) {
+            LOG.warn("Background session refresh failed; the token will be renewed again when the backend rejects it.");
+        }
+    }
+
+    /**
+     * Returns a token to use instead of {@code rejectedToken}, refreshing the session if nobody has yet.
+     * Blocks until the refresh completes.
+     *
+     * @return the new token, or null if the session could not be renewed (the user has to sign in again).
+     */
+    @Nullable
+    public String renew(@NotNull String rejectedToken) {
+        return renew(rejectedToken, true);
+    }
+
+    /**
+     * @param rejected whether the backend rejected the token; only then is it signed out when the backend cannot
+     *                 refresh sessions
+     */
+    @Nullable
+    private String renew(@NotNull String rejectedToken, boolean rejected) {
+        CompletableFuture<String> refresh;
+        boolean owner = false;
+        // Read the credential store outside the lock, which scheduleRefresh takes on the EDT
+        String current = AuthService.getInstance().getAuthToken();
+        if (current == null) return null;
+        if (!current.equals(rejectedToken)) return current; // already turned over by another caller
+        if (refreshUnsupported) {
+            if (rejected) signOut(rejectedToken);
+            return null;
+        }
+        synchronized (this) {
+            if (rejectedToken.equals(renewedFrom)) return renewedTo; // turned over since we read the store
+            if (rejectedToken.equals(failedToken) && System.currentTimeMillis() - failedAtMillis < FAILED_REFRESH_BACKOFF_MILLIS) {
+                return null;
+            }
+            if (refreshInFlight == null) {
+                refreshInFlight = new CompletableFuture<>();
+                owner = true;
+            }
+            refresh = refreshInFlight;
+        }
+
+        if (owner) {
+            String newToken = null;
+            try {
+                AuthResponse response = BackendApiService.getInstance().refreshSessionToken(rejectedToken);
+                if (response == null) {
+                    // Not a failure of this token: no backoff, the user has to sign in again
+                    refreshUnsupported = true;
+                    LOG.warn("Backend cannot refresh sessions; falling back to signing in again.");
+                } else {
+                    newToken = response.getToken();
+                    AuthService.getInstance().storeAuthToken(newToken, response.getExpiresIn());
+                    synchronized (this) {
+                        renewedFrom = rejectedToken;
+                        renewedTo = newToken;
+                    }
+                    LOG.info("Session token refreshed.");
+                }
+            } catch (Exception e) {
+                LOG.warn("Session token refresh failed: " + e.getMessage());
+                synchronized (this) {
+                    failedToken = rejectedToken;
+                    failedAtMillis = System.currentTimeMillis();
+                }
+            } finally {
+                synchronized (this) {
+                    refreshInFlight = null;
+                }
+                refresh.complete(newToken);
+            }
+            if (newToken != null) scheduleRefresh();
+            if (refreshUnsupported && rejected) signOut(rejectedToken);
+        }
+
+        try {
+            return refresh.get(RENEW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Clears the rejected token and asks the user to sign in again; once per token however many requests it failed.
+     */
+    private void signOut(@NotNull String rejectedToken) {
+        synchronized (this) {
+            if (rejectedToken.equals(signedOutToken)) return;
+            signedOutToken = rejectedToken;
+        }
+        if (!rejectedToken.equals(AuthService.getInstance().getAuthToken())) return; // signed in again meanwhile
+        AuthService.getInstance().clearAuthToken();
+        ApplicationManager.getApplication().invokeLater(() -> {
+            ApplicationManager.getApplication().getMessageBus().syncPublisher(AuthenticationListener.TOPIC).authenticationStateChanged();
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Sign In Required",
+                    "Your session has expired. Please sign in again.", NotificationType.WARNING));
+        }, ModalityState.nonModal());
+    }
+
+    @Override
+    public synchronized void dispose() {
+        BackendApiService.getInstance().setSessionTokenRenewer(null);
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import org.jetbrains.annotations.NotNull;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PSI-free resolver for very large XML files. The input is streamed twice with StAX:
+ * <ol>
+ *     <li>placeholder attributes are located and their keys resolved in batches through {@link PlaceholderResolver}
+ *     (cache first),</li>
+ *     <li>the document's text is copied to the output with only the placeholder attribute values replaced.</li>
+ * </ol>
+ * Memory use is bounded by the number of distinct placeholder keys, not by the file size.
+ * The copy is byte for byte the input apart from the replaced values, in the input's own encoding.
+ */
+public class StreamingXmlResolver {
+    private static final Logger LOG = Logger.getInstance(StreamingXmlResolver.class);
+    private static final StreamingXmlResolver instance = new StreamingXmlResolver();
+
+    private static final int KEYS_PER_BATCH = 500;
+    private static final int BLOCK_CHARS = 64 * 1024;
+    private static final int PROLOG_BYTES = 1024;
+
+    /** Re-openable input; the file is read once per pass. */
+    public interface InputSource {
+        InputStream open() throws IOException;
+    }
+
+    public static final class Result {
+        private final int placeholderCount;
+        private final int replacedCount;
+        private final Set<String> keys;
+        private final Set<String> unresolvedKeys;
+
+        Result(int placeholderCount, int replacedCount, Set<String> keys, Set<String> unresolvedKeys) {
+            this.placeholderCount = placeholderCount;
+            this.replacedCount = replacedCount;
+            this.keys = keys;
+            this.unresolvedKeys = unresolvedKeys;
+        }
+
+        public int getPlaceholderCount() { return placeholderCount; }
+
+        public int getReplacedCount() { return replacedCount; }
+
+        /** Distinct placeholder keys found in the input. */
+        public Set<String> getKeys() { return keys; }
+
+        public Set<String> getUnresolvedKeys() { return unresolvedKeys; }
+    }
+
+    private StreamingXmlResolver() {}
+
+    public static StreamingXmlResolver getInstance() {
+        return instance;
+    }
+
+    public Result resolve(@NotNull InputSource input, @NotNull OutputStream output,
+                          @NotNull String moduleName, @NotNull String sessionToken) throws IOException {
+        Map<String, String> resolved = new HashMap<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        int placeholderCount = collectAndResolve(input, moduleName, sessionToken, resolved, unresolved);
+        int replacedCount = writePatchedCopy(input, output, resolved);
+        LOG.info("Streamed resolution finished: " + replacedCount + " of " + placeholderCount + " placeholder(s) replaced, "
+                + unresolved.size() + " unresolved key(s).");
+        Set<String> keys = new LinkedHashSet<>(resolved.keySet());
+        keys.addAll(unresolved);
+        return new Result(placeholderCount, replacedCount, keys, unresolved);
+    }
+
+    private int collectAndResolve(InputSource input, String moduleName, String sessionToken,
+                                  Map<String, String> resolved, Set<String> unresolved) throws IOException {
+        int placeholderCount = 0;
+        Set<String> pending = new LinkedHashSet<>();
+        try (InputStream in = input.open()) {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        String key = PlaceholderScanner.keyOf(reader.getAttributeValue(i));
+                        if (key == null) continue;
+                        placeholderCount++;
+                        if (!resolved.containsKey(key) && !unresolved.contains(key) && pending.add(key) && pending.size() >= KEYS_PER_BATCH) {
+                            resolveBatch(moduleName, sessionToken, pending, resolved, unresolved);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XML: " + e.getMessage(), e);
+        }
+        if (!pending.isEmpty()) {
+            resolveBatch(moduleName, sessionToken, pending, resolved, unresolved);
+        }
+        return placeholderCount;
+    }
+
+    private void resolveBatch(String moduleName, String sessionToken, Set<String> pending,
+                              Map<String, String> resolved, Set<String> unresolved) throws IOException {
+        Map<String, String> batch = PlaceholderResolver.getInstance().resolve(moduleName, pending, sessionToken, ResolutionScheduler.Priority.BULK);
+        resolved.putAll(batch);
+        for (String key : pending) {
+            if (!batch.containsKey(key)) unresolved.add(key);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Copies the input to {@code output} character by character in the input's own encoding (see
+     * {@link FileResolutionService#detectCharset}), replacing only the values of resolved placeholder attributes.
+     * Declaration, formatting, entities, CDATA and quoting stay exactly as they were.
+     * <p>
+     * The text is handled in blocks that end after the last complete piece of markup, so no tag, comment or CDATA
+     * section is split between two blocks; memory is bounded by the block size and the largest such piece.
+     */
+    static int writePatchedCopy(InputSource input, OutputStream output, Map<String, String> resolved) throws IOException {
+        Charset charset;
+        try (InputStream in = input.open()) {
+            charset = FileResolutionService.detectCharset(in.readNBytes(PROLOG_BYTES));
+        }
+        int replacedCount = 0;
+        // Strict coders, so a file that does not match its declared encoding fails instead of being corrupted
+        try (Reader reader = new InputStreamReader(input.open(), charset.newDecoder())) {
+            Writer writer = new OutputStreamWriter(output, charset.newEncoder());
+            char[] buffer = new char[BLOCK_CHARS];
+            StringBuilder pending = new StringBuilder();
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                pending.append(buffer, 0, read);
+                int complete = completeMarkupEnd(pending);
+                if (complete == 0 && pending.length() >= buffer.length) {
+                    buffer = new char[buffer.length * 2]; // one huge comment or CDATA section; read it in fewer passes
+                }
+                replacedCount += writePatched(pending, complete, writer, resolved);
+                pending.delete(0, complete);
+            }
+            replacedCount += writePatched(pending, pending.length(), writer, resolved);
+            writer.flush(); // the caller owns and closes the output
+        }
+        return replacedCount;
+    }
+
+    private static int writePatched(CharSequence text, int end, Writer writer, Map<String, String> resolved) throws IOException {
+        if (end == 0) return 0;
+        List<PlaceholderScanner.Placeholder> placeholders = PlaceholderScanner.scan(text, 0, end);
+        int replacedCount = 0;
+        for (PlaceholderScanner.Placeholder placeholder : placeholders) {
+            if (resolved.containsKey(placeholder.getKey())) replacedCount++;
+        }
+        writer.write(PlaceholderScanner.applyResolutions(text, 0, end, placeholders, resolved));
+        return replacedCount;
+    }
+
+    /**
+     * @return the offset just after the last tag, comment, CDATA section or processing instruction that is complete
+     * in {@code text}, i.e. where a construct that continues past the end of {@code text} starts.
+     * Constructs are recognised the same way {@link PlaceholderScanner} does.
+     */
+    static int completeMarkupEnd(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (text.charAt(i) != '<') {
+                i++;
+                continue;
+            }
+            int end;
+            if (startsWith(text, i, "<!--")) {
+                end = indexAfter(text, i + 4, "-->");
+            } else if (startsWith(text, i, "<![CDATA[")) {
+                end = indexAfter(text, i + 9, "]]>");
+            } else if (startsWith(text, i, "<?")) {
+                end = indexAfter(text, i + 2, "?>");
+            } else if (i + 1 < length && (text.charAt(i + 1) == '/' || text.charAt(i + 1) == '!')) {
+                end = indexAfter(text, i + 2, ">");
+            } else {
+                end = startTagEnd(text, i + 1);
+            }
+            if (end < 0) return i;
+            i = end;
+        }
+        return length;
+    }
+
+    /** @return the offset after the {@code '>'} closing a start tag, honouring quoted values, or -1 if it is not in {@code text}. */
+    private static int startTagEnd(CharSequence text, int from) {
+        char quote = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** @return the offset after the first {@code terminator} at or after {@code from}, or -1 if there is none. */
+    private static int indexAfter(CharSequence text, int from, String terminator) {
+        for (int i = from; i <= text.length() - terminator.length(); i++) {
+            if (startsWith(text, i, terminator)) return i + terminator.length();
+        }
+        return -1;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Seed files are data only: never resolve external entities or DTDs
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
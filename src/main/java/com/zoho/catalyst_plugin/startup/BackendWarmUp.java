@@ -0,0 +1,105 @@
+package com.zoho.catalyst_plugin.startup;
+
+import com.intellij.ide.PowerSaveMode;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.service.AuthService;
+import com.zoho.catalyst_plugin.service.BackendApiService;
+import com.zoho.catalyst_plugin.service.BackendIoExecutor;
+import com.zoho.catalyst_plugin.service.ResolutionManifest;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pays the one-time costs of the first Resolve in the background shortly after the project opens: loading the
+ * session token, class initialisation of the resolution pipeline and JSON mapping, loading the project's
+ * resolution manifest, and a keep-alive connection to the backend.
+ * <p>
+ * Skipped in power-save mode, cancelled when power-save mode is switched on or the project closes.
+ */
+public class BackendWarmUp implements Disposable {
+    private static final Logger LOG = Logger.getInstance(BackendWarmUp.class);
+
+    private static final long WARM_UP_DELAY_MILLIS = Long.getLong("catalyst.lsk.warmup.delay.millis", 5000);
+
+    private final Project project;
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> scheduled; // guarded by "this"
+
+    public BackendWarmUp(@NotNull Project project) {
+        this.project = project;
+        ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(PowerSaveMode.TOPIC, new PowerSaveMode.Listener() {
+            @Override
+            public void powerSaveStateChanged() {
+                if (PowerSaveMode.isEnabled()) cancel();
+            }
+        });
+    }
+
+    public static BackendWarmUp getInstance(@NotNull Project project) {
+        return project.getService(BackendWarmUp.class);
+    }
+
+    /**
+     * Schedules the warm-up after a short delay, so it does not compete with the rest of project opening.
+     */
+    public synchronized void schedule() {
+        if (cancelled || scheduled != null) return;
+        if (PowerSaveMode.isEnabled() || Boolean.getBoolean("catalyst.lsk.warmup.disabled")) {
+            LOG.info("Skipping Catalyst LSK warm-up" + (PowerSaveMode.isEnabled() ? " in power-save mode." : "."));
+            return;
+        }
+        scheduled = AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            try {
+                BackendIoExecutor.getInstance().execute(this::warmUp);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Warm-up not started: {}", e.getMessage());
+            }
+        }, WARM_UP_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        if (scheduled != null) scheduled.cancel(false);
+        LOG.debug("Catalyst LSK warm-up cancelled.");
+    }
+
+    private void warmUp() {
+        long startNanos = System.nanoTime();
+        try {
+            if (isCancelled()) return;
+            String token = AuthService.getInstance().getAuthToken();
+
+            if (isCancelled()) return;
+            ResolutionPipeline.getInstance();
+            ResolutionManifest.getInstance(project).size();
+
+            // Without a session there is nothing to resolve, so no reason to talk to the backend yet
+            if (isCancelled() || token == null) return;
+            BackendApiService.getInstance().warmUp();
+        } catch (Exception e) {
+            // The first real request will simply pay the cost itself
+            LOG.info("Catalyst LSK warm-up could not reach the backend: " + e.getMessage());
+        } finally {
+            LOG.info("Catalyst LSK warm-up finished in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms"
+                    + (cancelled ? " (cancelled)." : "."));
+        }
+    }
+
+    private boolean isCancelled() {
+        return cancelled || project.isDisposed() || PowerSaveMode.isEnabled();
+    }
+
+    @Override
+    public void dispose() {
+        cancel();
+    }
+}
@@ -1,6 +1,5 @@
 package com.zoho.catalyst_plugin.startup;
 
-import com.intellij.ide.BrowserUtil;
 import com.intellij.ide.util.PropertiesComponent;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationType;
@@ -12,20 +11,16 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.startup.ProjectActivity;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.ide.BuiltInServerManager;
 
 import com.zoho.catalyst_plugin.config.PluginConstants;
 import com.zoho.catalyst_plugin.service.AuthService;
-import com.zoho.catalyst_plugin.service.OAuthCallbackService;
+import com.zoho.catalyst_plugin.service.LoopbackAccessToken;
+import com.zoho.catalyst_plugin.service.SessionTokenRefresher;
+import com.zoho.catalyst_plugin.util.AuthHelper;
 
 import kotlin.Unit;
 import kotlin.coroutines.Continuation;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
-import java.util.Base64;
-
 /**
  * Runs once per project after the project is initialized.
  * Implements ProjectActivity as required by postStartupActivity.
@@ -39,21 +34,44 @@ public class PluginStartupActivity implements ProjectActivity {
 
     /**
      * The main execution method for ProjectActivity, matching the suspend function signature.
-     * Since our logic here is synchronous, we add the Continuation parameter but don't
-     * directly use it. We return null (equivalent to Unit for synchronous Java impl).
+     * Nothing here blocks project opening: the credential check (PasswordSafe) and everything depending on it
+     * run on a pooled thread, and the activity returns immediately. We return null (equivalent to Unit).
      */
     @Nullable
     @Override
     public Object execute(@NotNull Project project, @NotNull Continuation<? super Unit> continuation) {
+        long startNanos = System.nanoTime();
         LOG.info("Catalyst LSK Plugin startup activity running for project: " + project.getName());
 
-        AuthService authService = AuthService.getInstance();
+        AuthService.getInstance().isSignedInAsync().whenComplete((isSignedIn, error) -> {
+            try {
+                if (error != null) {
+                    LOG.warn("Could not check sign-in state on startup: " + error.getMessage());
+                } else if (!project.isDisposed()) {
+                    onSignInStateKnown(project, isSignedIn);
+                }
+            } finally {
+                StartupMetrics.recordCredentialCheck(System.nanoTime() - startNanos);
+            }
+        });
+
+        StartupMetrics.recordActivity(System.nanoTime() - startNanos);
+        return null;
+    }
+
+    private void onSignInStateKnown(@NotNull Project project, boolean isSignedIn) {
+        // Starts renewing the stored session token ahead of its expiry
+        SessionTokenRefresher.getInstance();
+        // Makes the first Resolve as fast as later ones
+        BackendWarmUp.getInstance(project).schedule();
+        // Lets local scripts find and authenticate to the loopback resolve API
+        LoopbackAccessToken.getInstance().ensureWritten();
         PropertiesComponent propertiesComponent = PropertiesComponent.getInstance(project);
 
         // Conditions to show the prompt:
         // 1. User is not currently signed in.
         // 2. We haven't already shown this prompt for this specific project.
-        if (!authService.isSignedIn() && !propertiesComponent.isTrueValue(AUTH_PROMPT_SHOWN_KEY)) {
+        if (!isSignedIn && !propertiesComponent.isTrueValue(AUTH_PROMPT_SHOWN_KEY)) {
             LOG.info("User is not signed in and prompt not shown previously for this project. Showing sign-in notification.");
 
             propertiesComponent.setValue(AUTH_PROMPT_SHOWN_KEY, true);
@@ -63,13 +81,12 @@ public class PluginStartupActivity implements ProjectActivity {
             showSignInNotification(project);
 
         } else {
-            if (authService.isSignedIn()) {
+            if (isSignedIn) {
                 LOG.info("User is already signed in. No prompt needed.");
             } else {
                 LOG.info("Sign-in prompt already shown for this project previously. No prompt needed.");
             }
         }
-        return null;
     }
 
     // showSignInNotification method remains the same
@@ -92,35 +109,8 @@ public class PluginStartupActivity implements ProjectActivity {
                 }
 
                 LOG.info("Initiating GitHub OAuth flow from notification action...");
-                String state = generateSecureRandomString(32);
-                try {
-                    OAuthCallbackService.setPendingState(state);
-                    LOG.info("Generated and stored state parameter (temporarily): " + state);
-
-                    String redirectUri = buildCallbackUrl();
-                    LOG.debug("Using callback URL: " + redirectUri);
-
-                    String encodedRedirectUri = URLEncoder.encode(redirectUri, StandardCharsets.UTF_8.toString());
-                    String encodedScopes = URLEncoder.encode(PluginConstants.GITHUB_SCOPES, StandardCharsets.UTF_8.toString());
-
-                    String authorizationUrl = String.format(
-                            "https://github.com/login/oauth/authorize?client_id=%s&redirect_uri=%s&scope=%s&state=%s",
-                            PluginConstants.GITHUB_CLIENT_ID,
-                            encodedRedirectUri,
-                            encodedScopes,
-                            state
-                    );
-
-                    LOG.info("Opening browser to GitHub authorization URL...");
-                    BrowserUtil.browse(authorizationUrl);
-                    notification.expire();
-
-                } catch (Exception ex) {
-                    LOG.error("Failed to construct or open GitHub authorization URL from notification", ex);
-                    Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Sign In Error", "Could not initiate sign-in process: " + ex.getMessage(), NotificationType.ERROR), project);
-                    OAuthCallbackService.setPendingState(null);
-                    notification.expire();
-                }
+                AuthHelper.initiateSignInFlow(project);
+                notification.expire();
             }
 
             @Override
@@ -133,25 +123,4 @@ public class PluginStartupActivity implements ProjectActivity {
         Notifications.Bus.notify(notification, project);
         LOG.info("Sign-in notification displayed.");
     }
-
-    // --- Helper methods ---
-    private String generateSecureRandomString(int byteLength) {
-        SecureRandom random = new SecureRandom();
-        byte[] bytes = new byte[byteLength];
-        random.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-    }
-
-    private String buildCallbackUrl() throws RuntimeException {
-        BuiltInServerManager serverManager = BuiltInServerManager.getInstance();
-        int port = serverManager.getPort();
-        if (port < 0) {
-            LOG.error("Built-in server port is not available (" + port + "). Cannot construct callback URL.");
-            throw new RuntimeException("Could not get built-in server port for OAuth callback.");
-        }
-        String path = PluginConstants.GITHUB_CALLBACK_PATH.startsWith("/")
-                ? PluginConstants.GITHUB_CALLBACK_PATH
-                : "/" + PluginConstants.GITHUB_CALLBACK_PATH;
-        return String.format("http://127.0.0.1:%d%s", port, path);
-    }
-}
\ No newline at end of file
+}
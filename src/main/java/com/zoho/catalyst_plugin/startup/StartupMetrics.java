@@ -0,0 +1,39 @@
+package com.zoho.catalyst_plugin.startup;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the plugin adds to project opening. {@code activity} is what {@link PluginStartupActivity} itself
+ * takes on the project-open path; {@code credentialCheck} is the deferred sign-in check that runs off it.
+ * Values are of the most recently opened project.
+ */
+public final class StartupMetrics {
+    private static final Logger LOG = Logger.getInstance(StartupMetrics.class);
+
+    private static volatile long activityNanos = -1;
+    private static volatile long credentialCheckNanos = -1;
+
+    private StartupMetrics() {}
+
+    static void recordActivity(long nanos) {
+        activityNanos = nanos;
+        LOG.info("Catalyst LSK startup activity took " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms.");
+    }
+
+    static void recordCredentialCheck(long nanos) {
+        credentialCheckNanos = nanos;
+        LOG.info("Catalyst LSK sign-in check completed " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms after startup.");
+    }
+
+    /** @return milliseconds, or -1 if no project has been opened yet */
+    public static long getActivityMillis() {
+        return activityNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(activityNanos);
+    }
+
+    /** @return milliseconds, or -1 if the check has not completed yet */
+    public static long getCredentialCheckMillis() {
+        return credentialCheckNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(credentialCheckNanos);
+    }
+}
@@ -23,10 +23,16 @@ public class CatalystToolWindowFactory implements ToolWindowFactory, DumbAware {
         ContentFactory contentFactory = ContentFactory.getInstance();
 
         // 3. Create a content element containing our main UI panel
-        Content content = contentFactory.createContent(toolWindowPanel.getMainPanel(), "", false);
+        Content content = contentFactory.createContent(toolWindowPanel.getMainPanel(), "Resolve", false);
 
         // 4. Add the content element to the tool window's manager
         toolWindow.getContentManager().addContent(content);
+
+        // 5. Second tab with the plugin's request, cache and queue metrics
+        DiagnosticsPanel diagnosticsPanel = new DiagnosticsPanel(project);
+        Content diagnosticsContent = contentFactory.createContent(diagnosticsPanel.getMainPanel(), "Diagnostics", false);
+        diagnosticsContent.setDisposer(diagnosticsPanel);
+        toolWindow.getContentManager().addContent(diagnosticsContent);
     }
 
     @Override
@@ -6,7 +6,7 @@ import java.awt.event.ActionEvent;
 
 import com.intellij.collaboration.ui.JPanelWithBackground;
 import com.intellij.openapi.fileEditor.FileEditorManager;
-import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.ui.IdeBorderFactory;
@@ -28,27 +28,47 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.codeInsight.highlighting.HighlightManager;
+import com.intellij.openapi.editor.Caret;
+import com.intellij.openapi.editor.colors.CodeInsightColors;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.xml.XmlFile;
+import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.messages.MessageBusConnection;
 
 import com.zoho.catalyst_plugin.config.PluginConstants;
 import com.zoho.catalyst_plugin.dto.ApiResponse;
+import com.zoho.catalyst_plugin.editor.ResolveSnapshot;
+import com.zoho.catalyst_plugin.jfr.ResolveStageEvent;
 import com.zoho.catalyst_plugin.listeners.AuthenticationListener;
+import com.zoho.catalyst_plugin.pipeline.ResolutionPipeline;
+import com.zoho.catalyst_plugin.pipeline.ResolutionRequest;
+import com.zoho.catalyst_plugin.pipeline.ResolutionResult;
 import com.zoho.catalyst_plugin.service.AuthService;
-import com.zoho.catalyst_plugin.service.BackendApiService;
+import com.zoho.catalyst_plugin.service.BackendIoExecutor;
+import com.zoho.catalyst_plugin.service.ModuleNameService;
+import com.zoho.catalyst_plugin.service.PlaceholderResolver;
+import com.zoho.catalyst_plugin.service.ResolutionScheduler;
+import com.zoho.catalyst_plugin.service.ResolutionCache;
 import com.zoho.catalyst_plugin.util.AuthHelper;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner;
+import com.zoho.catalyst_plugin.util.ReferenceGraphValidator;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public class CatalystToolWindowPanel implements Disposable {
@@ -88,9 +108,9 @@ public class CatalystToolWindowPanel implements Disposable {
         this.toolWindow = toolWindow;
         this.defaultModuleName = getProjectDirectoryName();
         LOG.debug("Creating CatalystToolWindowPanel for project: {}", project.getName());
-        mainPanel = createMainPanel(); // Creates the root panel and child components
+        mainPanel = createMainPanel(); // Only the root panel; the views are built when first shown
         subscribeToAuthChanges();
-        updateUIState(); // Set initial visibility based on auth state
+        updateUIState(); // Set initial view once the credential check completes
         Disposer.register(toolWindow.getDisposable(), this);
     }
 
@@ -101,9 +121,17 @@ public class CatalystToolWindowPanel implements Disposable {
     }
 
     private JPanel createMainPanel() {
-        // Status Label (will be added to signedInContentPanel)
-        statusLabel = new JBLabel("Status: Initializing...");
+        // The main root panel using BorderLayout
+        JBPanel<JBPanel> rootPanel = new JBPanel<>(new BorderLayout(0, 0)); // No gaps
+        rootPanel.setBorder(JBUI.Borders.empty(10));
+        JBLabel checkingLabel = new JBLabel("Checking sign-in status...");
+        checkingLabel.setForeground(UIUtil.getContextHelpForeground());
+        rootPanel.add(checkingLabel, BorderLayout.NORTH);
+        return rootPanel;
+    }
 
+    private void ensureSignInPanel() {
+        if (signInButtonPanel != null) return;
         // Sign-in Button and its Centering Panel
         signInButton = new JButton("Sign In with GitHub");
         signInButton.setToolTipText("Initiate sign in using your GitHub account.");
@@ -111,6 +139,12 @@ public class CatalystToolWindowPanel implements Disposable {
         signInButton.setMargin(JBUI.insets(5, 15));
         signInButtonPanel = new JPanel(new GridBagLayout()); // Use GridBagLayout for centering
         signInButtonPanel.add(signInButton); // Add button, GridBagLayout will center by default
+    }
+
+    private void ensureSignedInPanel() {
+        if (signedInContentPanel != null) return;
+        // Status Label (will be added to signedInContentPanel)
+        statusLabel = new JBLabel("Status: Initializing...");
 
         this.currentModuleNameLabel = new JBLabel("N/A"); // Initialize
         currentModuleNameLabel.setForeground(UIUtil.getContextHelpForeground());
@@ -189,25 +223,22 @@ public class CatalystToolWindowPanel implements Disposable {
         signedInContentPanel.add(statusLabel, BorderLayout.NORTH);
         // Add the form content inside a scroll pane to handle potentially long content
         signedInContentPanel.add(ScrollPaneFactory.createScrollPane(formContentPanel, true), BorderLayout.CENTER);
-
-        // 6. The main root panel using BorderLayout
-        JBPanel<JBPanel> rootPanel = new JBPanel<>(new BorderLayout(0, 0)); // No gaps
-        rootPanel.setBorder(JBUI.Borders.empty(10));
-        rootPanel.add(signedInContentPanel, BorderLayout.NORTH);
-
-        return rootPanel;
     }
 
     public void updateUIState() {
-        SwingUtilities.invokeLater(() -> {
-            boolean isSignedIn = AuthService.getInstance().isSignedIn();
+        // The credential store may be slow (e.g. a locked keychain); never read it on the EDT
+        AuthService.getInstance().isSignedInAsync().thenAccept(isSignedIn -> SwingUtilities.invokeLater(() -> {
+            if (project.isDisposed()) return;
             LOG.debug("Updating UI state. Is signed in: {}", isSignedIn);
-
-            // Always update status text
             if (isSignedIn) {
-                statusLabel.setText("Status: Signed In");
+                ensureSignedInPanel();
             } else {
-                statusLabel.setText("Status: Not Signed In"); // Update even if hidden
+                ensureSignInPanel();
+            }
+
+            // Status text only exists once the signed-in view has been built
+            if (statusLabel != null) {
+                statusLabel.setText(isSignedIn ? "Status: Signed In" : "Status: Not Signed In");
             }
 
             // Get current components in mainPanel
@@ -217,47 +248,50 @@ public class CatalystToolWindowPanel implements Disposable {
 
             if (isSignedIn) {
                 // Ensure signedInContentPanel is NORTH, remove signInButtonPanel from CENTER
-                if (centerComponent == signInButtonPanel) mainPanel.remove(signInButtonPanel);
+                if (signInButtonPanel != null && centerComponent == signInButtonPanel) mainPanel.remove(signInButtonPanel);
                 if (northComponent != signedInContentPanel) {
                     if (northComponent != null) mainPanel.remove(northComponent); // Remove anything else from NORTH
                     mainPanel.add(signedInContentPanel, BorderLayout.NORTH);
                 }
                 // Set visibility (though it's managed by adding/removing)
                 signedInContentPanel.setVisible(true);
-                signInButtonPanel.setVisible(false);
+                if (signInButtonPanel != null) signInButtonPanel.setVisible(false);
             } else {
-                // Ensure signInButtonPanel is CENTER, remove signedInContentPanel from NORTH
-                if (northComponent == signedInContentPanel) mainPanel.remove(signedInContentPanel);
+                // Ensure signInButtonPanel is CENTER, remove signedInContentPanel (or the checking label) from NORTH
+                if (northComponent != null) mainPanel.remove(northComponent);
                 if (centerComponent != signInButtonPanel) {
                     if (centerComponent != null) mainPanel.remove(centerComponent); // Remove anything else from CENTER
                     mainPanel.add(signInButtonPanel, BorderLayout.CENTER);
                 }
                 // Set visibility
-                signedInContentPanel.setVisible(false);
+                if (signedInContentPanel != null) signedInContentPanel.setVisible(false);
                 signInButtonPanel.setVisible(true);
             }
 
             mainPanel.revalidate();
             mainPanel.repaint();
-        });
+        }));
     }
 
 
     private void handleSignIn(ActionEvent e) {
         LOG.info("Sign In button clicked.");
-        if (AuthService.getInstance().isSignedIn()) return;
-        signInButton.setEnabled(false);
-        // statusLabel.setText("Status: Opening browser..."); // Status label might not be visible yet
-        Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Sign In", "Opening browser for GitHub sign in...", NotificationType.INFORMATION), project); // Use notification
-        AuthHelper.initiateSignInFlow(project);
-        // Timer to re-enable button if auth fails/takes long
-        Timer timer = new Timer(3000, ae -> {
-            if (!AuthService.getInstance().isSignedIn() && !signInButton.isEnabled()) {
-                signInButton.setEnabled(true);
-            }
-        });
-        timer.setRepeats(false);
-        timer.start();
+        // The credential store may be slow (e.g. a locked keychain); never read it on the EDT
+        AuthService.getInstance().isSignedInAsync().thenAccept(isSignedIn -> SwingUtilities.invokeLater(() -> {
+            if (isSignedIn || project.isDisposed()) return;
+            signInButton.setEnabled(false);
+            // statusLabel.setText("Status: Opening browser..."); // Status label might not be visible yet
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Sign In", "Opening browser for GitHub sign in...", NotificationType.INFORMATION), project); // Use notification
+            AuthHelper.initiateSignInFlow(project);
+            // Timer to re-enable button if auth fails/takes long
+            Timer timer = new Timer(3000, ae -> AuthService.getInstance().isSignedInAsync().thenAccept(signedIn -> SwingUtilities.invokeLater(() -> {
+                if (!signedIn && !signInButton.isEnabled()) {
+                    signInButton.setEnabled(true);
+                }
+            })));
+            timer.setRepeats(false);
+            timer.start();
+        }));
     }
 
     /**
@@ -267,6 +301,23 @@ public class CatalystToolWindowPanel implements Disposable {
     private void handleResolveLsk(ActionEvent event) {
         LOG.debug("Resolve LSK button clicked.");
 
+        // Ties together the JFR events of this click, up to the document write
+        final String resolveId = ResolveStageEvent.newCorrelationId();
+
+        // The credential store may be slow (e.g. a locked keychain): read the token on a pooled thread, then
+        // continue on the EDT
+        final ResolveStageEvent tokenFetch = ResolveStageEvent.begin(ResolveStageEvent.TOKEN_FETCH, resolveId, null);
+        AuthService.getInstance().getAuthTokenAsync().thenAccept(authToken -> ApplicationManager.getApplication().invokeLater(() -> {
+            tokenFetch.end(0);
+            resolveLsk(authToken, resolveId);
+        }, ModalityState.defaultModalityState()));
+    }
+
+    /**
+     * Second half of {@link #handleResolveLsk}, on the EDT once the auth token has been read.
+     */
+    private void resolveLsk(@Nullable String authToken, @NotNull String resolveId) {
+
         // --- Use project from this class instance ---
         final Project targetProject = this.project;
         if (targetProject == null) {
@@ -287,6 +338,7 @@ public class CatalystToolWindowPanel implements Disposable {
 
         // --- Get PsiFile ---
         final Document document = editor.getDocument();
+        final ResolveStageEvent fileLookup = ResolveStageEvent.begin(ResolveStageEvent.FILE_LOOKUP, resolveId, null);
         PsiFile psiFile = PsiDocumentManager.getInstance(targetProject).getPsiFile(document);
 
 // DataContext fallback for PsiFile (less critical now, but kept)
@@ -308,50 +360,33 @@ public class CatalystToolWindowPanel implements Disposable {
                 }
             }
         }
+        fileLookup.end(document.getTextLength());
 
-        String relativePath = null; // Initialize relativePath variable
 // First, ensure we actually *have* a psiFile after the checks above
         if (psiFile != null) {
             final VirtualFile virtualFile = psiFile.getVirtualFile();
-            String projectBasePath = targetProject.getBasePath();
-
-            if (virtualFile != null && projectBasePath != null) {
-                // Use FileUtil for robust relative path calculation, enforce '/' separator
-                relativePath = FileUtil.getRelativePath(projectBasePath, virtualFile.getPath(), '/');
-
-                if (relativePath != null) {
-                    LOG.info("Relative path of selected file: " + relativePath);
-                    int confIndex = relativePath.indexOf("conf/");
-
-                    if (confIndex != -1) {
-                        LOG.info("'conf/' found starting at index: " + confIndex);
-                    } else {
-                        LOG.info("'conf/' was not found in the path: " + relativePath);
-                    }
-                    java.util.List<String> pathDirectories = java.util.List.of(relativePath.split("/"));
-                    final String currentModule = pathDirectories.get(1);
-                    ApplicationManager.getApplication().invokeLater(() -> {
-                        currentModuleNameLabel.setText(currentModule);
-                    });
+            if (virtualFile != null) {
+                final ResolveStageEvent moduleDetection = ResolveStageEvent.begin(ResolveStageEvent.MODULE_DETECTION, resolveId, null);
+                final String currentModule = ModuleNameService.getInstance(targetProject).getModuleName(virtualFile);
+                moduleDetection.withModule(currentModule).end(0);
+                if (currentModule != null) {
+                    LOG.info("Module of selected file: " + currentModule);
+                    currentModuleNameLabel.setText(currentModule);
                     setCurrentModuleName(currentModule);
                 } else {
-                    // Optionally clear the label if path cannot be determined
-                    ApplicationManager.getApplication().invokeLater(() -> {
-                        currentModuleNameLabel.setText("N/A\tClick the resolve button to fetch the Module name.");
-                    });
-                    LOG.warn("Could not determine relative path...");
+                    currentModuleNameLabel.setText("N/A\tClick the resolve button to fetch the Module name.");
+                    LOG.warn("Could not determine the module of " + virtualFile.getPath());
                 }
             } else {
-                if (virtualFile == null) LOG.warn("Could not get VirtualFile from PsiFile to calculate relative path.");
-                if (projectBasePath == null) LOG.warn("Could not get project base path to calculate relative path.");
+                LOG.warn("Could not get VirtualFile from PsiFile to determine the module.");
             }
         } else {
             // This else block corresponds to the case where psiFile was still null after all attempts.
             // The subsequent check for psiFile == null will handle the notification.
-            LOG.warn("Cannot calculate relative path because PsiFile is null.");
+            LOG.warn("Cannot determine the module because PsiFile is null.");
         }
         // --- Continue with other Pre-checks ---
-        if (!AuthService.getInstance().isSignedIn()) {
+        if (authToken == null) {
             LOG.warn("Resolve LSK cancelled: User not signed in.");
             Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Sign In Required", "Please sign in before resolving LSKs.", NotificationType.WARNING), targetProject);
             return;
@@ -361,7 +396,7 @@ public class CatalystToolWindowPanel implements Disposable {
             Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Action Required", "Please ensure the active file is an XML file.", NotificationType.WARNING), targetProject);
             return;
         }
-        if (!editor.getSelectionModel().hasSelection()) {
+        if (!editor.getSelectionModel().hasSelection(true)) {
             LOG.warn("Resolve LSK cancelled: No text selected.");
             Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Action Required", "Please select the XML block containing placeholders.", NotificationType.WARNING), targetProject);
             return;
@@ -388,78 +423,274 @@ public class CatalystToolWindowPanel implements Disposable {
             }
         }
 
-        // 3. Get Selected Text and Auth Token
-        final String selectedText = editor.getSelectionModel().getSelectedText();
-        if (selectedText == null || selectedText.trim().isEmpty()) {
-            LOG.warn("Resolve LSK cancelled: Selected text is empty.");
-            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Action Required", "Selected text is empty.", NotificationType.WARNING), targetProject);
+        // 3. Validate the REF -> LSK graph of all selections together, before anything is sent; invalid
+        //    selections would only be rejected by the backend
+        final List<Caret> selectedCarets = ContainerUtil.filter(editor.getCaretModel().getAllCarets(), Caret::hasSelection);
+        final List<TextRange> regions = new ArrayList<>();
+        final List<PlaceholderScanner.Placeholder> selectionPlaceholders = new ArrayList<>();
+        for (Caret caret : selectedCarets) {
+            regions.add(new TextRange(caret.getSelectionStart(), caret.getSelectionEnd()));
+            selectionPlaceholders.addAll(PlaceholderScanner.scan(document.getCharsSequence(), caret.getSelectionStart(), caret.getSelectionEnd()));
+        }
+        final List<ReferenceGraphValidator.Problem> problems = ReferenceGraphValidator.validate(selectionPlaceholders);
+        if (!problems.isEmpty()) {
+            reportReferenceProblems(targetProject, editor, problems);
             return;
         }
-        final String authToken = AuthService.getInstance().getAuthToken();
-        if (authToken == null) {
-            LOG.error("Resolve LSK cancelled: Auth token is null despite being signed in.");
-            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Error", "Internal error: Authentication token missing.", NotificationType.ERROR), targetProject);
+
+        // 4. Multi-caret: every caret selection is resolved through one batch request
+        if (regions.size() > 1) {
+            resolveSelections(targetProject, editor, psiFile, regions, moduleToUse, authToken, resolveId);
             return;
         }
 
-        // 4. Call Backend Service (Background Thread)
+        // 5. Get Selected Text
+        final int selectionStart = regions.get(0).getStartOffset();
+        final int selectionEnd = regions.get(0).getEndOffset();
+        final String selectedText = document.getText(regions.get(0));
+        if (selectedText.trim().isEmpty()) {
+            LOG.warn("Resolve LSK cancelled: Selected text is empty.");
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Action Required", "Selected text is empty.", NotificationType.WARNING), targetProject);
+            return;
+        }
         final String finalModuleToUse = moduleToUse;
         final PsiFile finalPsiFile = psiFile;
+
+        // 6. Every placeholder already cached: apply the values without a round trip. Anything else is sent as XML
+        //    below, so the backend resolves REF placeholders against the LSKs defined in the same selection.
+        final Set<String> selectionKeys = PlaceholderScanner.collectKeys(selectionPlaceholders);
+        if (!selectionKeys.isEmpty()
+                && PlaceholderResolver.getInstance().resolveCached(finalModuleToUse, selectionKeys).size() == selectionKeys.size()) {
+            resolveSelections(targetProject, editor, finalPsiFile, List.of(new TextRange(selectionStart, selectionEnd)), finalModuleToUse, authToken, resolveId);
+            return;
+        }
+
+        // 7. Let the backend resolve the selected XML itself, through the pipeline (Background Thread). The snapshot
+        //    lets the user keep typing meanwhile: results are mapped back through range markers instead of the
+        //    (possibly stale) selection offsets.
+        final ResolveSnapshot snapshot = ResolveSnapshot.capture(document, selectionStart, selectionEnd);
         Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "LSK Resolver", "Resolving placeholders...", NotificationType.INFORMATION), targetProject);
 
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+        BackendIoExecutor.getInstance().execute(() -> {
             try {
-                BackendApiService backendService = BackendApiService.getInstance();
-                ApiResponse response = backendService.resolveLskSelection(finalModuleToUse, selectedText, authToken);
+                // Through the shared pipeline like every other lookup; large selections are split and resolved
+                // concurrently, small ones go out as a single request
+                ResolutionResult result = ResolutionPipeline.getInstance().resolve(ResolutionRequest.forSelectionXml(
+                        finalModuleToUse, authToken, ResolutionScheduler.Priority.INTERACTIVE, selectedText));
+                ApiResponse response = result.getSelectionResponse();
 
-                // 5. Process Response and Update Editor (EDT)
+                // 8. Process Response and Update Editor (EDT)
                 ApplicationManager.getApplication().invokeLater(() -> {
-                    if (!targetProject.isDisposed() && !editor.isDisposed()) { // Check project/editor validity
-                        if (response.getError() != null) {
-                            LOG.warn("LSK resolution failed: " + response.getError());
-                            Notifications.Bus.notify(new Notification(
-                                    PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Failed",
-                                    "Backend Error: " + response.getError(), NotificationType.ERROR), targetProject);
-                        } else if (response.getData() != null) {
-                            LOG.info("LSK resolution successful. Updating editor.");
-                            final String resolvedXml = response.getData();
-                            final int startOffset = editor.getSelectionModel().getSelectionStart();
-                            final int endOffset = editor.getSelectionModel().getSelectionEnd();
-
-                            WriteCommandAction.runWriteCommandAction(targetProject, "Resolve LSK Placeholders", null, () -> {
-                                if (document.isWritable()) {
-                                    document.replaceString(startOffset, endOffset, resolvedXml);
-                                } else {
-                                    LOG.warn("Document not writable during write action.");
-                                    Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Warning", "Could not write to document.", NotificationType.WARNING), targetProject);
-                                }
-                            }, finalPsiFile);
-
-                            editor.getSelectionModel().removeSelection();
-                            Notifications.Bus.notify(new Notification(
-                                    PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Successful",
-                                    "Selected placeholders replaced.", NotificationType.INFORMATION), targetProject);
-                        } else {
-                            LOG.error("LSK resolution returned unexpected state: No error and no data.");
-                            Notifications.Bus.notify(new Notification(
-                                    PluginConstants.NOTIFICATION_GROUP_ID, "Error",
-                                    "Internal error: Invalid response from backend.", NotificationType.ERROR), targetProject);
-                        }
-                    } else {
-                        LOG.warn("Project or Editor disposed before LSK result could be processed.");
+                    try {
+                        applySelectionResponse(targetProject, editor, finalPsiFile, finalModuleToUse, snapshot, response, resolveId);
+                    } finally {
+                        snapshot.dispose();
                     }
                 }, ModalityState.defaultModalityState());
 
             } catch (IOException | IllegalArgumentException e) {
                 LOG.error("Error calling LSK resolve API: " + e.getMessage(), e);
-                ApplicationManager.getApplication().invokeLater(() -> Notifications.Bus.notify(new Notification(
-                        PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Error",
-                        "Failed to communicate with backend: " + e.getMessage(), NotificationType.ERROR), targetProject), ModalityState.defaultModalityState());
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    snapshot.dispose();
+                    Notifications.Bus.notify(new Notification(
+                            PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Error",
+                            "Failed to communicate with backend: " + e.getMessage(), NotificationType.ERROR), targetProject);
+                }, ModalityState.defaultModalityState());
             } catch (Exception e) {
                 LOG.error("Unexpected error during LSK resolution: " + e.getMessage(), e);
-                ApplicationManager.getApplication().invokeLater(() -> Notifications.Bus.notify(new Notification(
-                        PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Error",
-                        "An unexpected error occurred: " + e.getMessage(), NotificationType.ERROR), targetProject), ModalityState.defaultModalityState());
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    snapshot.dispose();
+                    Notifications.Bus.notify(new Notification(
+                            PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Error",
+                            "An unexpected error occurred: " + e.getMessage(), NotificationType.ERROR), targetProject);
+                }, ModalityState.defaultModalityState());
+            }
+        });
+    }
+
+    /**
+     * Applies the backend response for a single selection through its snapshot (EDT).
+     */
+    private void applySelectionResponse(@NotNull Project targetProject, @NotNull Editor editor, @NotNull PsiFile psiFile,
+                                        @NotNull String moduleToUse, @NotNull ResolveSnapshot snapshot, @NotNull ApiResponse response,
+                                        @NotNull String resolveId) {
+        final Document document = editor.getDocument();
+        if (!targetProject.isDisposed() && !editor.isDisposed()) { // Check project/editor validity
+            if (response.getError() != null) {
+                LOG.warn("LSK resolution failed: " + response.getError());
+                Notifications.Bus.notify(new Notification(
+                        PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Failed",
+                        "Backend Error: " + response.getError(), NotificationType.ERROR), targetProject);
+            } else if (response.getData() != null) {
+                LOG.info("LSK resolution successful. Updating editor.");
+                final String resolvedXml = response.getData();
+                final Map<String, String> resolvedByKey = snapshot.resolvedValuesByKey(resolvedXml);
+                if (resolvedByKey != null) {
+                    ResolutionCache.getInstance().putAll(moduleToUse, resolvedByKey);
+                }
+
+                final ResolveSnapshot.ApplyResult[] outcome = {null};
+                final ResolveStageEvent documentWrite = ResolveStageEvent.begin(ResolveStageEvent.DOCUMENT_WRITE, resolveId, moduleToUse);
+                WriteCommandAction.runWriteCommandAction(targetProject, "Resolve LSK Placeholders", null, () -> {
+                    if (document.isWritable()) {
+                        outcome[0] = snapshot.applyResolvedText(resolvedXml);
+                    } else {
+                        LOG.warn("Document not writable during write action.");
+                        Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Warning", "Could not write to document.", NotificationType.WARNING), targetProject);
+                    }
+                }, psiFile);
+                documentWrite.end(resolvedXml.length(), outcome[0] != null ? outcome[0].getApplied() : 0);
+
+                if (outcome[0] == null) {
+                    if (document.isWritable()) {
+                        Notifications.Bus.notify(new Notification(
+                                PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Not Applied",
+                                "The document changed during resolution and the result could not be mapped back. Please resolve again.",
+                                NotificationType.WARNING), targetProject);
+                    }
+                } else if (outcome[0].isWholeRegion()) {
+                    editor.getSelectionModel().removeSelection();
+                    Notifications.Bus.notify(new Notification(
+                            PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Successful",
+                            "Selected placeholders replaced.", NotificationType.INFORMATION), targetProject);
+                } else {
+                    notifyRebasedResult(targetProject, outcome[0]);
+                }
+            } else {
+                LOG.error("LSK resolution returned unexpected state: No error and no data.");
+                Notifications.Bus.notify(new Notification(
+                        PluginConstants.NOTIFICATION_GROUP_ID, "Error",
+                        "Internal error: Invalid response from backend.", NotificationType.ERROR), targetProject);
+            }
+        } else {
+            LOG.warn("Project or Editor disposed before LSK result could be processed.");
+        }
+    }
+
+    /**
+     * Reports a result that was rebased onto a document the user edited while resolving.
+     */
+    private void notifyRebasedResult(@NotNull Project targetProject, @NotNull ResolveSnapshot.ApplyResult result) {
+        LOG.info("Document changed during resolution; applied " + result.getApplied() + " placeholder(s), skipped " + result.getSkipped() + ".");
+        Notifications.Bus.notify(new Notification(
+                PluginConstants.NOTIFICATION_GROUP_ID,
+                result.getSkipped() == 0 ? "Resolution Successful" : "Resolution Partially Applied",
+                result.getApplied() + " placeholder(s) replaced"
+                        + (result.getSkipped() == 0 ? "." : "; " + result.getSkipped() + " skipped because they were edited during resolution or could not be resolved."),
+                result.getSkipped() == 0 ? NotificationType.INFORMATION : NotificationType.WARNING), targetProject);
+    }
+
+
+    /**
+     * Highlights every offending placeholder in the editor and summarises the problems in a notification.
+     */
+    private void reportReferenceProblems(@NotNull Project targetProject, @NotNull Editor editor, @NotNull List<ReferenceGraphValidator.Problem> problems) {
+        LOG.warn("Resolve LSK cancelled: " + problems.size() + " reference problem(s) found in selection: " + problems);
+        HighlightManager highlightManager = HighlightManager.getInstance(targetProject);
+        for (ReferenceGraphValidator.Problem problem : problems) {
+            PlaceholderScanner.Placeholder placeholder = problem.getPlaceholder();
+            highlightManager.addRangeHighlight(editor, placeholder.getValueStart(), placeholder.getValueEnd(),
+                    CodeInsightColors.ERRORS_ATTRIBUTES, true, null);
+        }
+
+        StringBuilder details = new StringBuilder();
+        int shown = Math.min(problems.size(), 5);
+        for (int i = 0; i < shown; i++) {
+            details.append("<br/>- ").append(StringUtil.escapeXmlEntities(problems.get(i).getMessage()));
+        }
+        if (problems.size() > shown) {
+            details.append("<br/>... and ").append(problems.size() - shown).append(" more.");
+        }
+        Notifications.Bus.notify(new Notification(
+                PluginConstants.NOTIFICATION_GROUP_ID, "Invalid Selection",
+                "The selection was not sent for resolution:" + details, NotificationType.WARNING), targetProject);
+    }
+
+    /**
+     * Resolves the placeholders of one or more selections (one per caret) through the
+     * {@link ResolutionPipeline}: placeholders from every region are de-duplicated,
+     * served from the cache where possible, and the rest fetched in as few batch requests as possible. The values are
+     * written back to all regions inside one write command (a single undo step), through a {@link ResolveSnapshot}
+     * so edits made while resolving are preserved.
+     */
+    private void resolveSelections(@NotNull Project targetProject, @NotNull Editor editor, @NotNull PsiFile psiFile,
+                                   @NotNull List<TextRange> regions, @NotNull String moduleToUse, @NotNull String authToken,
+                                   @NotNull String resolveId) {
+        final Document document = editor.getDocument();
+        final String across = regions.size() > 1 ? " across " + regions.size() + " selections" : "";
+        final ResolveSnapshot snapshot = ResolveSnapshot.capture(document, regions);
+        final List<PlaceholderScanner.Placeholder> placeholders = snapshot.getPlaceholders();
+        if (placeholders.isEmpty()) {
+            snapshot.dispose();
+            LOG.warn("Resolve LSK cancelled: No placeholders found in " + regions.size() + " selection(s).");
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Action Required", "No LSK or REF placeholders found in the selections.", NotificationType.WARNING), targetProject);
+            return;
+        }
+        final Set<String> keys = PlaceholderScanner.collectKeys(placeholders);
+
+        LOG.info("Resolving " + keys.size() + " unique placeholder(s) from " + regions.size() + " selection(s).");
+        Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "LSK Resolver",
+                "Resolving " + keys.size() + " placeholder(s)" + across + "...", NotificationType.INFORMATION), targetProject);
+
+        BackendIoExecutor.getInstance().execute(() -> {
+            try {
+                final Map<String, String> resolved = PlaceholderResolver.getInstance().resolve(moduleToUse, keys, authToken, ResolutionScheduler.Priority.INTERACTIVE);
+
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    try {
+                        if (targetProject.isDisposed() || editor.isDisposed()) {
+                            LOG.warn("Project or Editor disposed before batch LSK result could be processed.");
+                            return;
+                        }
+                        final boolean unchanged = snapshot.isDocumentUnchanged();
+                        final ResolveSnapshot.ApplyResult[] outcome = {null};
+                        final ResolveStageEvent documentWrite = ResolveStageEvent.begin(ResolveStageEvent.DOCUMENT_WRITE, resolveId, moduleToUse);
+                        WriteCommandAction.runWriteCommandAction(targetProject, "Resolve LSK Placeholders", null, () -> {
+                            if (!document.isWritable()) {
+                                LOG.warn("Document not writable during write action.");
+                                Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Warning", "Could not write to document.", NotificationType.WARNING), targetProject);
+                                return;
+                            }
+                            outcome[0] = snapshot.apply(resolved);
+                        }, psiFile);
+                        documentWrite.end(0, outcome[0] != null ? outcome[0].getApplied() : 0);
+                        if (outcome[0] == null) return;
+
+                        if (!unchanged) {
+                            notifyRebasedResult(targetProject, outcome[0]);
+                            return;
+                        }
+                        for (Caret caret : editor.getCaretModel().getAllCarets()) {
+                            caret.removeSelection();
+                        }
+                        int unresolvedCount = outcome[0].getSkipped();
+                        Notifications.Bus.notify(new Notification(
+                                PluginConstants.NOTIFICATION_GROUP_ID,
+                                unresolvedCount == 0 ? "Resolution Successful" : "Resolution Partially Successful",
+                                outcome[0].getApplied() + " placeholder(s) replaced" + across
+                                        + (unresolvedCount == 0 ? "." : "; " + unresolvedCount + " could not be resolved."),
+                                unresolvedCount == 0 ? NotificationType.INFORMATION : NotificationType.WARNING), targetProject);
+                    } finally {
+                        snapshot.dispose();
+                    }
+                }, ModalityState.defaultModalityState());
+
+            } catch (IOException | IllegalArgumentException e) {
+                LOG.error("Error calling LSK batch resolve API: " + e.getMessage(), e);
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    snapshot.dispose();
+                    Notifications.Bus.notify(new Notification(
+                            PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Error",
+                            "Failed to communicate with backend: " + e.getMessage(), NotificationType.ERROR), targetProject);
+                }, ModalityState.defaultModalityState());
+            } catch (Exception e) {
+                LOG.error("Unexpected error during batch LSK resolution: " + e.getMessage(), e);
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    snapshot.dispose();
+                    Notifications.Bus.notify(new Notification(
+                            PluginConstants.NOTIFICATION_GROUP_ID, "Resolution Error",
+                            "An unexpected error occurred: " + e.getMessage(), NotificationType.ERROR), targetProject);
+                }, ModalityState.defaultModalityState());
             }
         });
     }
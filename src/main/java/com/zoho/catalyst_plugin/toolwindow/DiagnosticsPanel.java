@@ -0,0 +1,118 @@
+package com.zoho.catalyst_plugin.toolwindow;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.UIUtil;
+import com.zoho.catalyst_plugin.config.PluginConstants;
+import com.zoho.catalyst_plugin.service.MetricsRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * "Diagnostics" tab of the Catalyst tool window: a live view of {@link MetricsRegistry#snapshot()}, refreshed
+ * while the tab is visible, with buttons to reset the counters and to export a snapshot as JSON.
+ */
+public class DiagnosticsPanel implements Disposable {
+    private static final Logger LOG = Logger.getInstance(DiagnosticsPanel.class);
+    private static final int REFRESH_INTERVAL_MILLIS = 2000;
+
+    private final Project project;
+    private final JPanel mainPanel;
+    private final JBTextArea metricsText;
+    private final Timer refreshTimer;
+
+    public DiagnosticsPanel(@NotNull Project project) {
+        this.project = project;
+
+        metricsText = new JBTextArea();
+        metricsText.setEditable(false);
+        metricsText.setFont(UIUtil.getFont(UIUtil.FontSize.SMALL, new Font(Font.MONOSPACED, Font.PLAIN, 12)));
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        JButton resetButton = new JButton("Reset");
+        resetButton.setToolTipText("Reset request counters and latency histograms.");
+        resetButton.addActionListener(e -> {
+            MetricsRegistry.getInstance().reset();
+            refresh();
+        });
+        JButton exportButton = new JButton("Export Snapshot...");
+        exportButton.setToolTipText("Save the current metrics as a JSON file, e.g. to attach to a bug report.");
+        exportButton.addActionListener(e -> exportSnapshot());
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, JBUI.scale(5), 0));
+        buttons.add(refreshButton);
+        buttons.add(resetButton);
+        buttons.add(exportButton);
+
+        mainPanel = new JBPanel<>(new BorderLayout(0, JBUI.scale(5)));
+        mainPanel.setBorder(JBUI.Borders.empty(10));
+        mainPanel.add(buttons, BorderLayout.NORTH);
+        mainPanel.add(ScrollPaneFactory.createScrollPane(metricsText, true), BorderLayout.CENTER);
+
+        refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, e -> {
+            if (mainPanel.isShowing()) refresh();
+        });
+        refreshTimer.start();
+        refresh();
+    }
+
+    public JPanel getMainPanel() {
+        return mainPanel;
+    }
+
+    private void refresh() {
+        StringBuilder text = new StringBuilder();
+        appendMap(text, MetricsRegistry.getInstance().snapshot(), 0);
+        int caret = metricsText.getCaretPosition();
+        metricsText.setText(text.toString());
+        metricsText.setCaretPosition(Math.min(caret, metricsText.getDocument().getLength()));
+    }
+
+    private static void appendMap(StringBuilder text, Map<?, ?> map, int indent) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            text.append("  ".repeat(indent)).append(entry.getKey());
+            if (entry.getValue() instanceof Map) {
+                text.append('\n');
+                appendMap(text, (Map<?, ?>) entry.getValue(), indent + 1);
+            } else {
+                text.append(": ").append(entry.getValue()).append('\n');
+            }
+        }
+    }
+
+    private void exportSnapshot() {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Catalyst LSK Metrics", "Save a snapshot of the plugin's metrics", "json");
+        VirtualFileWrapper target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project).save("catalyst-lsk-metrics.json");
+        if (target == null) return;
+        try {
+            MetricsRegistry.getInstance().exportSnapshot(target.getFile().toPath());
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Metrics Exported",
+                    "Snapshot written to " + target.getFile().getPath(), NotificationType.INFORMATION), project);
+        } catch (IOException e) {
+            LOG.warn("Could not export metrics snapshot: " + e.getMessage(), e);
+            Notifications.Bus.notify(new Notification(PluginConstants.NOTIFICATION_GROUP_ID, "Export Failed",
+                    "Could not write metrics snapshot: " + e.getMessage(), NotificationType.ERROR), project);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+    }
+}
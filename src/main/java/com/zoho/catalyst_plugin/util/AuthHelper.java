@@ -7,7 +7,7 @@ import com.intellij.notification.Notifications;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.zoho.catalyst_plugin.config.PluginConstants;
-import com.zoho.catalyst_plugin.service.OAuthCallbackService;
+import com.zoho.catalyst_plugin.service.OAuthStateRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.ide.BuiltInServerManager;
 
@@ -35,9 +35,9 @@ public class AuthHelper {
 
         String state = generateSecureRandomString(32);
         try {
-            // Store state using the callback service
-            OAuthCallbackService.setPendingState(state);
-            LOG.info("Generated and stored state parameter (temporarily): {}" + state);
+            // Remember which project this flow belongs to; the callback looks it up by state
+            OAuthStateRegistry.getInstance().register(state, project);
+            LOG.info("Generated and registered state parameter for project " + project.getName());
 
             // Build URLs
             String redirectUri = buildCallbackUrl();
@@ -61,8 +61,8 @@ public class AuthHelper {
             Notifications.Bus.notify(new Notification(
                     PluginConstants.NOTIFICATION_GROUP_ID, "Sign In Error",
                     "Could not initiate sign-in process: " + ex.getMessage(), NotificationType.ERROR), project);
-            // Clear potentially stored state on failure
-            OAuthCallbackService.setPendingState(null);
+            // Forget the state of the flow that never started
+            OAuthStateRegistry.getInstance().cancel(state);
         }
     }
 
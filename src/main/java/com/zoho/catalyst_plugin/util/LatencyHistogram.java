@@ -0,0 +1,91 @@
+package com.zoho.catalyst_plugin.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets from 100 us to about 2 minutes, each about 19% wider than
+ * the previous one. Percentiles are reported as the upper bound of their bucket, so they are accurate to that width.
+ */
+public final class LatencyHistogram {
+    private static final double BUCKET_GROWTH = Math.pow(2, 0.25);
+    private static final long SMALLEST_BOUND_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int BUCKETS = 82; // upper bounds up to ~2^20 * 100 us, plus one overflow bucket
+    private static final long[] UPPER_BOUNDS_NANOS = new long[BUCKETS];
+
+    static {
+        double bound = SMALLEST_BOUND_NANOS;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            UPPER_BOUNDS_NANOS[i] = (long) bound;
+            bound *= BUCKET_GROWTH;
+        }
+        UPPER_BOUNDS_NANOS[BUCKETS - 1] = Long.MAX_VALUE;
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    private static int bucketOf(long nanos) {
+        int low = 0, high = BUCKETS - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nanos <= UPPER_BOUNDS_NANOS[mid]) high = mid; else low = mid + 1;
+        }
+        return low;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / 1_000_000.0 / n;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.95
+     * @return the latency below which that share of the recorded values lie, in milliseconds; 0 if empty
+     */
+    public double getPercentileMillis(double quantile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(UPPER_BOUNDS_NANOS[i], maxNanos.get()) / 1_000_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,287 @@
+package com.zoho.catalyst_plugin.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lightweight, single-pass scanner that locates LSK and REF placeholders inside XML attribute values.
+ * Works directly on a {@link CharSequence} (e.g. {@code Document.getCharsSequence()}) so no copy of the
+ * text is made and no PSI is required.
+ * <p>
+ * Recognised formats:
+ * <ul>
+ *     <li>LSK: {@code "Table:Column:Module:LogicalID"}</li>
+ *     <li>REF: {@code "REF:{TargetTable:TargetCol:TargetMod:TargetLogicalID}"}</li>
+ * </ul>
+ * An LSK value whose logical ID is purely numeric is treated as already resolved and is skipped.
+ */
+public final class PlaceholderScanner {
+
+    public enum Kind { LSK, REF }
+
+    private static final String REF_PREFIX = "REF:{";
+    private static final String REF_SUFFIX = "}";
+
+    /**
+     * A single placeholder occurrence. Offsets are absolute offsets into the scanned text and
+     * cover the attribute value only (without the surrounding quotes).
+     */
+    public static final class Placeholder {
+        private final Kind kind;
+        private final String key;
+        private final String attributeName;
+        private final int valueStart;
+        private final int valueEnd;
+        private final int elementStart;
+        private final int elementIndex;
+
+        Placeholder(Kind kind, String key, String attributeName, int valueStart, int valueEnd, int elementStart, int elementIndex) {
+            this.kind = kind;
+            this.key = key;
+            this.attributeName = attributeName;
+            this.valueStart = valueStart;
+            this.valueEnd = valueEnd;
+            this.elementStart = elementStart;
+            this.elementIndex = elementIndex;
+        }
+
+        public Kind getKind() { return kind; }
+
+        /** The LSK key; for a REF this is the referenced target key (without the {@code REF:{...}} wrapper). */
+        public String getKey() { return key; }
+
+        public String getAttributeName() { return attributeName; }
+
+        public int getValueStart() { return valueStart; }
+
+        public int getValueEnd() { return valueEnd; }
+
+        /** Offset of the {@code '<'} of the element that owns this attribute. */
+        public int getElementStart() { return elementStart; }
+
+        /** Ordinal of the owning start tag within the scanned range. */
+        public int getElementIndex() { return elementIndex; }
+
+        @Override
+        public String toString() {
+            return kind + "{" + key + " @" + valueStart + "}";
+        }
+    }
+
+    private PlaceholderScanner() {}
+
+    public static List<Placeholder> scan(@NotNull CharSequence text) {
+        return scan(text, 0, text.length());
+    }
+
+    /**
+     * Scans {@code text} between {@code start} (inclusive) and {@code end} (exclusive).
+     *
+     * @return placeholders in document order.
+     */
+    public static List<Placeholder> scan(@NotNull CharSequence text, int start, int end) {
+        List<Placeholder> result = new ArrayList<>();
+        scan(text, start, end, result, null);
+        return result;
+    }
+
+    /**
+     * Lists the ranges (as {@code [start, end]} pairs) of <em>all</em> attribute values between {@code start} and
+     * {@code end}, placeholder or not, in document order. Used to line up an input fragment with its resolved form.
+     */
+    public static List<int[]> scanAttributeValues(@NotNull CharSequence text, int start, int end) {
+        List<int[]> ranges = new ArrayList<>();
+        scan(text, start, end, new ArrayList<>(), ranges);
+        return ranges;
+    }
+
+    private static void scan(CharSequence text, int start, int end, List<Placeholder> result, @Nullable List<int[]> valueRanges) {
+        int elementIndex = -1;
+        int i = start;
+        while (i < end) {
+            if (text.charAt(i) != '<') {
+                i++;
+                continue;
+            }
+            if (startsWith(text, i, end, "<!--")) {
+                i = skipPast(text, i + 4, end, "-->");
+            } else if (startsWith(text, i, end, "<![CDATA[")) {
+                i = skipPast(text, i + 9, end, "]]>");
+            } else if (startsWith(text, i, end, "<?")) {
+                i = skipPast(text, i + 2, end, "?>");
+            } else if (i + 1 < end && (text.charAt(i + 1) == '/' || text.charAt(i + 1) == '!')) {
+                i = skipPast(text, i + 2, end, ">");
+            } else {
+                elementIndex++;
+                i = scanStartTag(text, i, end, elementIndex, result, valueRanges);
+            }
+        }
+    }
+
+    /**
+     * Parses the attributes of a start tag beginning at {@code tagStart} and returns the offset after its closing {@code '>'}.
+     */
+    private static int scanStartTag(CharSequence text, int tagStart, int end, int elementIndex,
+                                    List<Placeholder> sink, @Nullable List<int[]> valueRanges) {
+        int i = tagStart + 1;
+        int nameStart = -1;
+        int nameEnd = -1;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '>') {
+                return i + 1;
+            }
+            if (c == '"' || c == '\'') {
+                int valueStart = i + 1;
+                int valueEnd = valueStart;
+                while (valueEnd < end && text.charAt(valueEnd) != c) {
+                    valueEnd++;
+                }
+                if (valueEnd >= end) {
+                    return end; // Unterminated value, selection ends inside the tag
+                }
+                if (valueRanges != null) {
+                    valueRanges.add(new int[]{valueStart, valueEnd});
+                }
+                String attributeName = nameStart >= 0 ? text.subSequence(nameStart, nameEnd).toString() : "";
+                Placeholder placeholder = classify(text, valueStart, valueEnd, attributeName, tagStart, elementIndex);
+                if (placeholder != null) {
+                    sink.add(placeholder);
+                }
+                nameStart = -1;
+                i = valueEnd + 1;
+                continue;
+            }
+            if (c == '=' || Character.isWhitespace(c) || c == '/') {
+                i++;
+                continue;
+            }
+            // Attribute (or element) name
+            int start = i;
+            while (i < end) {
+                char n = text.charAt(i);
+                if (n == '=' || n == '>' || n == '/' || n == '"' || n == '\'' || Character.isWhitespace(n)) break;
+                i++;
+            }
+            nameStart = start;
+            nameEnd = i;
+        }
+        return end;
+    }
+
+    @Nullable
+    private static Placeholder classify(CharSequence text, int valueStart, int valueEnd, String attributeName, int elementStart, int elementIndex) {
+        int length = valueEnd - valueStart;
+        if (length < 7) return null; // shortest possible "a:b:c:d"
+        if (startsWith(text, valueStart, valueEnd, REF_PREFIX) && text.charAt(valueEnd - 1) == REF_SUFFIX.charAt(0)) {
+            String target = text.subSequence(valueStart + REF_PREFIX.length(), valueEnd - 1).toString();
+            return hasLskShape(target)
+                    ? new Placeholder(Kind.REF, target, attributeName, valueStart, valueEnd, elementStart, elementIndex)
+                    : null;
+        }
+        String value = text.subSequence(valueStart, valueEnd).toString();
+        return isLskKey(value)
+                ? new Placeholder(Kind.LSK, value, attributeName, valueStart, valueEnd, elementStart, elementIndex)
+                : null;
+    }
+
+    /**
+     * Classifies a single, already extracted attribute value (e.g. from PSI).
+     *
+     * @return the LSK key of the value (the target key for a REF), or null if it is not a placeholder.
+     */
+    @Nullable
+    public static String keyOf(@Nullable String attributeValue) {
+        if (attributeValue == null) return null;
+        if (attributeValue.startsWith(REF_PREFIX) && attributeValue.endsWith(REF_SUFFIX)) {
+            String target = attributeValue.substring(REF_PREFIX.length(), attributeValue.length() - 1);
+            return hasLskShape(target) ? target : null;
+        }
+        return isLskKey(attributeValue) ? attributeValue : null;
+    }
+
+    /**
+     * @return true if {@code value} is an unresolved LSK placeholder (four segments, non-numeric logical ID).
+     */
+    public static boolean isLskKey(@Nullable String value) {
+        if (!hasLskShape(value)) return false;
+        String logicalId = value.substring(value.lastIndexOf(':') + 1);
+        for (int i = 0; i < logicalId.length(); i++) {
+            if (!Character.isDigit(logicalId.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasLskShape(@Nullable String value) {
+        if (value == null) return false;
+        int segments = 1;
+        int segmentLength = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ':') {
+                if (segmentLength == 0) return false;
+                segments++;
+                segmentLength = 0;
+            } else if (Character.isWhitespace(c) || c == '{' || c == '}' || c == '<' || c == '>') {
+                return false;
+            } else {
+                segmentLength++;
+            }
+        }
+        return segments == 4 && segmentLength > 0;
+    }
+
+    /**
+     * @return the distinct keys of the given placeholders, in first-seen order.
+     */
+    public static Set<String> collectKeys(@NotNull Collection<Placeholder> placeholders) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Placeholder placeholder : placeholders) {
+            keys.add(placeholder.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * Builds the text of {@code [start, end)} with every placeholder whose key is present in {@code resolved}
+     * replaced by its resolved value. Unresolved placeholders are left untouched.
+     *
+     * @param placeholders placeholders within the range, in document order (as returned by {@link #scan}).
+     */
+    public static String applyResolutions(@NotNull CharSequence text, int start, int end,
+                                          @NotNull List<Placeholder> placeholders,
+                                          @NotNull Map<String, String> resolved) {
+        StringBuilder builder = new StringBuilder(end - start);
+        int cursor = start;
+        for (Placeholder placeholder : placeholders) {
+            String value = resolved.get(placeholder.getKey());
+            if (value == null || placeholder.getValueStart() < cursor || placeholder.getValueEnd() > end) continue;
+            builder.append(text, cursor, placeholder.getValueStart()).append(value);
+            cursor = placeholder.getValueEnd();
+        }
+        builder.append(text, cursor, end);
+        return builder.toString();
+    }
+
+    private static boolean startsWith(CharSequence text, int offset, int end, String prefix) {
+        if (offset + prefix.length() > end) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int skipPast(CharSequence text, int offset, int end, String terminator) {
+        for (int i = offset; i <= end - terminator.length(); i++) {
+            if (startsWith(text, i, end, terminator)) return i + terminator.length();
+        }
+        return end;
+    }
+}
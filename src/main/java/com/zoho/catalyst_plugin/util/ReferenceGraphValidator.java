@@ -0,0 +1,153 @@
+package com.zoho.catalyst_plugin.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client-side validation of the REF -> LSK dependency graph of a selection, run before anything is sent
+ * to the backend. An element's LSK depends on every REF target in the same element; the pass reports
+ * <ul>
+ *     <li>REF targets that no LSK in the selection defines (dangling),</li>
+ *     <li>LSK keys defined more than once,</li>
+ *     <li>dependency cycles (including an element referencing its own LSK).</li>
+ * </ul>
+ * Runs in O(placeholders): one pass to index definitions and one iterative depth-first search.
+ */
+public final class ReferenceGraphValidator {
+
+    public enum ProblemType { DANGLING_REF, DUPLICATE_LSK, CYCLE }
+
+    public static final class Problem {
+        private final ProblemType type;
+        private final String message;
+        private final PlaceholderScanner.Placeholder placeholder;
+
+        Problem(ProblemType type, String message, PlaceholderScanner.Placeholder placeholder) {
+            this.type = type;
+            this.message = message;
+            this.placeholder = placeholder;
+        }
+
+        public ProblemType getType() { return type; }
+
+        public String getMessage() { return message; }
+
+        /** The offending placeholder occurrence (its value range is what should be highlighted). */
+        public PlaceholderScanner.Placeholder getPlaceholder() { return placeholder; }
+
+        @Override
+        public String toString() {
+            return type + ": " + message;
+        }
+    }
+
+    private ReferenceGraphValidator() {}
+
+    /**
+     * @param placeholders placeholders in document order, from one scan (as returned by {@link PlaceholderScanner#scan}) or
+     *                     from several scans of the same text, e.g. one per caret selection.
+     * @return the problems found; empty if the selection is consistent.
+     */
+    public static List<Problem> validate(@NotNull List<PlaceholderScanner.Placeholder> placeholders) {
+        if (placeholders.isEmpty()) return Collections.emptyList();
+        List<Problem> problems = new ArrayList<>();
+
+        // 1. Index LSK definitions, reporting duplicates
+        Map<String, PlaceholderScanner.Placeholder> definitions = new HashMap<>();
+        for (PlaceholderScanner.Placeholder placeholder : placeholders) {
+            if (placeholder.getKind() == PlaceholderScanner.Kind.LSK
+                    && definitions.putIfAbsent(placeholder.getKey(), placeholder) != null) {
+                problems.add(new Problem(ProblemType.DUPLICATE_LSK,
+                        "LSK '" + placeholder.getKey() + "' is defined more than once", placeholder));
+            }
+        }
+
+        // 2. Dangling references, and edges LSK -> REF placeholders of the same element
+        Map<String, List<PlaceholderScanner.Placeholder>> edges = new HashMap<>();
+        int elementFrom = 0;
+        for (int i = 0; i <= placeholders.size(); i++) {
+            if (i < placeholders.size() && placeholders.get(i).getElementStart() == placeholders.get(elementFrom).getElementStart()) {
+                continue;
+            }
+            List<PlaceholderScanner.Placeholder> element = placeholders.subList(elementFrom, i);
+            for (PlaceholderScanner.Placeholder ref : element) {
+                if (ref.getKind() != PlaceholderScanner.Kind.REF) continue;
+                if (!definitions.containsKey(ref.getKey())) {
+                    problems.add(new Problem(ProblemType.DANGLING_REF,
+                            "REF target '" + ref.getKey() + "' has no matching LSK in the selection", ref));
+                    continue;
+                }
+                for (PlaceholderScanner.Placeholder lsk : element) {
+                    if (lsk.getKind() == PlaceholderScanner.Kind.LSK && definitions.get(lsk.getKey()) == lsk) {
+                        edges.computeIfAbsent(lsk.getKey(), k -> new ArrayList<>()).add(ref);
+                    }
+                }
+            }
+            elementFrom = i;
+        }
+
+        // 3. Cycles: iterative three-colour DFS, each node and edge visited once
+        Map<String, Integer> state = new HashMap<>(); // absent = unvisited, 1 = on stack, 2 = done
+        for (String root : edges.keySet()) {
+            if (state.containsKey(root)) continue;
+            Deque<String> nodes = new ArrayDeque<>();
+            Deque<Integer> nextEdge = new ArrayDeque<>();
+            nodes.push(root);
+            nextEdge.push(0);
+            state.put(root, 1);
+            while (!nodes.isEmpty()) {
+                String node = nodes.peek();
+                int edgeIndex = nextEdge.pop();
+                List<PlaceholderScanner.Placeholder> outgoing = edges.getOrDefault(node, Collections.emptyList());
+                if (edgeIndex >= outgoing.size()) {
+                    state.put(node, 2);
+                    nodes.pop();
+                    continue;
+                }
+                nextEdge.push(edgeIndex + 1);
+                PlaceholderScanner.Placeholder ref = outgoing.get(edgeIndex);
+                Integer targetState = state.get(ref.getKey());
+                if (targetState == null) {
+                    state.put(ref.getKey(), 1);
+                    nodes.push(ref.getKey());
+                    nextEdge.push(0);
+                } else if (targetState == 1) {
+                    problems.add(new Problem(ProblemType.CYCLE,
+                            "REF to '" + ref.getKey() + "' creates a dependency cycle via '" + node + "'", ref));
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * The REF -> LSK edges of the selection, for callers that must keep a REF and its target together (e.g. when
+     * splitting the selection into chunks). A REF is linked to the first LSK defining its key; dangling REFs have no link.
+     *
+     * @param placeholders placeholders in document order, as for {@link #validate}
+     * @return {@code [refIndex, lskIndex]} pairs of indices into {@code placeholders}
+     */
+    public static List<int[]> referenceLinks(@NotNull List<PlaceholderScanner.Placeholder> placeholders) {
+        Map<String, Integer> definitions = new HashMap<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            if (placeholders.get(i).getKind() == PlaceholderScanner.Kind.LSK) {
+                definitions.putIfAbsent(placeholders.get(i).getKey(), i);
+            }
+        }
+        List<int[]> links = new ArrayList<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            Integer target = placeholders.get(i).getKind() == PlaceholderScanner.Kind.REF ? definitions.get(placeholders.get(i).getKey()) : null;
+            if (target != null) {
+                links.add(new int[]{i, target});
+            }
+        }
+        return links;
+    }
+}
@@ -1,47 +1,117 @@
 package com.zoho.catalyst_plugin.util;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.*;
+import io.netty.util.AsciiString;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class for sending HTTP responses using Netty.
+ * Utility class for sending HTTP responses using Netty, either complete or as a chunked stream.
+ * <p>
+ * Fixed pages are encoded once ({@link #staticContent}) and served from a shared read-only buffer. Other bodies
+ * are encoded straight into pooled buffers from the channel's allocator, which Netty releases once written;
+ * bodies above {@link #CHUNKED_THRESHOLD_BYTES} are sent as chunks so no single large buffer is needed.
  */
 public final class ResponseSender {
 
+    static final int CHUNKED_THRESHOLD_BYTES = Integer.getInteger("catalyst.lsk.http.chunked.threshold", 64 * 1024);
+    private static final int CHUNK_CHARS = 16 * 1024;
+
+    private static final AsciiString NO_CACHE = AsciiString.cached("no-cache, no-store, must-revalidate");
+    private static final AsciiString PRAGMA_NO_CACHE = AsciiString.cached("no-cache");
+    private static final AsciiString EXPIRES_NOW = AsciiString.cached("0");
+    private static final Map<String, AsciiString> CONTENT_TYPES = new ConcurrentHashMap<>();
+
+    /** A pre-encoded response body; create once with {@link #staticContent} and keep in a constant. */
+    public static final class StaticContent {
+        private final ByteBuf body; // unreleasable and read-only; every response gets its own duplicate
+        private final AsciiString contentType;
+
+        private StaticContent(ByteBuf body, AsciiString contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+    }
+
     private ResponseSender() {}
+
+    /**
+     * Encodes a fixed body once, for pages served over and over (e.g. the OAuth callback's result pages).
+     */
+    public static StaticContent staticContent(@NotNull String content, @NotNull String contentType) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ByteBuf body = Unpooled.unreleasableBuffer(Unpooled.directBuffer(bytes.length).writeBytes(bytes).asReadOnly());
+        return new StaticContent(body, contentTypeOf(contentType));
+    }
+
     public static void sendResponse(@NotNull FullHttpRequest request,
                                     @NotNull ChannelHandlerContext context,
                                     @NotNull HttpResponseStatus status,
                                     @Nullable String content,
                                     @NotNull String contentType) {
-        FullHttpResponse response = createResponse(status, content, contentType);
+        sendResponse(request, context.channel(), status, content, contentType);
+    }
+
+    /**
+     * Sends {@code content} as a complete response, or as a chunked one if it is larger than
+     * {@link #CHUNKED_THRESHOLD_BYTES} once encoded.
+     */
+    public static void sendResponse(@NotNull HttpRequest request,
+                                    @NotNull Channel channel,
+                                    @NotNull HttpResponseStatus status,
+                                    @Nullable String content,
+                                    @NotNull String contentType) {
+        if (content != null && ByteBufUtil.utf8Bytes(content) > CHUNKED_THRESHOLD_BYTES) {
+            ChunkedResponse response = startChunkedResponse(request, channel, status, contentType);
+            response.send(content);
+            response.finish();
+            return;
+        }
+        sendResponse(request, channel, createResponse(channel.alloc(), status, content, contentType));
+    }
+
+    public static void sendResponse(@NotNull FullHttpRequest request,
+                                    @NotNull ChannelHandlerContext context,
+                                    @NotNull HttpResponseStatus status,
+                                    @NotNull StaticContent content) {
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content.body.duplicate());
+        setHeaders(response, content.contentType);
+        HttpUtil.setContentLength(response, content.body.readableBytes());
         sendResponse(request, context.channel(), response);
     }
 
-    public static FullHttpResponse createResponse(@NotNull HttpResponseStatus status,
-                                                  @Nullable String content,
-                                                  @NotNull String contentType) {
-        byte[] bytes = content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8);
-        FullHttpResponse response = new DefaultFullHttpResponse(
-                HttpVersion.HTTP_1_1,
-                status,
-                Unpooled.wrappedBuffer(bytes)
-        );
+    private static FullHttpResponse createResponse(@NotNull ByteBufAllocator allocator,
+                                                   @NotNull HttpResponseStatus status,
+                                                   @Nullable String content,
+                                                   @NotNull String contentType) {
+        ByteBuf body = content == null || content.isEmpty() ? Unpooled.EMPTY_BUFFER : ByteBufUtil.writeUtf8(allocator, content);
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, body);
+        setHeaders(response, contentTypeOf(contentType));
+        HttpUtil.setContentLength(response, body.readableBytes());
+        return response;
+    }
 
+    private static void setHeaders(HttpResponse response, AsciiString contentType) {
         response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
-        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
-        response.headers().set(HttpHeaderNames.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
-        response.headers().set(HttpHeaderNames.PRAGMA, "no-cache");
-        response.headers().set(HttpHeaderNames.EXPIRES, "0");
+        response.headers().set(HttpHeaderNames.CACHE_CONTROL, NO_CACHE);
+        response.headers().set(HttpHeaderNames.PRAGMA, PRAGMA_NO_CACHE);
+        response.headers().set(HttpHeaderNames.EXPIRES, EXPIRES_NOW);
+    }
 
-        return response;
+    private static AsciiString contentTypeOf(String contentType) {
+        return CONTENT_TYPES.computeIfAbsent(contentType, AsciiString::cached);
     }
 
 
@@ -52,6 +122,74 @@ public final class ResponseSender {
         // Send the response and close the connection if not keep-alive
         if (channel.isActive()) { // Check if channel is still active before writing
             channel.writeAndFlush(response).addListener(keepAlive ? ChannelFutureListener.CLOSE_ON_FAILURE : ChannelFutureListener.CLOSE);
+        } else {
+            response.release(); // nobody will write it, so return its buffer to the pool
+        }
+    }
+
+    /**
+     * Starts a {@code Transfer-Encoding: chunked} response, for results that are sent as they become available.
+     * Write the body with {@link ChunkedResponse#send} and end it with {@link ChunkedResponse#finish}; both may be
+     * called from any thread.
+     */
+    public static ChunkedResponse startChunkedResponse(@NotNull HttpRequest request,
+                                                       @NotNull Channel channel,
+                                                       @NotNull HttpResponseStatus status,
+                                                       @NotNull String contentType) {
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
+        setHeaders(response, contentTypeOf(contentType));
+        HttpUtil.setTransferEncodingChunked(response, true);
+        HttpUtil.setKeepAlive(response, keepAlive);
+        if (channel.isActive()) {
+            channel.write(response).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        }
+        return new ChunkedResponse(channel, keepAlive);
+    }
+
+    /** Body of a response started with {@link #startChunkedResponse}. */
+    public static final class ChunkedResponse {
+        private final Channel channel;
+        private final boolean keepAlive;
+        private boolean finished; // guarded by "this", so no chunk can follow the last one
+
+        private ChunkedResponse(Channel channel, boolean keepAlive) {
+            this.channel = channel;
+            this.keepAlive = keepAlive;
+        }
+
+        /**
+         * Sends {@code content}, encoded into pooled buffers of at most {@link #CHUNK_CHARS} characters each.
+         *
+         * @return false if the client has gone away (or the response was finished), so the caller can stop work
+         */
+        public synchronized boolean send(@NotNull String content) {
+            if (finished || !channel.isActive()) return false;
+            if (content.isEmpty()) return true; // an empty chunk would end the body
+            ByteBufAllocator allocator = channel.alloc();
+            for (int start = 0; start < content.length(); ) {
+                int end = Math.min(content.length(), start + CHUNK_CHARS);
+                if (end < content.length() && Character.isHighSurrogate(content.charAt(end - 1))) end--; // keep pairs together
+                ByteBuf chunk = allocator.buffer(ByteBufUtil.utf8MaxBytes(end - start));
+                ByteBufUtil.writeUtf8(chunk, content, start, end);
+                channel.write(new DefaultHttpContent(chunk)).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+                start = end;
+            }
+            channel.flush();
+            return true;
+        }
+
+        public boolean isClientConnected() {
+            return channel.isActive();
+        }
+
+        /** Ends the body; closes the connection unless the client asked for keep-alive. */
+        public synchronized void finish() {
+            if (finished) return;
+            finished = true;
+            if (!channel.isActive()) return;
+            ChannelFuture future = channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            future.addListener(keepAlive ? ChannelFutureListener.CLOSE_ON_FAILURE : ChannelFutureListener.CLOSE);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.zoho.catalyst_plugin.util;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Classic token bucket: refills at {@code permitsPerSecond} up to {@code burst} tokens.
+ * {@link #acquire()} reserves a token and sleeps until it is due, so callers are released in reservation order
+ * and no lock is held while waiting.
+ */
+public final class TokenBucket {
+    private final double permitsPerNano;
+    private final double burst;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    /** For tests: {@code nanoClock} replaces {@link System#nanoTime()}. */
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive: " + permitsPerSecond + "/s, burst " + burst);
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token, waiting for it if the bucket is empty.
+     */
+    public void acquire() throws InterruptedIOException {
+        long waitNanos = reserve();
+        if (waitNanos <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the request rate limit.");
+        }
+    }
+
+    /**
+     * @return the nanoseconds until the reserved token is available (0 if it is available now).
+     */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        tokens -= 1; // may go negative: the deficit is the queue of reservations ahead of the next caller
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    public synchronized double getAvailableTokens() {
+        long now = nanoClock.getAsLong();
+        return Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+    }
+}
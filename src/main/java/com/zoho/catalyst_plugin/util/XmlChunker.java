@@ -0,0 +1,209 @@
+package com.zoho.catalyst_plugin.util;
+
+import com.intellij.openapi.util.TextRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a (possibly huge) XML selection into contiguous chunks at element boundaries.
+ * If the text has several top-level elements they are the split units; if it is a single root element,
+ * the root's children are. Units are packed into chunks of roughly {@code targetChunkSize} characters.
+ * Text between chunks (prolog, the root's own start and end tag, ...) is not part of any chunk.
+ * <p>
+ * Units linked to each other (e.g. a REF and the LSK it references) can be kept in the same chunk: linked units are
+ * merged into groups with a union-find, and a chunk boundary is only placed where no group spans it. A chunk grows
+ * past the target size rather than separate a group.
+ */
+public final class XmlChunker {
+
+    private XmlChunker() {}
+
+    /**
+     * @return chunk ranges in document order; a single range covering everything if the text cannot be split.
+     */
+    public static List<TextRange> split(@NotNull CharSequence text, int targetChunkSize) {
+        return split(text, targetChunkSize, List.of());
+    }
+
+    /**
+     * Like {@link #split(CharSequence, int)}, but never separates the two offsets of a link.
+     *
+     * @param links {@code [offset, offset]} pairs that must end up in the same chunk; offsets outside every
+     *              element (e.g. on the root's own tag) are ignored
+     */
+    public static List<TextRange> split(@NotNull CharSequence text, int targetChunkSize, @NotNull List<int[]> links) {
+        List<TextRange> units = elementRanges(text, 0);
+        if (units.size() == 1) {
+            units = elementRanges(text, 1);
+        }
+        List<TextRange> chunks = new ArrayList<>();
+        if (units.size() < 2) {
+            chunks.add(new TextRange(0, text.length()));
+            return chunks;
+        }
+        boolean[] spanned = spannedBoundaries(units, links);
+
+        int chunkStart = units.get(0).getStartOffset();
+        int chunkEnd = units.get(0).getEndOffset();
+        for (int i = 1; i < units.size(); i++) {
+            TextRange unit = units.get(i);
+            if (!spanned[i - 1] && unit.getEndOffset() - chunkStart > targetChunkSize) {
+                chunks.add(new TextRange(chunkStart, chunkEnd));
+                chunkStart = unit.getStartOffset();
+            }
+            chunkEnd = unit.getEndOffset();
+        }
+        chunks.add(new TextRange(chunkStart, chunkEnd));
+        return chunks;
+    }
+
+    /**
+     * Groups the units connected by {@code links} (union-find) and marks every boundary a group spans.
+     *
+     * @return for each {@code i}, whether the boundary between unit {@code i} and {@code i + 1} must not be split
+     */
+    private static boolean[] spannedBoundaries(List<TextRange> units, List<int[]> links) {
+        boolean[] spanned = new boolean[units.size() - 1];
+        if (links.isEmpty()) return spanned;
+        int[] parent = new int[units.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int[] link : links) {
+            int a = unitOf(units, link[0]);
+            int b = unitOf(units, link[1]);
+            if (a >= 0 && b >= 0) {
+                parent[root(parent, a)] = root(parent, b);
+            }
+        }
+        // Each group covers every unit between its first and last one, since chunks are contiguous
+        int[] last = new int[units.size()];
+        for (int i = 0; i < units.size(); i++) {
+            last[root(parent, i)] = i;
+        }
+        int reach = -1;
+        for (int i = 0; i < spanned.length; i++) {
+            reach = Math.max(reach, last[root(parent, i)]);
+            spanned[i] = reach > i;
+        }
+        return spanned;
+    }
+
+    private static int root(int[] parent, int unit) {
+        while (parent[unit] != unit) {
+            parent[unit] = parent[parent[unit]];
+            unit = parent[unit];
+        }
+        return unit;
+    }
+
+    /** @return the index of the unit containing {@code offset}, or -1 if it falls between units. */
+    private static int unitOf(List<TextRange> units, int offset) {
+        int low = 0;
+        int high = units.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            TextRange unit = units.get(middle);
+            if (offset < unit.getStartOffset()) {
+                high = middle - 1;
+            } else if (offset >= unit.getEndOffset()) {
+                low = middle + 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the ranges of all elements nested exactly {@code depth} levels deep.
+     */
+    private static List<TextRange> elementRanges(CharSequence text, int targetDepth) {
+        List<TextRange> ranges = new ArrayList<>();
+        int length = text.length();
+        int depth = 0;
+        int elementStart = -1;
+        int i = 0;
+        while (i < length) {
+            if (text.charAt(i) != '<') {
+                i++;
+                continue;
+            }
+            int tagStart = i;
+            if (regionMatches(text, i, "<!--")) {
+                i = indexAfter(text, i + 4, "-->");
+                continue;
+            }
+            if (regionMatches(text, i, "<![CDATA[")) {
+                i = indexAfter(text, i + 9, "]]>");
+                continue;
+            }
+            if (regionMatches(text, i, "<?") || regionMatches(text, i, "<!")) {
+                i = indexAfter(text, i + 2, ">");
+                continue;
+            }
+            boolean closing = i + 1 < length && text.charAt(i + 1) == '/';
+            int tagEnd = tagEnd(text, i + 1);
+            boolean selfClosing = !closing && tagEnd - 2 > tagStart && text.charAt(tagEnd - 2) == '/';
+            i = tagEnd;
+
+            if (closing) {
+                depth--;
+                if (depth == targetDepth && elementStart >= 0) {
+                    ranges.add(new TextRange(elementStart, tagEnd));
+                    elementStart = -1;
+                }
+            } else {
+                if (depth == targetDepth) {
+                    elementStart = tagStart;
+                }
+                if (selfClosing) {
+                    if (depth == targetDepth) {
+                        ranges.add(new TextRange(elementStart, tagEnd));
+                        elementStart = -1;
+                    }
+                } else {
+                    depth++;
+                }
+            }
+            if (depth < 0) {
+                // Unbalanced fragment: element boundaries can't be trusted
+                return new ArrayList<>();
+            }
+        }
+        return ranges;
+    }
+
+    /** @return the offset just after the {@code '>'} closing the tag, honouring quoted attribute values. */
+    private static int tagEnd(CharSequence text, int from) {
+        char quote = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        return text.length();
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int indexAfter(CharSequence text, int from, String terminator) {
+        for (int i = from; i <= text.length() - terminator.length(); i++) {
+            if (regionMatches(text, i, terminator)) return i + terminator.length();
+        }
+        return text.length();
+    }
+}
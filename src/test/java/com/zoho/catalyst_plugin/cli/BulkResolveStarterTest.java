@@ -0,0 +1,26 @@
+package com.zoho.catalyst_plugin.cli;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkResolveStarterTest {
+
+    @Test
+    void parallelismWithinTheLimitIsKept() {
+        assertEquals(4, BulkResolveStarter.parallelism("4", 16));
+        assertEquals(16, BulkResolveStarter.parallelism("16", 16));
+    }
+
+    @Test
+    void parallelismIsCappedAtTheBackendLimit() {
+        assertEquals(16, BulkResolveStarter.parallelism("500", 16));
+    }
+
+    @Test
+    void invalidParallelismIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BulkResolveStarter.parallelism("0", 16));
+        assertThrows(IllegalArgumentException.class, () -> BulkResolveStarter.parallelism("many", 16));
+    }
+}
@@ -0,0 +1,113 @@
+package com.zoho.catalyst_plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long TARGET_MILLIS = 500;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimiter(initial, min, max, TARGET_MILLIS, clock::get);
+    }
+
+    private static void complete(AdaptiveConcurrencyLimiter limiter, AdaptiveConcurrencyLimiter.Outcome outcome, long latencyNanos) throws InterruptedIOException {
+        limiter.acquire();
+        limiter.release(outcome, latencyNanos);
+    }
+
+    @Test
+    void initialLimitIsClampedToBounds() {
+        assertEquals(2, limiter(1, 2, 8).getLimit());
+        assertEquals(8, limiter(20, 2, 8).getLimit());
+    }
+
+    @Test
+    void successesGrowTheLimitByAboutOnePerWindow() throws InterruptedIOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 16);
+        for (int i = 0; i < 4; i++) complete(limiter, AdaptiveConcurrencyLimiter.Outcome.SUCCESS, FAST);
+        assertEquals(4, limiter.getLimit()); // 4 + 1/4 + 1/4.25 + ... stays just below 5
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.SUCCESS, FAST);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void growthStopsAtTheMaximum() throws InterruptedIOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(3, 1, 4);
+        for (int i = 0; i < 100; i++) complete(limiter, AdaptiveConcurrencyLimiter.Outcome.SUCCESS, FAST);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void overloadHalvesTheLimitOncePerCooldown() throws InterruptedIOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 16);
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.OVERLOADED, FAST);
+        assertEquals(4, limiter.getLimit());
+
+        // Same burst of failures: no further decrease within the cooldown
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.FAILED, FAST);
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.OVERLOADED, FAST);
+        assertEquals(4, limiter.getLimit());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.OVERLOADED, FAST);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void decreaseStopsAtTheMinimum() throws InterruptedIOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 3, 16);
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.OVERLOADED, FAST);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void slowSuccessCountsAsOverload() throws InterruptedIOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 16);
+        complete(limiter, AdaptiveConcurrencyLimiter.Outcome.SUCCESS, TimeUnit.MILLISECONDS.toNanos(TARGET_MILLIS + 1));
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void acquireWaitsForAFreeSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1);
+        limiter.acquire();
+        assertEquals(1, limiter.getInFlight());
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedIOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        assertFalse(second.isDone());
+
+        limiter.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS, FAST);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void pauseIsNeverShortened() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 16);
+        limiter.pauseFor(1000);
+        limiter.pauseFor(200);
+        assertEquals(1000, limiter.getPauseRemainingMillis());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(0, limiter.getPauseRemainingMillis());
+    }
+}
@@ -0,0 +1,42 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.zoho.catalyst_plugin.dto.BatchResolveResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BackendApiServiceTest {
+
+    @Test
+    void startsWithTheInitialConcurrencyLimitAndNothingInFlight() {
+        BackendApiService service = BackendApiService.getInstance();
+        assertEquals(4, service.getConcurrencyLimit());
+        assertEquals(0, service.getRequestsInFlight());
+        assertEquals(0, service.getBackoffRemainingMillis());
+    }
+
+    @Test
+    void keyLookupDeclaresEachKeyOnceInOrder() {
+        assertEquals("<lookups>\n<lookup value=\"T:ID:Billing:A\"/>\n<lookup value=\"T:ID:Billing:B&amp;C\"/>\n</lookups>",
+                BackendApiService.buildKeyLookupXml(List.of("T:ID:Billing:A", "T:ID:Billing:B&C")));
+    }
+
+    @Test
+    void resolvedKeyLookupMapsValuesBackByOrder() throws IOException {
+        String resolvedXml = "<lookups>\n<lookup value=\"T:ID:Billing:101\"/>\n<lookup value=\"T:ID:Billing:B\"/>\n</lookups>";
+        BatchResolveResponse response = BackendApiService.readKeyLookupXml(
+                List.of("T:ID:Billing:A", "T:ID:Billing:B"), resolvedXml, "Resolved");
+        assertEquals("T:ID:Billing:101", response.getResolved().get("T:ID:Billing:A"));
+        assertEquals(List.of("T:ID:Billing:B"), response.getUnresolved());
+    }
+
+    @Test
+    void resolvedKeyLookupWithMissingValuesIsRejected() {
+        assertThrows(IOException.class, () -> BackendApiService.readKeyLookupXml(
+                List.of("T:ID:Billing:A", "T:ID:Billing:B"), "<lookups><lookup value=\"T:ID:Billing:101\"/></lookups>", "Resolved"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.zoho.catalyst_plugin.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackendIoExecutorTest {
+    private final BackendIoExecutor executor = new BackendIoExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.dispose();
+    }
+
+    private static List<Integer> items(int count) {
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    @Test
+    void forEachHandlesEveryItemOnceWithinTheParallelism() throws InterruptedException {
+        Set<Integer> handled = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        executor.forEach(items(200), 4, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            assertTrue(handled.add(item));
+            running.decrementAndGet();
+        });
+        assertEquals(200, handled.size());
+        assertTrue(maxRunning.get() <= 4);
+    }
+
+    @Test
+    void nestedForEachCompletesWhenCalledFromTheExecutorItself() throws InterruptedException {
+        AtomicInteger handled = new AtomicInteger();
+        executor.forEach(items(64), 64, outer -> {
+            try {
+                executor.forEach(items(8), 8, inner -> handled.incrementAndGet());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertEquals(64 * 8, handled.get());
+    }
+}
@@ -0,0 +1,38 @@
+package com.zoho.catalyst_plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ModuleNameServiceTest {
+    private static final String PROJECT = "/work/shop";
+
+    @Test
+    void moduleIsTheDirectoryHoldingConf() {
+        assertEquals("Billing", ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/Billing/conf/seed.xml"));
+        assertEquals("Billing", ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/Billing/conf/data/rows.xml"));
+    }
+
+    @Test
+    void projectRootMayBeAboveTheModules() {
+        assertEquals("Tax", ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/apps/Tax/conf/seed.xml"));
+    }
+
+    @Test
+    void noModuleWithoutADirectoryAboveConf() {
+        assertNull(ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/conf/seed.xml"));
+        assertNull(ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/Billing/seed.xml"));
+    }
+
+    @Test
+    void fileOutsideConfFallsBackToTheSecondDirectory() {
+        assertEquals("Tax", ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/apps/Tax/seed.xml"));
+        assertEquals("Tax", ModuleNameService.moduleNameOf(PROJECT, PROJECT + "/apps/Tax/data/rows.xml"));
+    }
+
+    @Test
+    void fileOutsideTheRootHasNoModule() {
+        assertNull(ModuleNameService.moduleNameOf(PROJECT, "/work/other/Billing/conf/seed.xml"));
+    }
+}
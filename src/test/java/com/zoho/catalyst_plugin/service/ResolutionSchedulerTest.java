@@ -0,0 +1,133 @@
+package com.zoho.catalyst_plugin.service;
+
+import com.zoho.catalyst_plugin.service.ResolutionScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ResolutionSchedulerTest {
+    private static final long AGING_MILLIS = 1000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<Priority> admissionOrder = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private ResolutionScheduler scheduler(int maxConcurrent, int interactiveReserved) {
+        return new ResolutionScheduler(maxConcurrent, interactiveReserved, AGING_MILLIS, () -> Integer.MAX_VALUE, clock::get);
+    }
+
+    /** Starts a call that records its admission and then holds its slot until {@code release} opens. */
+    private Future<String> start(ResolutionScheduler scheduler, Priority priority, CountDownLatch release) {
+        return callers.submit(() -> scheduler.execute(priority, () -> {
+            admissionOrder.add(priority);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return priority.name();
+        }));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Condition not reached within 5 s");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void higherPriorityIsAdmittedFirst() throws Exception {
+        ResolutionScheduler scheduler = scheduler(1, 0);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch open = new CountDownLatch(0);
+        start(scheduler, Priority.SYNC, blocker);
+        waitUntil(() -> scheduler.getRunningCount(Priority.SYNC) == 1);
+
+        Future<String> bulk = start(scheduler, Priority.BULK, open);
+        waitUntil(() -> scheduler.getQueueDepth(Priority.BULK) == 1);
+        Future<String> prefetch = start(scheduler, Priority.EDITOR_PREFETCH, open);
+        waitUntil(() -> scheduler.getQueueDepth(Priority.EDITOR_PREFETCH) == 1);
+
+        blocker.countDown();
+        bulk.get(5, TimeUnit.SECONDS);
+        prefetch.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(Priority.SYNC, Priority.EDITOR_PREFETCH, Priority.BULK), admissionOrder);
+    }
+
+    @Test
+    void waitingCallersAgeIntoHigherPriority() throws Exception {
+        ResolutionScheduler scheduler = scheduler(1, 0);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch open = new CountDownLatch(0);
+        start(scheduler, Priority.BULK, blocker);
+        waitUntil(() -> scheduler.getRunningCount(Priority.BULK) == 1);
+
+        Future<String> sync = start(scheduler, Priority.SYNC, open);
+        waitUntil(() -> scheduler.getQueueDepth(Priority.SYNC) == 1);
+        // SYNC ranks two levels below EDITOR_PREFETCH; after three aging periods it ranks above it
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(3 * AGING_MILLIS));
+        Future<String> prefetch = start(scheduler, Priority.EDITOR_PREFETCH, open);
+        waitUntil(() -> scheduler.getQueueDepth(Priority.EDITOR_PREFETCH) == 1);
+
+        blocker.countDown();
+        sync.get(5, TimeUnit.SECONDS);
+        prefetch.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(Priority.BULK, Priority.SYNC, Priority.EDITOR_PREFETCH), admissionOrder);
+        assertEquals(3 * AGING_MILLIS, scheduler.getMaxWaitMillis(Priority.SYNC));
+    }
+
+    @Test
+    void reservedSlotsKeepInteractiveCallsFromWaitingBehindBackgroundWork() throws Exception {
+        ResolutionScheduler scheduler = scheduler(3, 1);
+        CountDownLatch background = new CountDownLatch(1);
+        start(scheduler, Priority.BULK, background);
+        start(scheduler, Priority.BULK, background);
+        waitUntil(() -> scheduler.getRunningCount(Priority.BULK) == 2);
+
+        // The third slot is reserved: more bulk work queues ...
+        Future<String> queuedBulk = start(scheduler, Priority.BULK, background);
+        waitUntil(() -> scheduler.getQueueDepth(Priority.BULK) == 1);
+
+        // ... while an interactive call runs straight away
+        Future<String> interactive = start(scheduler, Priority.INTERACTIVE, new CountDownLatch(0));
+        assertEquals("INTERACTIVE", interactive.get(5, TimeUnit.SECONDS));
+        assertEquals(1, scheduler.getQueueDepth(Priority.BULK));
+
+        background.countDown();
+        assertNotNull(queuedBulk.get(5, TimeUnit.SECONDS));
+        assertEquals(3, scheduler.getAdmittedCount(Priority.BULK));
+        assertTrue(admissionOrder.indexOf(Priority.INTERACTIVE) < admissionOrder.lastIndexOf(Priority.BULK));
+    }
+
+    @Test
+    void perPriorityLimitIsRespected() throws Exception {
+        ResolutionScheduler scheduler = scheduler(6, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) start(scheduler, Priority.EDITOR_PREFETCH, release);
+        waitUntil(() -> scheduler.getRunningCount(Priority.EDITOR_PREFETCH) == 2 && scheduler.getQueueDepth(Priority.EDITOR_PREFETCH) == 1);
+        release.countDown();
+        waitUntil(() -> scheduler.getAdmittedCount(Priority.EDITOR_PREFETCH) == 3);
+    }
+}
@@ -0,0 +1,40 @@
+package com.zoho.catalyst_plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingXmlResolverTest {
+
+    private static String patch(String xml, Charset charset, Map<String, String> resolved) throws IOException {
+        byte[] bytes = xml.getBytes(charset);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingXmlResolver.writePatchedCopy(() -> new ByteArrayInputStream(bytes), output, resolved);
+        return output.toString(charset);
+    }
+
+    @Test
+    void onlyResolvedValuesChange() throws IOException {
+        String xml = "<?xml version='1.0' encoding='ISO-8859-1'?>\n<!-- caf\u00e9 -->\n<rows>\n"
+                + "  <row  id='T:ID:M:A'   name=\"a &amp; b\"/>\n"
+                + "  <row id=\"T:ID:M:B\"><![CDATA[<row id=\"T:ID:M:A\"/>]]></row>\n"
+                + "</rows>\n";
+        String patched = patch(xml, StandardCharsets.ISO_8859_1, Map.of("T:ID:M:A", "T:ID:M:1"));
+        assertEquals(xml.replaceFirst("T:ID:M:A", "T:ID:M:1"), patched);
+    }
+
+    @Test
+    void markupIsNeverSplitBetweenBlocks() {
+        assertEquals(6, StreamingXmlResolver.completeMarkupEnd("<a/>x\n<b id=\"1>"));
+        assertEquals(4, StreamingXmlResolver.completeMarkupEnd("<a/><!-- <b/> "));
+        assertEquals(8, StreamingXmlResolver.completeMarkupEnd("<a/>text<"));
+        assertEquals(8, StreamingXmlResolver.completeMarkupEnd("<a/>text"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.zoho.catalyst_plugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    /** Buckets are 2^(1/4) wide, so a percentile may overstate the true value by up to that factor. */
+    private static final double BUCKET_WIDTH = Math.pow(2, 0.25);
+
+    private static void assertWithinBucket(double expectedMillis, double actualMillis) {
+        assertTrue(actualMillis >= expectedMillis / BUCKET_WIDTH && actualMillis <= expectedMillis * BUCKET_WIDTH,
+                "expected about " + expectedMillis + " ms but was " + actualMillis + " ms");
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMillis(0.99));
+        assertEquals(0, histogram.getMeanMillis());
+    }
+
+    @Test
+    void percentilesFollowTheRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 95; i++) histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        for (int i = 0; i < 5; i++) histogram.record(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertEquals(100, histogram.getCount());
+        assertWithinBucket(10, histogram.getPercentileMillis(0.50));
+        assertWithinBucket(10, histogram.getPercentileMillis(0.95));
+        assertWithinBucket(1000, histogram.getPercentileMillis(0.99));
+        assertEquals(1000, histogram.getMaxMillis(), 1e-9);
+        assertEquals((95 * 10 + 5 * 1000) / 100.0, histogram.getMeanMillis(), 1e-9);
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        assertEquals(3, histogram.getPercentileMillis(1.0), 1e-9);
+    }
+
+    @Test
+    void extremeValuesLandInTheOuterBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(TimeUnit.MINUTES.toNanos(10));
+        assertEquals(0.1, histogram.getPercentileMillis(0.5), 1e-9); // upper bound of the smallest bucket
+        assertEquals(TimeUnit.MINUTES.toMillis(10), histogram.getPercentileMillis(1.0), 1e-6);
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMillis());
+        assertEquals(0, histogram.getPercentileMillis(0.5));
+    }
+}
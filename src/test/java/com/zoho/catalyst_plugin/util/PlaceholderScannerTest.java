@@ -0,0 +1,86 @@
+package com.zoho.catalyst_plugin.util;
+
+import com.zoho.catalyst_plugin.util.PlaceholderScanner.Kind;
+import com.zoho.catalyst_plugin.util.PlaceholderScanner.Placeholder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceholderScannerTest {
+
+    @Test
+    void findsLskAndRefPlaceholders() {
+        String xml = "<OrderLine id=\"Lines:ID:Inv:L1\" product='REF:{Products:ID:Inv:P1}' qty=\"3\"/>";
+        List<Placeholder> placeholders = PlaceholderScanner.scan(xml);
+        assertEquals(2, placeholders.size());
+
+        Placeholder lsk = placeholders.get(0);
+        assertEquals(Kind.LSK, lsk.getKind());
+        assertEquals("Lines:ID:Inv:L1", lsk.getKey());
+        assertEquals("id", lsk.getAttributeName());
+        assertEquals("Lines:ID:Inv:L1", xml.substring(lsk.getValueStart(), lsk.getValueEnd()));
+
+        Placeholder ref = placeholders.get(1);
+        assertEquals(Kind.REF, ref.getKind());
+        assertEquals("Products:ID:Inv:P1", ref.getKey());
+        assertEquals("REF:{Products:ID:Inv:P1}", xml.substring(ref.getValueStart(), ref.getValueEnd()));
+        assertEquals(lsk.getElementStart(), ref.getElementStart());
+    }
+
+    @Test
+    void skipsResolvedValuesAndNonPlaceholders() {
+        String xml = "<A id=\"T:ID:M:123\" name=\"a:b:c\" note=\"has some: spaces:in:it\" ref=\"REF:{T:ID:M}\"/>";
+        assertTrue(PlaceholderScanner.scan(xml).isEmpty());
+    }
+
+    @Test
+    void ignoresCommentsCdataAndProcessingInstructions() {
+        String xml = "<?xml version=\"1.0\"?><!-- <A id=\"T:ID:M:X\"/> --><B><![CDATA[<C id=\"T:ID:M:Y\"/>]]></B><D id=\"T:ID:M:Z\"/>";
+        List<Placeholder> placeholders = PlaceholderScanner.scan(xml);
+        assertEquals(1, placeholders.size());
+        assertEquals("T:ID:M:Z", placeholders.get(0).getKey());
+    }
+
+    @Test
+    void scansOnlyTheGivenRange() {
+        String xml = "<A id=\"T:ID:M:A\"/><B id=\"T:ID:M:B\"/>";
+        int start = xml.indexOf("<B");
+        List<Placeholder> placeholders = PlaceholderScanner.scan(xml, start, xml.length());
+        assertEquals(1, placeholders.size());
+        assertEquals("T:ID:M:B", placeholders.get(0).getKey());
+        assertEquals(start, placeholders.get(0).getElementStart());
+    }
+
+    @Test
+    void collectsDistinctKeysInFirstSeenOrder() {
+        String xml = "<A id=\"T:ID:M:B\"/><B id=\"T:ID:M:A\" ref=\"REF:{T:ID:M:B}\"/>";
+        assertEquals(List.of("T:ID:M:B", "T:ID:M:A"), List.copyOf(PlaceholderScanner.collectKeys(PlaceholderScanner.scan(xml))));
+    }
+
+    @Test
+    void appliesResolutionsAndLeavesUnresolvedPlaceholders() {
+        String xml = "<A id=\"T:ID:M:A\" ref=\"REF:{T:ID:M:B}\"/>";
+        List<Placeholder> placeholders = PlaceholderScanner.scan(xml);
+        String resolved = PlaceholderScanner.applyResolutions(xml, 0, xml.length(), placeholders, Map.of("T:ID:M:A", "T:ID:M:7"));
+        assertEquals("<A id=\"T:ID:M:7\" ref=\"REF:{T:ID:M:B}\"/>", resolved);
+    }
+
+    @Test
+    void classifiesSingleValues() {
+        assertEquals("T:ID:M:A", PlaceholderScanner.keyOf("T:ID:M:A"));
+        assertEquals("T:ID:M:A", PlaceholderScanner.keyOf("REF:{T:ID:M:A}"));
+        assertNull(PlaceholderScanner.keyOf("T:ID:M:42"));
+        assertNull(PlaceholderScanner.keyOf("T::M:A"));
+        assertNull(PlaceholderScanner.keyOf(null));
+        assertTrue(PlaceholderScanner.isLskKey("T:ID:M:A1"));
+        assertFalse(PlaceholderScanner.isLskKey("T:ID:M:1"));
+        assertEquals(Set.of(), PlaceholderScanner.collectKeys(List.of()));
+    }
+}
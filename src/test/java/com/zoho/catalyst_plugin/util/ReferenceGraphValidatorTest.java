@@ -0,0 +1,99 @@
+package com.zoho.catalyst_plugin.util;
+
+import com.zoho.catalyst_plugin.util.ReferenceGraphValidator.Problem;
+import com.zoho.catalyst_plugin.util.ReferenceGraphValidator.ProblemType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceGraphValidatorTest {
+
+    private static List<Problem> validate(String xml) {
+        return ReferenceGraphValidator.validate(PlaceholderScanner.scan(xml));
+    }
+
+    private static List<ProblemType> types(List<Problem> problems) {
+        List<ProblemType> types = new ArrayList<>();
+        for (Problem problem : problems) types.add(problem.getType());
+        return types;
+    }
+
+    @Test
+    void consistentSelectionHasNoProblems() {
+        String xml = "<Product id=\"Products:ID:Inv:P1\"/>\n"
+                + "<OrderLine id=\"Lines:ID:Inv:L1\" product=\"REF:{Products:ID:Inv:P1}\"/>";
+        assertTrue(validate(xml).isEmpty());
+    }
+
+    @Test
+    void referenceWithoutDefinitionIsDangling() {
+        String xml = "<OrderLine id=\"Lines:ID:Inv:L1\" product=\"REF:{Products:ID:Inv:MISSING}\"/>";
+        List<Problem> problems = validate(xml);
+        assertEquals(List.of(ProblemType.DANGLING_REF), types(problems));
+        assertEquals(xml.indexOf("REF:{"), problems.get(0).getPlaceholder().getValueStart());
+    }
+
+    @Test
+    void keyDefinedTwiceIsReported() {
+        String xml = "<Product id=\"Products:ID:Inv:P1\"/><Product id=\"Products:ID:Inv:P1\"/>";
+        List<Problem> problems = validate(xml);
+        assertEquals(List.of(ProblemType.DUPLICATE_LSK), types(problems));
+        assertEquals(xml.lastIndexOf("Products:ID"), problems.get(0).getPlaceholder().getValueStart());
+    }
+
+    @Test
+    void mutualReferencesFormACycle() {
+        String xml = "<A id=\"T:ID:M:A\" next=\"REF:{T:ID:M:B}\"/>\n"
+                + "<B id=\"T:ID:M:B\" next=\"REF:{T:ID:M:A}\"/>";
+        assertEquals(List.of(ProblemType.CYCLE), types(validate(xml)));
+    }
+
+    @Test
+    void longerCycleIsFound() {
+        String xml = "<A id=\"T:ID:M:A\" next=\"REF:{T:ID:M:B}\"/>\n"
+                + "<B id=\"T:ID:M:B\" next=\"REF:{T:ID:M:C}\"/>\n"
+                + "<C id=\"T:ID:M:C\" next=\"REF:{T:ID:M:A}\"/>";
+        assertEquals(List.of(ProblemType.CYCLE), types(validate(xml)));
+    }
+
+    @Test
+    void elementReferencingItsOwnKeyIsACycle() {
+        String xml = "<A id=\"T:ID:M:A\" parent=\"REF:{T:ID:M:A}\"/>";
+        assertEquals(List.of(ProblemType.CYCLE), types(validate(xml)));
+    }
+
+    @Test
+    void sharedTargetIsNotACycle() {
+        String xml = "<Root id=\"T:ID:M:R\"/>\n"
+                + "<A id=\"T:ID:M:A\" parent=\"REF:{T:ID:M:R}\"/>\n"
+                + "<B id=\"T:ID:M:B\" parent=\"REF:{T:ID:M:R}\" sibling=\"REF:{T:ID:M:A}\"/>";
+        assertTrue(validate(xml).isEmpty());
+    }
+
+    @Test
+    void placeholdersOfSeveralSelectionsAreValidatedTogether() {
+        String xml = "<Product id=\"Products:ID:Inv:P1\"/>\n<!-- gap -->\n"
+                + "<OrderLine id=\"Lines:ID:Inv:L1\" product=\"REF:{Products:ID:Inv:P1}\"/>";
+        int gap = xml.indexOf("<!--");
+        List<PlaceholderScanner.Placeholder> union = new ArrayList<>(PlaceholderScanner.scan(xml, 0, gap));
+        union.addAll(PlaceholderScanner.scan(xml, gap, xml.length()));
+        assertTrue(ReferenceGraphValidator.validate(union).isEmpty());
+
+        // Each selection on its own would leave the REF dangling
+        assertEquals(List.of(ProblemType.DANGLING_REF), types(ReferenceGraphValidator.validate(PlaceholderScanner.scan(xml, gap, xml.length()))));
+    }
+
+    @Test
+    void referenceIsLinkedToItsTargetDefinition() {
+        String xml = "<Product id=\"Products:ID:Inv:P1\"/>\n"
+                + "<OrderLine id=\"Lines:ID:Inv:L1\" product=\"REF:{Products:ID:Inv:P1}\" other=\"REF:{Products:ID:Inv:MISSING}\"/>";
+        List<int[]> links = ReferenceGraphValidator.referenceLinks(PlaceholderScanner.scan(xml));
+        assertEquals(1, links.size());
+        assertEquals(2, links.get(0)[0]);
+        assertEquals(0, links.get(0)[1]);
+    }
+}
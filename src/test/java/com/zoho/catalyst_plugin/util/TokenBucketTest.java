@@ -0,0 +1,66 @@
+package com.zoho.catalyst_plugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void burstIsAvailableImmediately() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+    }
+
+    @Test
+    void reservationsBeyondTheBurstWaitInOrder() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(300), bucket.reserve());
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+        for (int i = 0; i < 3; i++) bucket.reserve();
+        assertEquals(0, bucket.getAvailableTokens(), 1e-9);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(1.5, bucket.getAvailableTokens(), 1e-9);
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), bucket.reserve());
+    }
+
+    @Test
+    void refillIsCappedAtTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+        bucket.reserve();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(3, bucket.getAvailableTokens(), 1e-9);
+    }
+
+    @Test
+    void waitingReservationsAreRepaidBeforeNewOnes() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+        bucket.reserve();
+        bucket.reserve(); // due in 100 ms
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        // The refilled token belongs to the earlier reservation
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.reserve());
+    }
+
+    @Test
+    void rejectsNonPositiveRateOrBurst() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+}
@@ -0,0 +1,79 @@
+package com.zoho.catalyst_plugin.util;
+
+import com.intellij.openapi.util.TextRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XmlChunkerTest {
+
+    @Test
+    void topLevelElementsArePackedUpToTheTargetSize() {
+        String xml = "<a/><b/><c/>";
+        assertEquals(List.of(new TextRange(0, 8), new TextRange(8, 12)), XmlChunker.split(xml, 8));
+    }
+
+    @Test
+    void singleRootIsSplitAtItsChildren() {
+        String xml = "<root><a/><b/></root>";
+        assertEquals(List.of(new TextRange(6, 10), new TextRange(10, 14)), XmlChunker.split(xml, 4));
+    }
+
+    @Test
+    void elementLargerThanTheTargetStaysWhole() {
+        String xml = "<a><x/><y/></a><b/>";
+        List<TextRange> chunks = XmlChunker.split(xml, 2);
+        assertEquals(List.of(new TextRange(0, 15), new TextRange(15, 19)), chunks);
+    }
+
+    @Test
+    void chunksNeverCutThroughAnElement() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<rows>\n");
+        for (int i = 0; i < 50; i++) {
+            xml.append("  <row id=\"T:ID:M:R").append(i).append("\"><cell v=\"").append(i).append("\"/></row>\n");
+        }
+        xml.append("</rows>\n");
+        List<TextRange> chunks = XmlChunker.split(xml, 200);
+        assertTrue(chunks.size() > 1);
+        int previousEnd = 0;
+        for (TextRange chunk : chunks) {
+            String text = chunk.substring(xml.toString());
+            assertEquals('<', text.charAt(0));
+            assertTrue(text.endsWith("</row>"));
+            assertTrue(chunk.getStartOffset() >= previousEnd);
+            previousEnd = chunk.getEndOffset();
+        }
+    }
+
+    @Test
+    void markupInsideQuotesCommentsAndCdataIsNotABoundary() {
+        String xml = "<a x=\"1>2\"/><!-- <b> --><c><![CDATA[</c>]]></c>";
+        List<TextRange> chunks = XmlChunker.split(xml, 1);
+        assertEquals(2, chunks.size());
+        assertEquals("<a x=\"1>2\"/>", chunks.get(0).substring(xml));
+        assertEquals("<c><![CDATA[</c>]]></c>", chunks.get(1).substring(xml));
+    }
+
+    @Test
+    void unbalancedFragmentIsNotSplit() {
+        String xml = "</x><a/><b/>";
+        assertEquals(List.of(new TextRange(0, xml.length())), XmlChunker.split(xml, 1));
+    }
+
+    @Test
+    void linkedElementsStayInOneChunk() {
+        String xml = "<a/><b/><c/><d/>";
+        // a references c: nothing may split a, b and c apart
+        List<TextRange> chunks = XmlChunker.split(xml, 4, List.of(new int[]{1, 9}));
+        assertEquals(List.of(new TextRange(0, 12), new TextRange(12, 16)), chunks);
+    }
+
+    @Test
+    void linksOutsideEveryElementAreIgnored() {
+        String xml = "<root><a/><b/></root>";
+        assertEquals(List.of(new TextRange(6, 10), new TextRange(10, 14)), XmlChunker.split(xml, 4, List.of(new int[]{1, 7})));
+    }
+}